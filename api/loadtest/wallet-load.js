@@ -0,0 +1,80 @@
+// k6 load test used to compare the platform thread pool with virtual threads.
+//
+//   VIRTUAL_THREADS_ENABLED=false ./mvnw spring-boot:run   # then: make load-test
+//   VIRTUAL_THREADS_ENABLED=true  ./mvnw spring-boot:run   # then: make load-test
+//
+// Each run writes its summary (throughput and p99 per endpoint) to
+// loadtest/results/<LABEL>.json.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080/api/v1/wallets';
+const WALLETS = Number(__ENV.WALLETS || 50);
+const LABEL = __ENV.LABEL || 'run';
+const JSON_HEADERS = { headers: { 'Content-Type': 'application/json' } };
+
+export const options = {
+    scenarios: {
+        mixed: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: Number(__ENV.VUS || 400) },
+                { duration: __ENV.DURATION || '2m', target: Number(__ENV.VUS || 400) },
+                { duration: '15s', target: 0 },
+            ],
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    thresholds: {
+        'http_req_failed': ['rate<0.01'],
+        'http_req_duration{endpoint:balance}': ['p(99)<250'],
+        'http_req_duration{endpoint:deposit}': ['p(99)<500'],
+    },
+};
+
+export function setup() {
+    const wallets = [];
+    for (let i = 0; i < WALLETS; i++) {
+        // The seeded customers are 1 to 3
+        const userId = (i % 3) + 1;
+        const response = http.post(BASE_URL, JSON.stringify({ userId }), JSON_HEADERS);
+        check(response, { 'wallet created': (r) => r.status === 200 });
+        wallets.push({ id: response.json('id'), userId });
+    }
+    return { wallets };
+}
+
+export default function (data) {
+    const wallet = data.wallets[Math.floor(Math.random() * data.wallets.length)];
+
+    // Mostly reads, as in production
+    if (Math.random() < 0.8) {
+        const response = http.get(`${BASE_URL}/${wallet.id}/balance`, { tags: { endpoint: 'balance' } });
+        check(response, { 'balance read': (r) => r.status === 200 });
+        return;
+    }
+
+    const body = JSON.stringify({ userId: wallet.userId, amount: { value: 1.00 } });
+    const response = http.post(`${BASE_URL}/${wallet.id}/deposit`, body,
+        Object.assign({ tags: { endpoint: 'deposit' } }, JSON_HEADERS));
+    check(response, { 'deposit accepted': (r) => r.status >= 200 && r.status < 300 });
+}
+
+export function handleSummary(data) {
+    const metric = (name) => data.metrics[name] ? data.metrics[name].values : {};
+    const line = (endpoint) => {
+        const values = metric(`http_req_duration{endpoint:${endpoint}}`);
+        return `${endpoint}: p50=${values['p(50)']}ms p99=${values['p(99)']}ms`;
+    };
+
+    return {
+        [`loadtest/results/${LABEL}.json`]: JSON.stringify(data, null, 2),
+        stdout: [
+            `[${LABEL}] throughput=${metric('http_reqs').rate} req/s failed=${metric('http_req_failed').rate}`,
+            line('balance'),
+            line('deposit'),
+            '',
+        ].join('\n'),
+    };
+}
@@ -0,0 +1,109 @@
+package com.service.wallet.api.admission;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Concurrency limit that adapts to the observed latency (AIMD).
+ *
+ * <pre>
+ * A request is admitted while fewer requests than the current limit are in
+ * flight. When an admitted request completes:
+ *
+ *   - If it took longer than the latency target, or failed because of an
+ *     overloaded dependency, the limit is multiplied by the backoff ratio
+ *   - Otherwise, if the limit was actually in use, it grows by 1 / limit, i.e.
+ *     roughly by one each time a whole limit of requests completes in time
+ *
+ * An external overload signal (e.g. a backed up queue) decreases the limit like
+ * a slow request does. The limit always stays between the minimum and maximum.
+ * </pre>
+ *
+ * Lock free, so it can be shared by any number of (virtual) request threads.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limitBits;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, Duration latencyTarget,
+            double backoffRatio) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("The limits must satisfy 1 <= min <= initial <= max");
+        }
+
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("The backoff ratio must be between 0 and 1");
+        }
+
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTargetNanos = latencyTarget.toNanos();
+        this.backoffRatio = backoffRatio;
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(initialLimit));
+    }
+
+    /**
+     * Takes a slot if one is available under the current limit. Every successful
+     * call must be followed by exactly one {@link #release(long, boolean)}.
+     *
+     * @return whether the request is admitted
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= getLimit()) {
+                return false;
+            }
+
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Frees the slot of a completed request and adapts the limit to its outcome.
+     *
+     * @param latencyNanos how long the request took
+     * @param overloaded   whether it failed because a dependency was overloaded
+     */
+    public void release(long latencyNanos, boolean overloaded) {
+        int current = inFlight.getAndDecrement();
+        if (overloaded || latencyNanos > latencyTargetNanos) {
+            decrease();
+        } else if (current * 2 >= getLimit()) {
+            // Only grow a limit that is actually used; idle traffic says nothing about capacity
+            update(limit -> limit + 1 / limit);
+        }
+    }
+
+    /**
+     * Decreases the limit as if a request had exceeded the latency target.
+     */
+    public void decrease() {
+        update(limit -> limit * backoffRatio);
+    }
+
+    public int getLimit() {
+        return (int) Double.longBitsToDouble(limitBits.get());
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void update(DoubleUnaryOperator function) {
+        limitBits.updateAndGet(bits -> {
+            double limit = function.applyAsDouble(Double.longBitsToDouble(bits));
+            return Double.doubleToLongBits(Math.clamp(limit, minLimit, maxLimit));
+        });
+    }
+}
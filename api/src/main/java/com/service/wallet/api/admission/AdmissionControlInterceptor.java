@@ -0,0 +1,103 @@
+package com.service.wallet.api.admission;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.service.wallet.api.enums.OperationType;
+import com.service.wallet.api.exception.AdmissionRejectedException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Sheds the requests of {@link AdmissionControlled} endpoints that exceed the
+ * concurrency limit of their operation, before any thread time, database
+ * connection or queue capacity is spent on them.
+ * <p>
+ * Each operation has its own {@link AdaptiveConcurrencyLimiter}, so a slow
+ * operation does not starve the others, and endpoints without the annotation
+ * (the balance reads) are never limited. Admitted requests feed their latency
+ * back to the limiter; a 5xx response counts as an overloaded dependency.
+ * </p>
+ *
+ * <pre>
+ * Metrics, tagged by operation:
+ *   - wallet.admission.limit      current concurrency limit
+ *   - wallet.admission.inflight   admitted requests in progress
+ *   - wallet.admission.rejected   requests rejected with 429
+ * </pre>
+ */
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+
+    private static final String ADMISSION_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".admission";
+
+    private final Map<OperationType, AdaptiveConcurrencyLimiter> limiters;
+    private final Map<OperationType, Counter> rejections = new EnumMap<>(OperationType.class);
+    private final Duration retryAfter;
+
+    public AdmissionControlInterceptor(Map<OperationType, AdaptiveConcurrencyLimiter> limiters, Duration retryAfter,
+            MeterRegistry meterRegistry) {
+        this.limiters = new EnumMap<>(limiters);
+        this.retryAfter = retryAfter;
+
+        this.limiters.forEach((operation, limiter) -> {
+            String tag = operation.name().toLowerCase();
+            Gauge.builder("wallet.admission.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .description("Concurrency limit of the operation")
+                    .tag("operation", tag)
+                    .register(meterRegistry);
+            Gauge.builder("wallet.admission.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .description("Admitted requests of the operation in progress")
+                    .tag("operation", tag)
+                    .register(meterRegistry);
+            rejections.put(operation, Counter.builder("wallet.admission.rejected")
+                    .description("Requests of the operation rejected over its concurrency limit")
+                    .tag("operation", tag)
+                    .register(meterRegistry));
+        });
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+
+        AdmissionControlled admissionControlled = handlerMethod.getMethodAnnotation(AdmissionControlled.class);
+        AdaptiveConcurrencyLimiter limiter = admissionControlled == null
+                ? null
+                : limiters.get(admissionControlled.value());
+        if (limiter == null) {
+            return true;
+        }
+
+        if (!limiter.tryAcquire()) {
+            rejections.get(admissionControlled.value()).increment();
+            throw new AdmissionRejectedException(
+                    "Too many concurrent " + admissionControlled.value() + " requests, retry later", retryAfter);
+        }
+
+        request.setAttribute(ADMISSION_ATTRIBUTE, new Admission(limiter, System.nanoTime()));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        if (request.getAttribute(ADMISSION_ATTRIBUTE) instanceof Admission admission) {
+            request.removeAttribute(ADMISSION_ATTRIBUTE);
+            admission.limiter().release(System.nanoTime() - admission.startNanos(),
+                    ex != null || response.getStatus() >= 500);
+        }
+    }
+
+    private record Admission(AdaptiveConcurrencyLimiter limiter, long startNanos) {
+    }
+}
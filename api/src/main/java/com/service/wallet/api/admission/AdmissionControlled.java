@@ -0,0 +1,22 @@
+package com.service.wallet.api.admission;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import com.service.wallet.api.enums.OperationType;
+
+/**
+ * Marks a controller method whose requests go through the adaptive concurrency
+ * limit of the given operation. Requests over the limit are rejected with
+ * {@code 429 Too Many Requests} before the method runs.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AdmissionControlled {
+
+    OperationType value();
+}
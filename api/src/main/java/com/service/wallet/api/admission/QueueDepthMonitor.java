@@ -0,0 +1,58 @@
+package com.service.wallet.api.admission;
+
+import java.util.Map;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.GetQueueAttributesRequest;
+import software.amazon.awssdk.services.sqs.model.QueueAttributeName;
+
+/**
+ * Feeds the backlog of the SQS queues into the concurrency limits.
+ * <p>
+ * When the processor falls behind, accepting more writes only grows the queue.
+ * Every run reads the approximate number of visible messages of each queue
+ * and, while it exceeds the threshold, decreases the limit of the operation
+ * that publishes to it, as if its requests had been slow.
+ * </p>
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class QueueDepthMonitor {
+
+    private final SqsClient sqsClient;
+    private final Map<String, AdaptiveConcurrencyLimiter> limitersByQueueUrl;
+    private final int maxMessages;
+
+    @Scheduled(fixedDelayString = "${wallet.admission.queue-depth.interval:5s}")
+    public void check() {
+        limitersByQueueUrl.forEach((queueUrl, limiter) -> {
+            try {
+                int depth = depthOf(queueUrl);
+                if (depth > maxMessages) {
+                    limiter.decrease();
+                    log.debug("{} messages waiting in {}, lowered the concurrency limit to {}", depth, queueUrl,
+                            limiter.getLimit());
+                }
+            } catch (SdkException e) {
+                // A missing signal must not shed anything; latency keeps driving the limit
+                log.warn("Failed to read the depth of {}", queueUrl, e);
+            }
+        });
+    }
+
+    private int depthOf(String queueUrl) {
+        String depth = sqsClient.getQueueAttributes(GetQueueAttributesRequest.builder()
+                .queueUrl(queueUrl)
+                .attributeNames(QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES)
+                .build())
+                .attributes()
+                .get(QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES);
+
+        return depth == null ? 0 : Integer.parseInt(depth);
+    }
+}
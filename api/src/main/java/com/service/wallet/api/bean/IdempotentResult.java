@@ -0,0 +1,16 @@
+package com.service.wallet.api.bean;
+
+import java.util.UUID;
+
+/**
+ * Outcome of an operation guarded by an idempotency key.
+ *
+ * @param status        the HTTP status of the response
+ * @param correlationId the correlation ID of the transaction, when the operation
+ *                      creates one
+ * @param replayed      whether the outcome was read from the idempotency store
+ *                      instead of executing the operation
+ */
+public record IdempotentResult(int status, UUID correlationId, boolean replayed) {
+
+}
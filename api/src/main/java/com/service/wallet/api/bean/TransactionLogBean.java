@@ -38,4 +38,21 @@ public record TransactionLogBean(
     public static TransactionLogBean buildWithdraw(Wallet sourceWallet, Amount amount, UUID correlationId) {
         return new TransactionLogBean(sourceWallet, null, amount, correlationId, OperationType.WITHDRAW);
     }
+
+    /**
+     * Prints the wallet IDs only: the wallets are usually lazy references, which
+     * the default record {@code toString} would load just to be logged.
+     */
+    @Override
+    public String toString() {
+        return "TransactionLogBean[sourceWalletId=" + walletId(sourceWallet)
+                + ", targetWalletId=" + walletId(targetWallet)
+                + ", amount=" + amount
+                + ", correlationId=" + correlationId
+                + ", operationType=" + operationType + "]";
+    }
+
+    private static Long walletId(Wallet wallet) {
+        return wallet == null ? null : wallet.getId();
+    }
 }
@@ -0,0 +1,36 @@
+package com.service.wallet.api.cache;
+
+import java.math.BigDecimal;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import com.service.wallet.common.cache.WalletBalanceCacheFormat;
+
+/**
+ * Compact binary serializer for {@link BigDecimal} cache values, in the
+ * layout of {@link WalletBalanceCacheFormat} also written by the processor.
+ *
+ * Bytes in another format are read as a cache miss. They are not overwritten,
+ * since a miss only fills absent entries, so such entries never share the
+ * keyspace of this one: the JSON entries written before this serializer was
+ * enabled live under the unversioned {@code balances::} prefix and expire
+ * unread.
+ */
+public class BigDecimalRedisSerializer implements RedisSerializer<BigDecimal> {
+
+    @Override
+    public byte[] serialize(BigDecimal value) throws SerializationException {
+        return value == null ? null : WalletBalanceCacheFormat.encode(value);
+    }
+
+    @Override
+    public BigDecimal deserialize(byte[] bytes) throws SerializationException {
+        return WalletBalanceCacheFormat.decode(bytes);
+    }
+
+    @Override
+    public Class<?> getTargetType() {
+        return BigDecimal.class;
+    }
+}
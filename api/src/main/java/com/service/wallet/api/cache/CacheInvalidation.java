@@ -0,0 +1,14 @@
+package com.service.wallet.api.cache;
+
+/**
+ * Message broadcast to every API instance when a cache entry changes, so each
+ * one drops its local copy.
+ *
+ * @param origin    the instance that changed the entry
+ * @param cacheName the cache holding the entry
+ * @param key       the key of the entry, {@code null} when the whole cache was
+ *                  cleared
+ */
+public record CacheInvalidation(String origin, String cacheName, String key) {
+
+}
@@ -0,0 +1,73 @@
+package com.service.wallet.api.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Broadcasts cache invalidations to the other API instances through a Redis
+ * pub/sub channel and hands the ones received from them to a local listener.
+ * <p>
+ * Invalidations published by this instance are ignored on receipt, since the
+ * local cache was already updated when they were published.
+ * </p>
+ */
+@Slf4j
+public class CacheInvalidationBus implements MessageListener {
+
+    @Getter
+    private final String channel;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private volatile Consumer<CacheInvalidation> listener = invalidation -> {
+    };
+
+    public CacheInvalidationBus(String channel, StringRedisTemplate redisTemplate, ObjectMapper objectMapper) {
+        this.channel = channel;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    public void subscribe(Consumer<CacheInvalidation> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Tells the other instances to drop their local copy of an entry, or of the
+     * whole cache when the key is {@code null}. A failure is only logged: the
+     * local entries expire on their own shortly after.
+     */
+    public void publish(String cacheName, String key) {
+        try {
+            redisTemplate.convertAndSend(channel,
+                    objectMapper.writeValueAsString(new CacheInvalidation(instanceId, cacheName, key)));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Failed to publish the invalidation of key {} of cache {}", key, cacheName, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            var invalidation = objectMapper.readValue(new String(message.getBody(), StandardCharsets.UTF_8),
+                    CacheInvalidation.class);
+            if (!instanceId.equals(invalidation.origin())) {
+                listener.accept(invalidation);
+            }
+        } catch (Exception e) {
+            log.warn("Ignoring malformed cache invalidation message", e);
+        }
+    }
+}
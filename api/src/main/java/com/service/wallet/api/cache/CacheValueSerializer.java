@@ -0,0 +1,14 @@
+package com.service.wallet.api.cache;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * Registers a dedicated Redis value serializer for one cache. Every bean of
+ * this type overrides the default JSON serializer of its cache.
+ *
+ * @param cacheName  the cache the serializer applies to
+ * @param serializer the serializer of the cache values
+ */
+public record CacheValueSerializer(String cacheName, RedisSerializer<?> serializer) {
+
+}
@@ -0,0 +1,173 @@
+package com.service.wallet.api.cache;
+
+import java.util.concurrent.Callable;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+/**
+ * Cache that keeps a bounded, short-lived copy of the entries in process (L1)
+ * in front of a shared cache (L2, Redis).
+ *
+ * <pre>
+ * - Reads are served from L1 when present, otherwise from L2, filling L1
+ * - Writes, evictions and clears go to L2, update L1 and are broadcast so the
+ *   other instances drop their L1 copy
+ * - Values computed on a miss only fill L2 if it is still empty, so a value
+ *   read before a concurrent change never overwrites the newer one
+ * </pre>
+ *
+ * Keys are stored in L1 in their string form, the same form used by the Redis
+ * cache, so an invalidation received as a string matches the cached entry.
+ */
+public class TwoLevelCache implements Cache {
+
+    private final Cache sharedCache;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> localCache;
+    private final CacheInvalidationBus invalidationBus;
+
+    public TwoLevelCache(Cache sharedCache, com.github.benmanes.caffeine.cache.Cache<String, Object> localCache,
+            CacheInvalidationBus invalidationBus) {
+        this.sharedCache = sharedCache;
+        this.localCache = localCache;
+        this.invalidationBus = invalidationBus;
+    }
+
+    @Override
+    public String getName() {
+        return sharedCache.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return sharedCache.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Object value = localCache.getIfPresent(localKey(key));
+        if (value != null) {
+            return new SimpleValueWrapper(value);
+        }
+
+        ValueWrapper wrapper = sharedCache.get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            localCache.put(localKey(key), wrapper.get());
+        }
+
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object value = localCache.getIfPresent(localKey(key));
+        if (value != null) {
+            return (T) value;
+        }
+
+        ValueWrapper wrapper = sharedCache.get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            localCache.put(localKey(key), wrapper.get());
+            return (T) wrapper.get();
+        }
+
+        T loaded;
+        try {
+            loaded = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+
+        if (loaded == null) {
+            return null;
+        }
+
+        ValueWrapper existing = putIfAbsent(key, loaded);
+        return existing == null || existing.get() == null ? loaded : (T) existing.get();
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        sharedCache.put(key, value);
+        if (value == null) {
+            localCache.invalidate(localKey(key));
+        } else {
+            localCache.put(localKey(key), value);
+        }
+
+        invalidationBus.publish(getName(), localKey(key));
+    }
+
+    /**
+     * Fills L2 only if the entry is absent (SET NX on Redis) and keeps in L1
+     * whichever value L2 ends up holding. Nothing is broadcast: the other
+     * instances already dropped their copy when the entry was removed.
+     * <p>
+     * An entry L2 holds but cannot decode counts as present: it is not
+     * replaced and reads as a miss until it expires, so a change of the value
+     * layout has to move to a new keyspace.
+     * </p>
+     */
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = sharedCache.putIfAbsent(key, value);
+        Object current = existing == null || existing.get() == null ? value : existing.get();
+        if (current != null) {
+            localCache.put(localKey(key), current);
+        }
+
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        sharedCache.evict(key);
+        localCache.invalidate(localKey(key));
+        invalidationBus.publish(getName(), localKey(key));
+    }
+
+    @Override
+    public void clear() {
+        sharedCache.clear();
+        localCache.invalidateAll();
+        invalidationBus.publish(getName(), null);
+    }
+
+    Cache getSharedCache() {
+        return sharedCache;
+    }
+
+    com.github.benmanes.caffeine.cache.Cache<String, Object> getLocalCache() {
+        return localCache;
+    }
+
+    /**
+     * Drops the local copy of an entry changed by another instance, or every
+     * local entry when the key is {@code null}.
+     */
+    void invalidateLocal(String key) {
+        if (key == null) {
+            localCache.invalidateAll();
+        } else {
+            localCache.invalidate(key);
+        }
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
@@ -0,0 +1,71 @@
+package com.service.wallet.api.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Cache manager that puts an in-process near cache in front of the selected
+ * caches of a shared cache manager, leaving the other caches untouched.
+ * <p>
+ * Each near cache is bounded in size and expires its entries shortly after
+ * they are written, which caps how stale a local entry can get if an
+ * invalidation message is lost. Near caches record their statistics, exposed
+ * by {@link TwoLevelCacheMeterBinderProvider}.
+ * </p>
+ */
+public class TwoLevelCacheManager implements CacheManager {
+
+    private final CacheManager sharedCacheManager;
+    private final CacheInvalidationBus invalidationBus;
+    private final Set<String> nearCacheNames;
+    private final long maximumSize;
+    private final Duration timeToLive;
+    private final Map<String, TwoLevelCache> nearCaches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager sharedCacheManager, CacheInvalidationBus invalidationBus,
+            Set<String> nearCacheNames, long maximumSize, Duration timeToLive) {
+        this.sharedCacheManager = sharedCacheManager;
+        this.invalidationBus = invalidationBus;
+        this.nearCacheNames = Set.copyOf(nearCacheNames);
+        this.maximumSize = maximumSize;
+        this.timeToLive = timeToLive;
+        invalidationBus.subscribe(this::onInvalidation);
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        if (!nearCacheNames.contains(name)) {
+            return sharedCacheManager.getCache(name);
+        }
+
+        return nearCaches.computeIfAbsent(name, cacheName -> {
+            Cache sharedCache = sharedCacheManager.getCache(cacheName);
+            return sharedCache == null ? null
+                    : new TwoLevelCache(sharedCache, Caffeine.newBuilder()
+                            .maximumSize(maximumSize)
+                            .expireAfterWrite(timeToLive)
+                            .recordStats()
+                            .build(), invalidationBus);
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return sharedCacheManager.getCacheNames();
+    }
+
+    private void onInvalidation(CacheInvalidation invalidation) {
+        TwoLevelCache cache = nearCaches.get(invalidation.cacheName());
+        if (cache != null) {
+            cache.invalidateLocal(invalidation.key());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.service.wallet.api.cache;
+
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.RedisCacheMetrics;
+import org.springframework.data.redis.cache.RedisCache;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Exposes the standard cache metrics ({@code cache.gets} by hit and miss,
+ * {@code cache.puts}, {@code cache.evictions}, ...) of both levels of a
+ * {@link TwoLevelCache}.
+ * <p>
+ * The near cache is reported as {@code <name>.near} and the Redis cache under
+ * its own name, so the hit ratio of each level can be told apart: most reads
+ * of a hot entry should be near cache hits, and a near cache miss costs a
+ * Redis round trip.
+ * </p>
+ */
+public class TwoLevelCacheMeterBinderProvider implements CacheMeterBinderProvider<TwoLevelCache> {
+
+    static final String NEAR_CACHE_SUFFIX = ".near";
+
+    @Override
+    public MeterBinder getMeterBinder(TwoLevelCache cache, Iterable<Tag> tags) {
+        return registry -> {
+            new CaffeineCacheMetrics<>(cache.getLocalCache(), cache.getName() + NEAR_CACHE_SUFFIX, tags)
+                    .bindTo(registry);
+            if (cache.getSharedCache() instanceof RedisCache redisCache) {
+                new RedisCacheMetrics(redisCache, tags).bindTo(registry);
+            }
+        };
+    }
+}
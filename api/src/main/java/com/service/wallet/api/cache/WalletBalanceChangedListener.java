@@ -0,0 +1,54 @@
+package com.service.wallet.api.cache;
+
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.service.wallet.api.dto.messaging.WalletBalanceChangedEvent;
+import com.service.wallet.common.cache.WalletBalanceCacheFormat;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drops the near cache copy of the balances settled by the processor.
+ * <p>
+ * The processor is the only writer of settled balances: it overwrites the
+ * Redis entries itself, while still holding the locks of the wallets, before
+ * publishing the event. Every API instance receives the event, so this
+ * listener only touches its own near cache and never writes Redis or
+ * broadcasts an invalidation; the next read loads the settled balance from
+ * Redis.
+ * </p>
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class WalletBalanceChangedListener implements MessageListener {
+
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        WalletBalanceChangedEvent event;
+        try {
+            event = objectMapper.readValue(new String(message.getBody(), StandardCharsets.UTF_8),
+                    WalletBalanceChangedEvent.class);
+        } catch (Exception e) {
+            log.warn("Ignoring malformed wallet balance changed event", e);
+            return;
+        }
+
+        Cache cache = cacheManager.getCache(WalletBalanceCacheFormat.CACHE_NAME);
+        if (!(cache instanceof TwoLevelCache twoLevelCache) || event.balances() == null) {
+            return;
+        }
+
+        event.balances().keySet().forEach(walletId -> twoLevelCache.invalidateLocal(String.valueOf(walletId)));
+        log.debug("Dropped the near cached balance of wallets {}", event.balances().keySet());
+    }
+}
@@ -0,0 +1,155 @@
+package com.service.wallet.api.cache;
+
+import java.util.List;
+import java.util.OptionalLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.service.wallet.api.repository.WalletRepository;
+import com.service.wallet.api.repository.projection.WalletOwner;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory index of the wallet owners, in both directions: wallet ID to
+ * customer ID and customer ID to wallet ID.
+ *
+ * <pre>
+ * A wallet never changes owner and a customer never gets a second wallet, so
+ * the entries never go stale and are never expired, only evicted when the index
+ * is full. The index is:
+ *
+ *   - Warmed on startup with the owners of the first wallets, up to its size
+ *   - Filled lazily: a miss reads the owner from the database once
+ *   - Updated when a wallet is created, once its transaction commits
+ *
+ * Missing wallets are not remembered, so a wallet created by another instance
+ * is found on its first request.
+ *
+ * Metrics: the standard cache metrics of walletOwnership.byWallet and
+ * walletOwnership.byCustomer.
+ * </pre>
+ */
+@Slf4j
+@Component
+public class WalletOwnershipIndex {
+
+    private final WalletRepository walletRepository;
+    private final Cache<Long, Long> customerByWallet;
+    private final Cache<Long, Long> walletByCustomer;
+    private final long maximumSize;
+
+    @Value("${wallet.ownership.warm-up.enabled:true}")
+    private boolean warmUpEnabled;
+
+    @Value("${wallet.ownership.warm-up.page-size:10000}")
+    private int warmUpPageSize;
+
+    public WalletOwnershipIndex(WalletRepository walletRepository, MeterRegistry meterRegistry,
+            @Value("${wallet.ownership.maximum-size:200000}") long maximumSize) {
+        this.walletRepository = walletRepository;
+        this.maximumSize = maximumSize;
+        this.customerByWallet = Caffeine.newBuilder().maximumSize(maximumSize).recordStats().build();
+        this.walletByCustomer = Caffeine.newBuilder().maximumSize(maximumSize).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, customerByWallet, "walletOwnership.byWallet");
+        CaffeineCacheMetrics.monitor(meterRegistry, walletByCustomer, "walletOwnership.byCustomer");
+    }
+
+    /**
+     * Returns the ID of the customer owning the wallet.
+     *
+     * @param walletId the ID of the wallet
+     * @return the customer ID, or empty if the wallet does not exist
+     */
+    public OptionalLong findCustomerId(long walletId) {
+        return toOptional(customerByWallet.get(walletId, id -> walletRepository.findOwnerById(id)
+                .map(owner -> {
+                    // Index the other direction too, the loader must not write its own cache
+                    walletByCustomer.put(owner.customerId(), owner.walletId());
+                    return owner.customerId();
+                })
+                .orElse(null)));
+    }
+
+    /**
+     * Returns the ID of the wallet of the customer.
+     *
+     * @param customerId the ID of the customer
+     * @return the wallet ID, or empty if the customer has no wallet
+     */
+    public OptionalLong findWalletId(long customerId) {
+        return toOptional(walletByCustomer.get(customerId, id -> walletRepository.findOwnerByCustomerId(id)
+                .map(owner -> {
+                    customerByWallet.put(owner.walletId(), owner.customerId());
+                    return owner.walletId();
+                })
+                .orElse(null)));
+    }
+
+    /**
+     * Adds a wallet to the index. Inside a transaction the wallet is only added
+     * once the transaction commits, so a rolled back wallet is never indexed.
+     */
+    public void register(long walletId, long customerId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(walletId, customerId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(walletId, customerId);
+            }
+        });
+    }
+
+    /**
+     * Loads the owners of the wallets in ascending ID order, one page at a time,
+     * until the index is full or every wallet is loaded. A failure only leaves
+     * the index to be filled lazily.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!warmUpEnabled) {
+            return;
+        }
+
+        try {
+            var minId = walletRepository.findMinId();
+            var maxId = walletRepository.findMaxId();
+            if (minId.isEmpty() || maxId.isEmpty()) {
+                return;
+            }
+
+            long loaded = 0;
+            for (long from = minId.get(); from <= maxId.get() && loaded < maximumSize; from += warmUpPageSize) {
+                List<WalletOwner> owners = walletRepository.findOwnersBetween(from, from + warmUpPageSize - 1);
+                owners.forEach(owner -> put(owner.walletId(), owner.customerId()));
+                loaded += owners.size();
+            }
+
+            log.info("Warmed the wallet ownership index with {} wallets", loaded);
+        } catch (RuntimeException e) {
+            log.warn("Failed to warm the wallet ownership index, it will be filled on demand", e);
+        }
+    }
+
+    private void put(long walletId, long customerId) {
+        customerByWallet.put(walletId, customerId);
+        walletByCustomer.put(customerId, walletId);
+    }
+
+    private static OptionalLong toOptional(Long value) {
+        return value == null ? OptionalLong.empty() : OptionalLong.of(value);
+    }
+}
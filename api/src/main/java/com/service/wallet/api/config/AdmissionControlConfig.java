@@ -0,0 +1,67 @@
+package com.service.wallet.api.config;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.service.wallet.api.admission.AdaptiveConcurrencyLimiter;
+import com.service.wallet.api.admission.AdmissionControlInterceptor;
+import com.service.wallet.api.admission.QueueDepthMonitor;
+import com.service.wallet.api.enums.OperationType;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import software.amazon.awssdk.services.sqs.SqsClient;
+
+/**
+ * Admission control of the write endpoints: one adaptive concurrency limit per
+ * operation listed under {@code wallet.admission.operations}, optionally also
+ * lowered by the backlog of the operation's queue.
+ */
+@Configuration
+@EnableConfigurationProperties(AdmissionControlProperty.class)
+@ConditionalOnProperty(value = "wallet.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlConfig implements WebMvcConfigurer {
+
+    private final AdmissionControlProperty property;
+    private final Map<OperationType, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(OperationType.class);
+    private final AdmissionControlInterceptor admissionControlInterceptor;
+
+    public AdmissionControlConfig(AdmissionControlProperty property, MeterRegistry meterRegistry) {
+        this.property = property;
+        property.getOperations().forEach((operation, budget) -> limiters.put(operation,
+                new AdaptiveConcurrencyLimiter(budget.getInitialLimit(), budget.getMinLimit(), budget.getMaxLimit(),
+                        budget.getLatencyTarget(), budget.getBackoffRatio())));
+        this.admissionControlInterceptor = new AdmissionControlInterceptor(limiters, property.getRetryAfter(),
+                meterRegistry);
+    }
+
+    @Bean
+    public AdmissionControlInterceptor admissionControlInterceptor() {
+        return admissionControlInterceptor;
+    }
+
+    @Bean
+    @ConditionalOnProperty(value = "wallet.admission.queue-depth.enabled", havingValue = "true")
+    public QueueDepthMonitor queueDepthMonitor(SqsClient sqsClient) {
+        Map<String, AdaptiveConcurrencyLimiter> limitersByQueueUrl = new HashMap<>();
+        property.getOperations().forEach((operation, budget) -> {
+            if (budget.getQueueUrl() != null && !budget.getQueueUrl().isBlank()) {
+                limitersByQueueUrl.put(budget.getQueueUrl(), limiters.get(operation));
+            }
+        });
+
+        return new QueueDepthMonitor(sqsClient, limitersByQueueUrl, property.getQueueDepth().getMaxMessages());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(admissionControlInterceptor);
+    }
+}
@@ -0,0 +1,42 @@
+package com.service.wallet.api.config;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import com.service.wallet.api.enums.OperationType;
+
+import lombok.Value;
+
+@Value
+@ConfigurationProperties(prefix = "wallet.admission")
+public class AdmissionControlProperty {
+
+    Duration retryAfter;
+    Map<OperationType, Budget> operations;
+    QueueDepth queueDepth;
+
+    /**
+     * Concurrency budget of one operation.
+     */
+    @Value
+    public static class Budget {
+
+        int initialLimit;
+        int minLimit;
+        int maxLimit;
+        Duration latencyTarget;
+        double backoffRatio;
+        // Optional queue whose backlog also lowers the limit
+        String queueUrl;
+    }
+
+    @Value
+    public static class QueueDepth {
+
+        boolean enabled;
+        int maxMessages;
+        Duration interval;
+    }
+}
@@ -1,27 +1,129 @@
 package com.service.wallet.api.config;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.service.wallet.api.cache.BigDecimalRedisSerializer;
+import com.service.wallet.api.cache.CacheInvalidationBus;
+import com.service.wallet.api.cache.CacheValueSerializer;
+import com.service.wallet.api.cache.TwoLevelCacheManager;
+import com.service.wallet.api.cache.TwoLevelCacheMeterBinderProvider;
+import com.service.wallet.api.cache.WalletBalanceChangedListener;
+import com.service.wallet.common.cache.WalletBalanceCacheFormat;
+
 @EnableCaching
 @Configuration
 public class RedisConfig {
 
-    // TODO move to application.yml
-    private static final int ENTRY_TTL = 120; // 2 hours
+    @Value("${wallet.cache.entry-ttl:2h}")
+    private Duration entryTtl;
+
+    @Value("${wallet.cache.near.caches:balances}")
+    private Set<String> nearCacheNames;
+
+    @Value("${wallet.cache.near.maximum-size:10000}")
+    private long nearCacheMaximumSize;
+
+    @Value("${wallet.cache.near.ttl:5s}")
+    private Duration nearCacheTtl;
+
+    @Value("${wallet.cache.near.invalidation-channel:wallet:cache:invalidation}")
+    private String invalidationChannel;
+
+    @Value("${wallet.events.balance-changed.channel:wallet:balance-changed}")
+    private String balanceChangedChannel;
 
     @Bean
     public RedisCacheConfiguration defaultCacheConfiguration() {
         return RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofMinutes(ENTRY_TTL))
+                .entryTtl(entryTtl)
                 .disableCachingNullValues()
                 .serializeValuesWith(RedisSerializationContext.SerializationPair
                         .fromSerializer(new GenericJackson2JsonRedisSerializer()));
     }
-}
\ No newline at end of file
+
+    /**
+     * Balances are plain {@link java.math.BigDecimal} values, stored in a few
+     * bytes instead of JSON with class metadata.
+     */
+    @Bean
+    public CacheValueSerializer balancesValueSerializer() {
+        return new CacheValueSerializer(WalletBalanceCacheFormat.CACHE_NAME, new BigDecimalRedisSerializer());
+    }
+
+    @Bean
+    public CacheInvalidationBus cacheInvalidationBus(StringRedisTemplate redisTemplate, ObjectMapper objectMapper) {
+        return new CacheInvalidationBus(invalidationChannel, redisTemplate, objectMapper);
+    }
+
+    @Bean
+    public WalletBalanceChangedListener walletBalanceChangedListener(CacheManager cacheManager,
+            ObjectMapper objectMapper) {
+        return new WalletBalanceChangedListener(cacheManager, objectMapper);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+            CacheInvalidationBus cacheInvalidationBus, WalletBalanceChangedListener walletBalanceChangedListener) {
+        var container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheInvalidationBus, new ChannelTopic(cacheInvalidationBus.getChannel()));
+        container.addMessageListener(walletBalanceChangedListener, new ChannelTopic(balanceChangedChannel));
+        return container;
+    }
+
+    @Bean
+    public TwoLevelCacheMeterBinderProvider twoLevelCacheMeterBinderProvider() {
+        return new TwoLevelCacheMeterBinderProvider();
+    }
+
+    /**
+     * Redis backed cache manager with an in-process near cache in front of the
+     * caches listed in {@code wallet.cache.near.caches}. Caches with a registered
+     * {@link CacheValueSerializer} use it instead of the default JSON serializer.
+     * The {@code balances} cache, also written by the processor, takes its key
+     * prefix and entry TTL from {@link WalletBalanceCacheFormat}. Hits and misses
+     * are recorded and exposed as {@code cache.*} metrics.
+     */
+    @Bean
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory,
+            RedisCacheConfiguration defaultCacheConfiguration, CacheInvalidationBus cacheInvalidationBus,
+            List<CacheValueSerializer> cacheValueSerializers) {
+        Map<String, RedisCacheConfiguration> cacheConfigurations = cacheValueSerializers.stream()
+                .collect(Collectors.toMap(CacheValueSerializer::cacheName,
+                        cacheValueSerializer -> defaultCacheConfiguration.serializeValuesWith(
+                                RedisSerializationContext.SerializationPair
+                                        .fromSerializer(cacheValueSerializer.serializer()))));
+        cacheConfigurations.computeIfPresent(WalletBalanceCacheFormat.CACHE_NAME,
+                (cacheName, configuration) -> configuration.entryTtl(WalletBalanceCacheFormat.ENTRY_TTL)
+                        .computePrefixWith(name -> WalletBalanceCacheFormat.KEY_PREFIX));
+
+        var redisCacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(defaultCacheConfiguration)
+                .withInitialCacheConfigurations(cacheConfigurations)
+                .enableStatistics()
+                .build();
+        redisCacheManager.afterPropertiesSet();
+
+        return new TwoLevelCacheManager(redisCacheManager, cacheInvalidationBus, nearCacheNames,
+                nearCacheMaximumSize, nearCacheTtl);
+    }
+}
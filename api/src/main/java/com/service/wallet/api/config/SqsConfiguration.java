@@ -6,9 +6,13 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import com.service.wallet.common.metrics.MicrometerMetricPublisher;
+
+import io.micrometer.core.instrument.MeterRegistry;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
 import software.amazon.awssdk.services.sqs.SqsClient;
 
 @Configuration
@@ -26,11 +30,27 @@ public class SqsConfiguration {
     private static final String ENDPOINT_URL = "http://localhost:4566";
 
     @Bean
-    public SqsClient sqsClient() {
+    public MicrometerMetricPublisher sdkMetricPublisher(MeterRegistry meterRegistry) {
+        return new MicrometerMetricPublisher(meterRegistry);
+    }
+
+    @Bean
+    public SqsClient sqsClient(MicrometerMetricPublisher sdkMetricPublisher) {
         return SqsClient.builder()
                 .region(Region.of(region))
                 .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)))
                 .endpointOverride(URI.create(ENDPOINT_URL))
+                .overrideConfiguration(configuration -> configuration.addMetricPublisher(sdkMetricPublisher))
+                .build();
+    }
+
+    @Bean
+    public SqsAsyncClient sqsAsyncClient(MicrometerMetricPublisher sdkMetricPublisher) {
+        return SqsAsyncClient.builder()
+                .region(Region.of(region))
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)))
+                .endpointOverride(URI.create(ENDPOINT_URL))
+                .overrideConfiguration(configuration -> configuration.addMetricPublisher(sdkMetricPublisher))
                 .build();
     }
 }
@@ -1,31 +1,50 @@
 package com.service.wallet.api.controller;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.service.wallet.api.admission.AdmissionControlled;
+import com.service.wallet.api.bean.IdempotentResult;
 import com.service.wallet.api.domain.Wallet;
+import com.service.wallet.api.dto.api.request.BalanceSnapshotRequest;
 import com.service.wallet.api.dto.api.request.CreateWalletRequest;
 import com.service.wallet.api.dto.api.request.DepositRequest;
 import com.service.wallet.api.dto.api.request.TransferRequest;
 import com.service.wallet.api.dto.api.request.WithdrawRequest;
+import com.service.wallet.api.dto.api.response.BalanceConsistencyResponse;
+import com.service.wallet.api.dto.api.response.TransactionHistoryResponse;
+import com.service.wallet.api.dto.api.response.TransactionResponse;
 import com.service.wallet.api.dto.api.response.WalletResponse;
+import com.service.wallet.api.enums.ExportFormat;
+import com.service.wallet.api.enums.OperationType;
 import com.service.wallet.api.mapper.TransferMapper;
 import com.service.wallet.api.mapper.WalletMapper;
 import com.service.wallet.api.mapper.WithdrawMapper;
 import com.service.wallet.api.service.CreateWalletService;
 import com.service.wallet.api.service.DepositService;
 import com.service.wallet.api.service.HistoricalBalanceService;
+import com.service.wallet.api.service.IdempotencyService;
+import com.service.wallet.api.service.TransactionHistoryService;
 import com.service.wallet.api.service.TransferService;
 import com.service.wallet.api.service.WalletBalanceService;
 import com.service.wallet.api.service.WithdrawService;
@@ -40,6 +59,11 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class WalletController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    static final String TRANSACTIONS_CSV_HEADER = "id,correlationId,operation,sourceWalletId,targetWalletId,amount,balanceAfter,status,createdAt";
+    static final String CORRELATION_ID_HEADER = "X-Correlation-Id";
+
     // Services
     private final CreateWalletService createWalletService;
     private final WalletBalanceService walletBalanceService;
@@ -47,11 +71,15 @@ public class WalletController {
     private final DepositService depositService;
     private final WithdrawService withdrawService;
     private final TransferService transferService;
+    private final IdempotencyService idempotencyService;
+    private final TransactionHistoryService transactionHistoryService;
 
     // Mappers
     private final WalletMapper walletMapper;
     private final WithdrawMapper withdrawMapper;
 
+    private final ObjectMapper objectMapper;
+
     @PostMapping
     public ResponseEntity<WalletResponse> createWallet(@RequestBody @Valid @NotNull CreateWalletRequest request) {
         Wallet wallet = createWalletService.execute(request.userId());
@@ -65,28 +93,40 @@ public class WalletController {
     }
 
     @PostMapping("/{targetWalletId}/deposit")
+    @AdmissionControlled(OperationType.DEPOSIT)
     public ResponseEntity<Void> deposit(@PathVariable @Positive long targetWalletId,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @RequestBody @Valid @NotNull DepositRequest depositRequest) {
-        depositService.execute(targetWalletId, depositRequest);
+        var result = idempotencyService.execute(idempotencyKey, "deposit:" + targetWalletId, depositRequest,
+                HttpStatus.CREATED.value(), () -> depositService.execute(targetWalletId, depositRequest));
 
-        return ResponseEntity.status(HttpStatus.CREATED).build();
+        return toResponse(result);
     }
 
     @PostMapping("/{walletId}/withdraw")
+    @AdmissionControlled(OperationType.WITHDRAW)
     public ResponseEntity<Void> withdraw(@PathVariable @Positive long walletId,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @RequestBody @Valid @NotNull WithdrawRequest request) {
-        withdrawService.execute(withdrawMapper.toWithdrawBean(walletId, request));
+        var result = idempotencyService.execute(idempotencyKey, "withdraw:" + walletId, request,
+                HttpStatus.CREATED.value(), () -> {
+                    withdrawService.execute(withdrawMapper.toWithdrawBean(walletId, request));
+                    return null;
+                });
 
-        return ResponseEntity.status(HttpStatus.CREATED).build();
+        return toResponse(result);
     }
 
     @PostMapping("/{sourceWalletId}/transfer")
+    @AdmissionControlled(OperationType.TRANSFER)
     public ResponseEntity<Void> transfer(
             @PathVariable @Positive long sourceWalletId,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @RequestBody @Valid @NotNull TransferRequest request) {
-        transferService.execute(sourceWalletId, request);
+        var result = idempotencyService.execute(idempotencyKey, "transfer:" + sourceWalletId, request,
+                HttpStatus.CREATED.value(), () -> transferService.execute(sourceWalletId, request));
 
-        return ResponseEntity.status(HttpStatus.CREATED).build();
+        return toResponse(result);
     }
 
     @GetMapping("/{walletId}/balance-at")
@@ -96,4 +136,100 @@ public class WalletController {
 
         return ResponseEntity.ok(balance);
     }
+
+    @GetMapping("/{walletId}/balance-at/consistency")
+    public ResponseEntity<BalanceConsistencyResponse> checkBalanceAt(@PathVariable @Positive long walletId,
+            @RequestParam("timestamp") @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") @NotNull LocalDateTime timestamp) {
+        return ResponseEntity.ok(historicalBalanceService.checkConsistency(walletId, timestamp));
+    }
+
+    @PostMapping(value = "/balance-snapshot", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> snapshotBalances(
+            @RequestBody @Valid @NotNull BalanceSnapshotRequest request) {
+        StreamingResponseBody body = outputStream -> {
+            historicalBalanceService.snapshotBalances(request, balance -> writeLine(outputStream, balance));
+            outputStream.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping("/{walletId}/transactions")
+    public ResponseEntity<TransactionHistoryResponse> getTransactions(@PathVariable @Positive long walletId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) @Positive Integer size) {
+        return ResponseEntity.ok(transactionHistoryService.findPage(walletId, cursor, size));
+    }
+
+    @GetMapping("/{walletId}/transactions/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(@PathVariable @Positive long walletId,
+            @RequestParam(value = "format", defaultValue = "NDJSON") ExportFormat format) {
+        // Checked before the body starts streaming, while a 404 can still be returned
+        transactionHistoryService.requireWallet(walletId);
+
+        StreamingResponseBody body = outputStream -> {
+            if (format == ExportFormat.CSV) {
+                writeCsvLine(outputStream, TRANSACTIONS_CSV_HEADER);
+                transactionHistoryService.export(walletId, transaction -> writeCsvLine(outputStream, toCsv(transaction)));
+            } else {
+                transactionHistoryService.export(walletId, transaction -> writeLine(outputStream, transaction));
+            }
+            outputStream.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .body(body);
+    }
+
+    private static ResponseEntity<Void> toResponse(IdempotentResult result) {
+        var response = ResponseEntity.status(result.status());
+        if (result.correlationId() != null) {
+            response.header(CORRELATION_ID_HEADER, result.correlationId().toString());
+        }
+
+        if (result.replayed()) {
+            response.header(IDEMPOTENT_REPLAYED_HEADER, Boolean.TRUE.toString());
+        }
+
+        return response.build();
+    }
+
+    private void writeLine(OutputStream outputStream, Object value) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(value));
+            outputStream.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeCsvLine(OutputStream outputStream, String line) {
+        try {
+            outputStream.write(line.getBytes(StandardCharsets.UTF_8));
+            outputStream.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // None of the columns can contain a comma, a quote or a line break, so no value needs quoting
+    private static String toCsv(TransactionResponse transaction) {
+        return String.join(",",
+                Long.toString(transaction.id()),
+                transaction.correlationId().toString(),
+                transaction.operation().name(),
+                toCsv(transaction.sourceWalletId()),
+                toCsv(transaction.targetWalletId()),
+                transaction.amount().toPlainString(),
+                transaction.balanceAfter() == null ? "" : transaction.balanceAfter().toPlainString(),
+                transaction.status().name(),
+                transaction.createdAt().toString());
+    }
+
+    private static String toCsv(Long value) {
+        return value == null ? "" : value.toString();
+    }
 }
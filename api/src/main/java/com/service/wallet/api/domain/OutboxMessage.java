@@ -0,0 +1,56 @@
+package com.service.wallet.api.domain;
+
+import com.service.wallet.api.enums.OperationType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "outbox_message", schema = "wallet")
+public class OutboxMessage {
+
+    @Id
+    @SequenceGenerator(name = "outbox_message_id_seq", sequenceName = "outbox_message_id_seq", allocationSize = 50)
+    @GeneratedValue(generator = "outbox_message_id_seq", strategy = GenerationType.SEQUENCE)
+    @Column(unique = true, nullable = false, updatable = false)
+    @Setter(AccessLevel.NONE)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    private OperationType operation;
+
+    @Column(name = "correlation_id", nullable = false, updatable = false)
+    private UUID correlationId;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @CreationTimestamp
+    @Setter(AccessLevel.NONE)
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
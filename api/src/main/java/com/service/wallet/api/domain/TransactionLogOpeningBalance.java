@@ -0,0 +1,60 @@
+package com.service.wallet.api.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Balance of a wallet carried forward at a retention cutoff, right before the
+ * transaction log partitions older than it were detached. Rows are written in
+ * bulk by {@code TransactionLogPartitionRepository} and never updated.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Immutable
+@Table(name = "transaction_log_opening_balance", schema = "wallet")
+public class TransactionLogOpeningBalance {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(nullable = false, updatable = false)
+    private Long id;
+
+    @Column(name = "wallet_id", nullable = false, updatable = false)
+    private Long walletId;
+
+    @Column(name = "as_of", nullable = false, updatable = false)
+    private LocalDateTime asOf;
+
+    @Column(nullable = false, updatable = false)
+    private BigDecimal balance;
+
+    @Column(name = "settled_seq", updatable = false)
+    private Long settledSeq;
+
+    @Column(nullable = false, updatable = false)
+    private BigDecimal deposits;
+
+    @Column(nullable = false, updatable = false)
+    private BigDecimal withdrawals;
+
+    @Column(name = "transfers_sent", nullable = false, updatable = false)
+    private BigDecimal transfersSent;
+
+    @Column(name = "transfers_received", nullable = false, updatable = false)
+    private BigDecimal transfersReceived;
+}
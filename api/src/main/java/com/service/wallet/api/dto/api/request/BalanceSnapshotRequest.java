@@ -0,0 +1,26 @@
+package com.service.wallet.api.dto.api.request;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public record BalanceSnapshotRequest(
+
+    Set<@NotNull @Positive Long> walletIds,
+
+    boolean all,
+
+    @NotNull
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    LocalDateTime timestamp) {
+
+    @AssertTrue(message = "Inform either the wallet IDs or all, but not both")
+    public boolean isScopeValid() {
+        return all == (walletIds == null || walletIds.isEmpty());
+    }
+}
@@ -0,0 +1,17 @@
+package com.service.wallet.api.dto.api.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record BalanceConsistencyResponse(
+        long walletId,
+        LocalDateTime timestamp,
+        BigDecimal runningBalance,
+        BigDecimal aggregatedBalance,
+        BigDecimal deposits,
+        BigDecimal withdrawals,
+        BigDecimal transfersSent,
+        BigDecimal transfersReceived,
+        boolean consistent) {
+
+}
@@ -0,0 +1,16 @@
+package com.service.wallet.api.dto.api.response;
+
+import java.util.List;
+
+/**
+ * A page of the transaction history of a wallet, newest first.
+ *
+ * @param transactions the entries of the page
+ * @param nextCursor   the cursor of the next (older) page, or {@code null} on
+ *                     the last page
+ */
+public record TransactionHistoryResponse(
+        List<TransactionResponse> transactions,
+        String nextCursor) {
+
+}
@@ -0,0 +1,21 @@
+package com.service.wallet.api.dto.api.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.service.wallet.api.enums.OperationType;
+import com.service.wallet.api.enums.TransactionStatus;
+
+public record TransactionResponse(
+        long id,
+        UUID correlationId,
+        OperationType operation,
+        Long sourceWalletId,
+        Long targetWalletId,
+        BigDecimal amount,
+        BigDecimal balanceAfter,
+        TransactionStatus status,
+        LocalDateTime createdAt) {
+
+}
@@ -0,0 +1,9 @@
+package com.service.wallet.api.dto.api.response;
+
+import java.math.BigDecimal;
+
+public record WalletBalanceResponse(
+        long walletId,
+        BigDecimal balance) {
+
+}
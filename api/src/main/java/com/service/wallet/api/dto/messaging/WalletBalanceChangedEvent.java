@@ -0,0 +1,14 @@
+package com.service.wallet.api.dto.messaging;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Published by the processor once per settled batch with the new balance of
+ * every wallet the batch changed, keyed by wallet ID.
+ */
+public record WalletBalanceChangedEvent(@NotNull Map<Long, BigDecimal> balances) {
+
+}
@@ -0,0 +1,8 @@
+package com.service.wallet.api.exception;
+
+import lombok.experimental.StandardException;
+
+@StandardException
+public class InvalidCursorException extends BusinessRuleException {
+
+}
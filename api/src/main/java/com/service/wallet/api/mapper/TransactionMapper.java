@@ -0,0 +1,16 @@
+package com.service.wallet.api.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.ReportingPolicy;
+
+import com.service.wallet.api.dto.api.response.TransactionResponse;
+import com.service.wallet.api.repository.projection.TransactionHistoryEntry;
+
+import jakarta.validation.constraints.NotNull;
+
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING, unmappedSourcePolicy = ReportingPolicy.IGNORE)
+public interface TransactionMapper {
+
+    TransactionResponse fromEntryToResponse(@NotNull TransactionHistoryEntry entry);
+}
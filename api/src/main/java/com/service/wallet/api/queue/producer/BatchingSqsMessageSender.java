@@ -0,0 +1,255 @@
+package com.service.wallet.api.queue.producer;
+
+import com.service.wallet.api.exception.QueueException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link SqsMessageSender} that coalesces messages into {@code SendMessageBatch}
+ * calls through the {@link SqsAsyncClient}.
+ *
+ * <pre>
+ * Messages are buffered per queue URL and a batch is flushed when:
+ *   - the buffer reaches the configured batch size (at most 10, the SQS limit)
+ *   - adding a message would exceed the 256 KiB SQS batch payload limit
+ *   - the flush interval elapses since the first message entered the buffer
+ *
+ * Entries rejected by SQS with a server-side fault, or whole batches that fail
+ * on the transport, are re-enqueued individually with exponential backoff until
+ * the configured number of attempts is exhausted. Entries rejected because of a
+ * sender fault are failed immediately, since retrying them cannot succeed.
+ * </pre>
+ *
+ * <p>
+ * The caller's thread never waits on SQS: {@link #send(String, String)} only
+ * appends to the buffer and returns the message future.
+ * </p>
+ *
+ * @author Leonardo Freua
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "aws.sqs.producer.batching.enabled", havingValue = "true", matchIfMissing = true)
+public class BatchingSqsMessageSender implements SqsMessageSender, DisposableBean {
+
+    private static final int SQS_MAX_BATCH_ENTRIES = 10;
+    private static final int SQS_MAX_BATCH_PAYLOAD_BYTES = 262_144;
+
+    private final SqsAsyncClient sqsAsyncClient;
+    private final int maxBatchSize;
+    private final long flushIntervalMs;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final ScheduledExecutorService scheduler;
+    private final ConcurrentMap<String, QueueBuffer> buffers = new ConcurrentHashMap<>();
+
+    public BatchingSqsMessageSender(SqsAsyncClient sqsAsyncClient,
+            @Value("${aws.sqs.producer.batching.max-batch-size:10}") int maxBatchSize,
+            @Value("${aws.sqs.producer.batching.flush-interval-ms:20}") long flushIntervalMs,
+            @Value("${aws.sqs.producer.batching.max-attempts:3}") int maxAttempts,
+            @Value("${aws.sqs.producer.batching.retry-backoff-ms:50}") long retryBackoffMs) {
+        if (maxBatchSize < 1 || maxBatchSize > SQS_MAX_BATCH_ENTRIES) {
+            throw new IllegalArgumentException("The batch size must be between 1 and " + SQS_MAX_BATCH_ENTRIES);
+        }
+
+        this.sqsAsyncClient = sqsAsyncClient;
+        this.maxBatchSize = maxBatchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMs = retryBackoffMs;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "sqs-batch-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public CompletableFuture<String> send(String queueUrl, String messageBody) {
+        var message = new PendingMessage(messageBody, new CompletableFuture<>(), 1);
+        enqueue(queueUrl, message);
+
+        return message.future();
+    }
+
+    @Override
+    public void destroy() {
+        buffers.values().forEach(QueueBuffer::flush);
+        scheduler.shutdown();
+    }
+
+    private void enqueue(String queueUrl, PendingMessage message) {
+        buffers.computeIfAbsent(queueUrl, QueueBuffer::new).add(message);
+    }
+
+    private void dispatch(String queueUrl, List<PendingMessage> batch) {
+        var entries = new ArrayList<SendMessageBatchRequestEntry>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            entries.add(SendMessageBatchRequestEntry.builder()
+                    .id(Integer.toString(i))
+                    .messageBody(batch.get(i).body())
+                    .build());
+        }
+
+        var sendMessageBatchRequest = SendMessageBatchRequest.builder()
+                .queueUrl(queueUrl)
+                .entries(entries)
+                .build();
+
+        try {
+            sqsAsyncClient.sendMessageBatch(sendMessageBatchRequest)
+                    .whenComplete((response, error) -> onBatchCompleted(queueUrl, batch, response, error));
+        } catch (RuntimeException e) {
+            onBatchCompleted(queueUrl, batch, null, e);
+        }
+    }
+
+    private void onBatchCompleted(String queueUrl, List<PendingMessage> batch, SendMessageBatchResponse response,
+            Throwable error) {
+        if (error != null) {
+            log.warn("SendMessageBatch of {} entries to {} failed: {}", batch.size(), queueUrl, error.getMessage());
+            batch.forEach(message -> retryOrFail(queueUrl, message, error.getMessage()));
+            return;
+        }
+
+        response.successful()
+                .forEach(entry -> batch.get(Integer.parseInt(entry.id())).future().complete(entry.messageId()));
+
+        for (BatchResultErrorEntry failed : response.failed()) {
+            var message = batch.get(Integer.parseInt(failed.id()));
+            var reason = failed.code() + ": " + failed.message();
+            if (Boolean.TRUE.equals(failed.senderFault())) {
+                message.future().completeExceptionally(new QueueException("Message rejected by SQS - " + reason));
+            } else {
+                retryOrFail(queueUrl, message, reason);
+            }
+        }
+    }
+
+    private void retryOrFail(String queueUrl, PendingMessage message, String reason) {
+        if (message.attempt() >= maxAttempts) {
+            message.future().completeExceptionally(
+                    new QueueException("Message not delivered after " + message.attempt() + " attempts - " + reason));
+            return;
+        }
+
+        var retry = new PendingMessage(message.body(), message.future(), message.attempt() + 1);
+        long delay = retryBackoffMs << (message.attempt() - 1);
+        try {
+            scheduler.schedule(() -> enqueue(queueUrl, retry), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            message.future().completeExceptionally(new QueueException("Producer is shutting down - " + reason, e));
+        }
+    }
+
+    private record PendingMessage(String body, CompletableFuture<String> future, int attempt) {
+
+        int size() {
+            return body.getBytes(StandardCharsets.UTF_8).length;
+        }
+    }
+
+    /**
+     * Pending messages of a single queue. A {@link ReentrantLock} is used rather
+     * than {@code synchronized} so request threads never pin a carrier thread
+     * when running on virtual threads.
+     */
+    private final class QueueBuffer {
+
+        private final String queueUrl;
+        private final ReentrantLock lock = new ReentrantLock();
+        private List<PendingMessage> pending = new ArrayList<>(maxBatchSize);
+        private int pendingBytes;
+        private ScheduledFuture<?> scheduledFlush;
+
+        QueueBuffer(String queueUrl) {
+            this.queueUrl = queueUrl;
+        }
+
+        void add(PendingMessage message) {
+            List<List<PendingMessage>> ready = new ArrayList<>(2);
+            int size = message.size();
+
+            lock.lock();
+            try {
+                if (!pending.isEmpty() && pendingBytes + size > SQS_MAX_BATCH_PAYLOAD_BYTES) {
+                    ready.add(drain());
+                }
+
+                pending.add(message);
+                pendingBytes += size;
+
+                if (pending.size() >= maxBatchSize) {
+                    ready.add(drain());
+                } else if (scheduledFlush == null) {
+                    scheduledFlush = scheduleFlush();
+                    if (scheduledFlush == null) {
+                        // Scheduler already shut down, send right away instead of stranding the message
+                        ready.add(drain());
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            ready.forEach(batch -> dispatch(queueUrl, batch));
+        }
+
+        void flush() {
+            List<PendingMessage> batch;
+
+            lock.lock();
+            try {
+                batch = drain();
+            } finally {
+                lock.unlock();
+            }
+
+            if (!batch.isEmpty()) {
+                dispatch(queueUrl, batch);
+            }
+        }
+
+        private List<PendingMessage> drain() {
+            var batch = pending;
+            pending = new ArrayList<>(maxBatchSize);
+            pendingBytes = 0;
+
+            if (scheduledFlush != null) {
+                scheduledFlush.cancel(false);
+                scheduledFlush = null;
+            }
+
+            return batch;
+        }
+
+        private ScheduledFuture<?> scheduleFlush() {
+            try {
+                return scheduler.schedule(this::flush, flushIntervalMs, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                return null;
+            }
+        }
+    }
+}
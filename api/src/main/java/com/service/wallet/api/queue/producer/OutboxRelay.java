@@ -0,0 +1,45 @@
+package com.service.wallet.api.queue.producer;
+
+import com.service.wallet.api.service.OutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the messages of the transactional outbox to SQS.
+ * <p>
+ * Every run drains the backlog batch by batch and stops at the first batch
+ * that is not full. Several API instances can run the relay at the same time:
+ * each batch is leased in a short transaction, so the others skip it while it
+ * is sent. The batch size and interval tune the publication throughput
+ * independently of the request path.
+ * </p>
+ *
+ * @author Leonardo Freua
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(value = "wallet.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private final OutboxService outboxService;
+
+    @Value("${wallet.outbox.relay.batch-size:100}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${wallet.outbox.relay.interval-ms:100}")
+    public void relay() {
+        try {
+            int taken;
+            do {
+                taken = outboxService.publishPending(batchSize);
+            } while (taken == batchSize && !Thread.currentThread().isInterrupted());
+        } catch (RuntimeException e) {
+            log.error("Failed to relay the outbox messages, retrying on the next run", e);
+        }
+    }
+}
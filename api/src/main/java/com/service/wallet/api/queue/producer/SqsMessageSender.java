@@ -0,0 +1,18 @@
+package com.service.wallet.api.queue.producer;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Transport used by {@link SqsProducer} to hand serialized messages to SQS.
+ * <p>
+ * The returned future completes with the SQS message ID once the message has
+ * been accepted by the queue, or exceptionally if it could not be delivered.
+ * Callers may block on it or simply attach callbacks.
+ * </p>
+ *
+ * @author Leonardo Freua
+ */
+public interface SqsMessageSender {
+
+    CompletableFuture<String> send(String queueUrl, String messageBody);
+}
@@ -2,31 +2,49 @@ package com.service.wallet.api.queue.producer;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.service.wallet.api.exception.DepositException;
+import com.service.wallet.api.exception.QueueException;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
-import software.amazon.awssdk.services.sqs.SqsClient;
-import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
+import lombok.extern.slf4j.Slf4j;
 
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Base class for the SQS producers of the API.
+ * <p>
+ * The content is serialized with the application's shared {@link ObjectMapper}
+ * and handed to the configured {@link SqsMessageSender}. The returned future
+ * completes with the SQS message ID, so callers can decide whether to wait for
+ * the publication or not.
+ * </p>
+ *
+ * @author Leonardo Freua
+ */
+@Slf4j
 public abstract class SqsProducer<T> {
 
-    protected SqsClient sqsClient;
+    protected final SqsMessageSender messageSender;
+    protected final ObjectMapper objectMapper;
 
-    protected SqsProducer(SqsClient sqsClient) {
-        this.sqsClient = sqsClient;
+    protected SqsProducer(SqsMessageSender messageSender, ObjectMapper objectMapper) {
+        this.messageSender = messageSender;
+        this.objectMapper = objectMapper;
     }
 
-    public void send(@NotNull @Valid T content) {
+    public CompletableFuture<String> send(@NotNull @Valid T content) {
+        String messageBody;
         try {
-            var sendMessageRequest = SendMessageRequest.builder()
-                    .queueUrl(getQueueUrl())
-                    .messageBody(new ObjectMapper().writeValueAsString(content))
-                    .build();
-
-            sqsClient.sendMessage(sendMessageRequest);
+            messageBody = objectMapper.writeValueAsString(content);
         } catch (JsonProcessingException e) {
-            throw new DepositException(e.getMessage(), e);
+            throw new QueueException(e.getMessage(), e);
         }
+
+        return messageSender.send(getQueueUrl(), messageBody)
+                .whenComplete((messageId, error) -> {
+                    if (error != null) {
+                        log.error("Failed to publish {} to {}", content, getQueueUrl(), error);
+                    }
+                });
     }
 
     protected abstract String getQueueUrl();
@@ -0,0 +1,43 @@
+package com.service.wallet.api.queue.producer;
+
+import com.service.wallet.api.exception.QueueException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.SendMessageRequest;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link SqsMessageSender} that issues one blocking {@code SendMessage} call per
+ * message on the caller's thread.
+ * <p>
+ * Only active when batching is disabled through
+ * {@code aws.sqs.producer.batching.enabled=false}.
+ * </p>
+ *
+ * @author Leonardo Freua
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(value = "aws.sqs.producer.batching.enabled", havingValue = "false")
+public class SyncSqsMessageSender implements SqsMessageSender {
+
+    private final SqsClient sqsClient;
+
+    @Override
+    public CompletableFuture<String> send(String queueUrl, String messageBody) {
+        try {
+            var sendMessageRequest = SendMessageRequest.builder()
+                    .queueUrl(queueUrl)
+                    .messageBody(messageBody)
+                    .build();
+
+            return CompletableFuture.completedFuture(sqsClient.sendMessage(sendMessageRequest).messageId());
+        } catch (SdkException e) {
+            return CompletableFuture.failedFuture(new QueueException(e.getMessage(), e));
+        }
+    }
+}
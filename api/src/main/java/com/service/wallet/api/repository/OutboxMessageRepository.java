@@ -0,0 +1,28 @@
+package com.service.wallet.api.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.service.wallet.api.domain.OutboxMessage;
+
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+    /**
+     * Locks the oldest messages due for an attempt, skipping the ones already
+     * locked by the relay of another instance.
+     */
+    @Query(value = """
+                SELECT * FROM wallet.outbox_message o
+                WHERE o.next_attempt_at <= :now
+                ORDER BY o.next_attempt_at, o.id
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OutboxMessage> lockDueMessages(
+            @Param("now") LocalDateTime now,
+            @Param("limit") int limit);
+}
@@ -0,0 +1,140 @@
+package com.service.wallet.api.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import com.service.wallet.api.enums.OperationType;
+import com.service.wallet.api.enums.TransactionStatus;
+import com.service.wallet.api.repository.projection.TransactionHistoryEntry;
+import com.service.wallet.api.type.TransactionCursor;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * JDBC access to the transaction history of a wallet: the log entries it sent
+ * or received.
+ *
+ * <pre>
+ * Both queries read the sent and the received entries with one index scan each
+ * (idx_tx_log_source_wallet_created_at_id and idx_tx_log_target_wallet_created_at_id)
+ * and merge them in (created_at, id) order, instead of an OR over both columns
+ * that would have to sort the whole history:
+ *
+ *   - A page is keyset-paginated: it starts right after the cursor, so its cost
+ *     does not depend on how deep in the history it is
+ *   - The export goes through a forward-only cursor, fetchSize rows at a time,
+ *     handing each row to the caller as it is read
+ * </pre>
+ *
+ * The export must run inside a transaction: without one the PostgreSQL driver
+ * ignores the fetch size and reads the whole result set into memory.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransactionHistoryRepository {
+
+    private static final String COLUMNS = """
+            id, correlation_id, operation, source_wallet_id, target_wallet_id, amount, balance_after,
+            current_status, created_at""";
+
+    private static final String SELECT_PAGE = """
+            SELECT %1$s
+              FROM ((SELECT %1$s
+                       FROM wallet.transaction_log
+                      WHERE source_wallet_id = ? %2$s
+                      ORDER BY created_at DESC, id DESC
+                      LIMIT ?)
+                    UNION ALL
+                    (SELECT %1$s
+                       FROM wallet.transaction_log
+                      WHERE target_wallet_id = ? %2$s
+                      ORDER BY created_at DESC, id DESC
+                      LIMIT ?)) history
+             ORDER BY created_at DESC, id DESC
+             LIMIT ?
+            """;
+
+    private static final String SELECT_FIRST_PAGE = SELECT_PAGE.formatted(COLUMNS, "");
+
+    private static final String SELECT_PAGE_BEFORE = SELECT_PAGE.formatted(COLUMNS,
+            "AND (created_at, id) < (?, ?)");
+
+    private static final String SELECT_ALL = """
+            SELECT %1$s
+              FROM wallet.transaction_log
+             WHERE source_wallet_id = ?
+            UNION ALL
+            SELECT %1$s
+              FROM wallet.transaction_log
+             WHERE target_wallet_id = ?
+             ORDER BY created_at, id
+            """.formatted(COLUMNS);
+
+    private static final RowMapper<TransactionHistoryEntry> ENTRY_MAPPER = (resultSet, rowNum) -> toEntry(resultSet);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Returns the latest entries of a wallet, newest first.
+     *
+     * @param walletId the ID of the wallet
+     * @param before   the position the page starts after, or {@code null} for the
+     *                 first page
+     * @param limit    the maximum number of entries
+     */
+    public List<TransactionHistoryEntry> findPage(long walletId, TransactionCursor before, int limit) {
+        if (before == null) {
+            return jdbcTemplate.query(SELECT_FIRST_PAGE, ENTRY_MAPPER,
+                    walletId, limit, walletId, limit, limit);
+        }
+
+        Timestamp createdAt = Timestamp.valueOf(before.createdAt());
+        return jdbcTemplate.query(SELECT_PAGE_BEFORE, ENTRY_MAPPER,
+                walletId, createdAt, before.id(), limit,
+                walletId, createdAt, before.id(), limit,
+                limit);
+    }
+
+    /**
+     * Reads every entry of a wallet, oldest first, without holding more than
+     * {@code fetchSize} rows in memory.
+     *
+     * @param walletId  the ID of the wallet
+     * @param fetchSize the number of rows fetched per round trip
+     * @param sink      receives each entry as soon as it is read
+     */
+    public void streamAll(long walletId, int fetchSize, Consumer<TransactionHistoryEntry> sink) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_ALL, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setLong(1, walletId);
+            statement.setLong(2, walletId);
+            return statement;
+        }, (RowCallbackHandler) resultSet -> sink.accept(toEntry(resultSet)));
+    }
+
+    private static TransactionHistoryEntry toEntry(ResultSet resultSet) throws SQLException {
+        return new TransactionHistoryEntry(
+                resultSet.getLong("id"),
+                resultSet.getObject("correlation_id", UUID.class),
+                OperationType.valueOf(resultSet.getString("operation")),
+                resultSet.getObject("source_wallet_id", Long.class),
+                resultSet.getObject("target_wallet_id", Long.class),
+                resultSet.getBigDecimal("amount"),
+                resultSet.getBigDecimal("balance_after"),
+                TransactionStatus.valueOf(resultSet.getString("current_status")),
+                resultSet.getObject("created_at", LocalDateTime.class));
+    }
+}
@@ -0,0 +1,19 @@
+package com.service.wallet.api.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import com.service.wallet.api.domain.TransactionLogOpeningBalance;
+
+public interface TransactionLogOpeningBalanceRepository extends JpaRepository<TransactionLogOpeningBalance, Long> {
+
+    /**
+     * Returns the latest retention cutoff, before which the transaction log is
+     * no longer attached, or empty if no partition was ever detached.
+     */
+    @Query("SELECT MAX(o.asOf) FROM TransactionLogOpeningBalance o")
+    Optional<LocalDateTime> findRetentionCutoff();
+}
@@ -0,0 +1,179 @@
+package com.service.wallet.api.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * JDBC access to the monthly partitions of {@code wallet.transaction_log}.
+ * <p>
+ * Partition maintenance is DDL, which Spring Data repositories are not meant
+ * for, and detaching a partition concurrently must run outside of a
+ * transaction block, so these statements go straight through JDBC.
+ * </p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class TransactionLogPartitionRepository {
+
+    static final String PARTITION_PREFIX = "transaction_log_p";
+
+    private static final String CREATE_PARTITIONS = "SELECT wallet.create_transaction_log_partitions(?, ?)";
+
+    private static final String SELECT_PARTITIONS_BEFORE = """
+            SELECT child.relname
+              FROM pg_inherits i
+              JOIN pg_class parent ON parent.oid = i.inhparent
+              JOIN pg_class child ON child.oid = i.inhrelid
+              JOIN pg_namespace n ON n.oid = parent.relnamespace
+             WHERE n.nspname = 'wallet'
+               AND parent.relname = 'transaction_log'
+               AND child.relname LIKE 'transaction_log\\_p%'
+               AND child.relname < ?
+             ORDER BY child.relname
+            """;
+
+    private static final String COUNT_PROCESSING_BEFORE = """
+            SELECT COUNT(*)
+              FROM wallet.transaction_log
+             WHERE current_status = 'PROCESSING'
+               AND created_at < ?
+            """;
+
+    // The running balance and the settled totals of every wallet before the cutoff:
+    // the latest carried forward row plus the entries attached since it was taken.
+    // The running balance is the one settled last, carried or attached
+    private static final String CARRY_FORWARD_BALANCES = """
+            WITH cutoff AS (
+                SELECT CAST(? AS TIMESTAMP) AS as_of
+            ), previous AS (
+                SELECT COALESCE(MAX(o.as_of), '-infinity') AS as_of
+                  FROM wallet.transaction_log_opening_balance o, cutoff c
+                 WHERE o.as_of < c.as_of
+            ), attached AS (
+                SELECT t.*
+                  FROM wallet.transaction_log t, cutoff c, previous p
+                 WHERE t.created_at >= p.as_of
+                   AND t.created_at < c.as_of
+            )
+            INSERT INTO wallet.transaction_log_opening_balance
+                   (wallet_id, as_of, balance, settled_seq, deposits, withdrawals, transfers_sent, transfers_received)
+            SELECT w.id, c.as_of,
+                   CASE WHEN b.balance_after IS NULL OR o.settled_seq > b.settled_seq
+                        THEN COALESCE(o.balance, 0)
+                        ELSE b.balance_after
+                   END,
+                   GREATEST(b.settled_seq, o.settled_seq),
+                   COALESCE(o.deposits, 0) + COALESCE(a.deposits, 0),
+                   COALESCE(o.withdrawals, 0) + COALESCE(a.withdrawals, 0),
+                   COALESCE(o.transfers_sent, 0) + COALESCE(a.transfers_sent, 0),
+                   COALESCE(o.transfers_received, 0) + COALESCE(a.transfers_received, 0)
+              FROM wallet.wallet w
+             CROSS JOIN cutoff c
+              LEFT JOIN wallet.transaction_log_opening_balance o
+                     ON o.wallet_id = w.id
+                    AND o.as_of = (SELECT p.as_of FROM previous p)
+              LEFT JOIN (
+                    SELECT DISTINCT ON (1)
+                           (CASE WHEN t.operation = 'DEPOSIT' THEN t.target_wallet_id ELSE t.source_wallet_id END)
+                               AS wallet_id,
+                           t.balance_after,
+                           t.settled_seq
+                      FROM attached t
+                     WHERE t.balance_after IS NOT NULL
+                     ORDER BY 1, t.settled_seq DESC
+              ) b ON b.wallet_id = w.id
+              LEFT JOIN (
+                    SELECT m.wallet_id,
+                           SUM(m.amount) FILTER (WHERE m.side = 'TARGET' AND m.operation = 'DEPOSIT') AS deposits,
+                           SUM(m.amount) FILTER (WHERE m.side = 'SOURCE' AND m.operation = 'WITHDRAW') AS withdrawals,
+                           SUM(m.amount) FILTER (WHERE m.side = 'SOURCE' AND m.operation = 'TRANSFER') AS transfers_sent,
+                           SUM(m.amount) FILTER (WHERE m.side = 'TARGET' AND m.operation = 'TRANSFER')
+                               AS transfers_received
+                      FROM (
+                            SELECT t.source_wallet_id AS wallet_id, 'SOURCE' AS side, t.operation, t.amount
+                              FROM attached t
+                             WHERE t.source_wallet_id IS NOT NULL
+                               AND t.current_status = 'SUCCESS'
+                            UNION ALL
+                            SELECT t.target_wallet_id AS wallet_id, 'TARGET' AS side, t.operation, t.amount
+                              FROM attached t
+                             WHERE t.target_wallet_id IS NOT NULL
+                               AND t.current_status = 'SUCCESS'
+                      ) m
+                     GROUP BY m.wallet_id
+              ) a ON a.wallet_id = w.id
+             WHERE w.created_at < c.as_of
+            ON CONFLICT (wallet_id, as_of) DO NOTHING
+            """;
+
+    private static final String DETACH_PARTITION = "ALTER TABLE wallet.transaction_log DETACH PARTITION wallet.%s CONCURRENTLY";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Creates the missing monthly partitions between both months, inclusive.
+     *
+     * @return how many partitions were created
+     */
+    public int createPartitions(LocalDate fromMonth, LocalDate toMonth) {
+        Integer created = jdbcTemplate.queryForObject(CREATE_PARTITIONS, Integer.class, fromMonth, toMonth);
+        return created == null ? 0 : created;
+    }
+
+    /**
+     * Returns the attached partitions holding months before the given one, oldest
+     * first.
+     */
+    public List<String> findPartitionsBefore(LocalDate month) {
+        return jdbcTemplate.queryForList(SELECT_PARTITIONS_BEFORE, String.class, partitionName(month));
+    }
+
+    /**
+     * Counts the entries created before the cutoff that are still waiting to be
+     * settled. Once detached, they could never be settled.
+     */
+    public long countProcessingBefore(LocalDateTime cutoff) {
+        Long processing = jdbcTemplate.queryForObject(COUNT_PROCESSING_BEFORE, Long.class, cutoff);
+        return processing == null ? 0 : processing;
+    }
+
+    /**
+     * Carries the balance of every wallet created before the cutoff forward into
+     * {@code wallet.transaction_log_opening_balance}, in a single statement, so
+     * it stays reachable once the partitions before the cutoff are detached.
+     * <p>
+     * Must run while those partitions are still attached. Running it again for
+     * the same cutoff keeps the rows already written.
+     * </p>
+     *
+     * @return how many balances were carried forward
+     */
+    public int carryForwardBalances(LocalDateTime cutoff) {
+        return jdbcTemplate.update(CARRY_FORWARD_BALANCES, cutoff);
+    }
+
+    /**
+     * Detaches a partition without blocking reads and writes on the other
+     * partitions. The detached table is kept for archiving.
+     * <p>
+     * Must not be called inside a transaction.
+     * </p>
+     */
+    public void detachPartition(String partitionName) {
+        if (!partitionName.matches(PARTITION_PREFIX + "\\d{4}_\\d{2}")) {
+            throw new IllegalArgumentException("Not a transaction_log partition: " + partitionName);
+        }
+
+        jdbcTemplate.execute(DETACH_PARTITION.formatted(partitionName));
+    }
+
+    static String partitionName(LocalDate month) {
+        return "%s%04d_%02d".formatted(PARTITION_PREFIX, month.getYear(), month.getMonthValue());
+    }
+}
@@ -2,6 +2,8 @@ package com.service.wallet.api.repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,30 +11,206 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.service.wallet.api.domain.TransactionLog;
-import com.service.wallet.api.enums.OperationType;
+import com.service.wallet.api.repository.projection.BalanceAggregate;
+import com.service.wallet.api.repository.projection.WalletBalance;
 
+/**
+ * Balance queries over the attached partitions of {@code wallet.transaction_log}.
+ * <p>
+ * The running balance of a wallet is the balance_after of its entry settled
+ * last (highest settled_seq), since entries do not settle in creation order.
+ * </p>
+ * <p>
+ * The history detached by the retention is summarized in
+ * {@code wallet.transaction_log_opening_balance}: the balance queries compare
+ * the carried balance with the attached entries by settled_seq, and the
+ * aggregations add the carried totals to the entries attached since, so the
+ * ones already carried are not counted twice.
+ * </p>
+ */
 public interface TransactionLogRepository extends JpaRepository<TransactionLog, Long> {
 
-    @Query("""
-                SELECT SUM(t.amount) FROM TransactionLog t
-                WHERE t.sourceWallet.id = :sourceWallet
-                  AND t.operation = :operation
-                  AND t.createdAt <= :createdAt
-            """)
-    Optional<BigDecimal> sumBySourceWalletIdAndTypeBefore(
-            @Param("sourceWallet") long sourceWallet,
-            @Param("operation") OperationType operation,
+    @Query(value = """
+                WITH opening AS (
+                    SELECT ob.as_of, ob.deposits, ob.withdrawals, ob.transfers_sent, ob.transfers_received
+                    FROM wallet.transaction_log_opening_balance ob
+                    WHERE ob.wallet_id = :walletId
+                      AND ob.as_of <= :createdAt
+                    ORDER BY ob.as_of DESC
+                    LIMIT 1
+                )
+                SELECT COALESCE((SELECT o.deposits FROM opening o), 0)
+                           + COALESCE(SUM(t.amount) FILTER (WHERE t.side = 'TARGET' AND t.operation = 'DEPOSIT'), 0)
+                           AS deposits,
+                       COALESCE((SELECT o.withdrawals FROM opening o), 0)
+                           + COALESCE(SUM(t.amount) FILTER (WHERE t.side = 'SOURCE' AND t.operation = 'WITHDRAW'), 0)
+                           AS withdrawals,
+                       COALESCE((SELECT o.transfers_sent FROM opening o), 0)
+                           + COALESCE(SUM(t.amount) FILTER (WHERE t.side = 'SOURCE' AND t.operation = 'TRANSFER'), 0)
+                           AS transfersSent,
+                       COALESCE((SELECT o.transfers_received FROM opening o), 0)
+                           + COALESCE(SUM(t.amount) FILTER (WHERE t.side = 'TARGET' AND t.operation = 'TRANSFER'), 0)
+                           AS transfersReceived
+                FROM (
+                    SELECT 'SOURCE' AS side, s.operation, s.amount
+                    FROM wallet.transaction_log s
+                    WHERE s.source_wallet_id = :walletId
+                      AND s.created_at >= COALESCE((SELECT o.as_of FROM opening o), '-infinity')
+                      AND s.created_at <= :createdAt
+                      AND s.current_status = 'SUCCESS'
+                    UNION ALL
+                    SELECT 'TARGET' AS side, r.operation, r.amount
+                    FROM wallet.transaction_log r
+                    WHERE r.target_wallet_id = :walletId
+                      AND r.created_at >= COALESCE((SELECT o.as_of FROM opening o), '-infinity')
+                      AND r.created_at <= :createdAt
+                      AND r.current_status = 'SUCCESS'
+                ) t
+            """, nativeQuery = true)
+    BalanceAggregate aggregateSettledBefore(
+            @Param("walletId") long walletId,
             @Param("createdAt") LocalDateTime createdAt);
 
-    @Query("""
-                SELECT SUM(t.amount) FROM TransactionLog t
-                WHERE t.targetWallet.id = :sourceWallet
-                  AND t.operation = :operation
-                  AND t.createdAt <= :createdAt
-            """)
-    Optional<BigDecimal> sumReceivedTransfers(
-            @Param("sourceWallet") long sourceWallet,
-            @Param("operation") OperationType operation,
+    /**
+     * Same as {@link #aggregateSettledBefore} but summing the BIGINT cents
+     * column, converted back to decimals once per sum.
+     */
+    @Query(value = """
+                WITH opening AS (
+                    SELECT ob.as_of, ob.deposits, ob.withdrawals, ob.transfers_sent, ob.transfers_received
+                    FROM wallet.transaction_log_opening_balance ob
+                    WHERE ob.wallet_id = :walletId
+                      AND ob.as_of <= :createdAt
+                    ORDER BY ob.as_of DESC
+                    LIMIT 1
+                )
+                SELECT COALESCE((SELECT o.deposits FROM opening o), 0)
+                           + COALESCE(SUM(t.amount_cents) FILTER (WHERE t.side = 'TARGET' AND t.operation = 'DEPOSIT'), 0)
+                               * 0.01 AS deposits,
+                       COALESCE((SELECT o.withdrawals FROM opening o), 0)
+                           + COALESCE(SUM(t.amount_cents) FILTER (WHERE t.side = 'SOURCE' AND t.operation = 'WITHDRAW'), 0)
+                               * 0.01 AS withdrawals,
+                       COALESCE((SELECT o.transfers_sent FROM opening o), 0)
+                           + COALESCE(SUM(t.amount_cents) FILTER (WHERE t.side = 'SOURCE' AND t.operation = 'TRANSFER'), 0)
+                               * 0.01 AS transfersSent,
+                       COALESCE((SELECT o.transfers_received FROM opening o), 0)
+                           + COALESCE(SUM(t.amount_cents) FILTER (WHERE t.side = 'TARGET' AND t.operation = 'TRANSFER'), 0)
+                               * 0.01 AS transfersReceived
+                FROM (
+                    SELECT 'SOURCE' AS side, s.operation, s.amount_cents
+                    FROM wallet.transaction_log s
+                    WHERE s.source_wallet_id = :walletId
+                      AND s.created_at >= COALESCE((SELECT o.as_of FROM opening o), '-infinity')
+                      AND s.created_at <= :createdAt
+                      AND s.current_status = 'SUCCESS'
+                    UNION ALL
+                    SELECT 'TARGET' AS side, r.operation, r.amount_cents
+                    FROM wallet.transaction_log r
+                    WHERE r.target_wallet_id = :walletId
+                      AND r.created_at >= COALESCE((SELECT o.as_of FROM opening o), '-infinity')
+                      AND r.created_at <= :createdAt
+                      AND r.current_status = 'SUCCESS'
+                ) t
+            """, nativeQuery = true)
+    BalanceAggregate aggregateSettledBeforeInCents(
+            @Param("walletId") long walletId,
             @Param("createdAt") LocalDateTime createdAt);
 
+    @Query(value = """
+                SELECT b.balance FROM (
+                    (SELECT t.balance_after AS balance, t.settled_seq
+                     FROM wallet.transaction_log t
+                     WHERE (CASE WHEN t.operation = 'DEPOSIT' THEN t.target_wallet_id ELSE t.source_wallet_id END)
+                               = :walletId
+                       AND t.balance_after IS NOT NULL
+                       AND t.created_at <= :createdAt
+                     ORDER BY t.settled_seq DESC
+                     LIMIT 1)
+                    UNION ALL
+                    (SELECT ob.balance, ob.settled_seq
+                     FROM wallet.transaction_log_opening_balance ob
+                     WHERE ob.wallet_id = :walletId
+                       AND ob.as_of <= :createdAt
+                     ORDER BY ob.as_of DESC
+                     LIMIT 1)
+                ) b
+                ORDER BY b.settled_seq DESC NULLS LAST
+                LIMIT 1
+            """, nativeQuery = true)
+    Optional<BigDecimal> findBalanceAfterAt(
+            @Param("walletId") long walletId,
+            @Param("createdAt") LocalDateTime createdAt);
+
+    @Query(value = """
+                SELECT w.id AS walletId,
+                       CASE WHEN b.balance_after IS NULL OR o.settled_seq > b.settled_seq
+                            THEN COALESCE(o.balance, 0)
+                            ELSE b.balance_after
+                       END AS balance
+                FROM wallet.wallet w
+                LEFT JOIN LATERAL (
+                    SELECT ob.balance, ob.settled_seq
+                    FROM wallet.transaction_log_opening_balance ob
+                    WHERE ob.wallet_id = w.id
+                      AND ob.as_of <= :createdAt
+                    ORDER BY ob.as_of DESC
+                    LIMIT 1
+                ) o ON TRUE
+                LEFT JOIN (
+                    SELECT DISTINCT ON (1)
+                           (CASE WHEN t.operation = 'DEPOSIT' THEN t.target_wallet_id ELSE t.source_wallet_id END)
+                               AS wallet_id,
+                           t.balance_after,
+                           t.settled_seq
+                    FROM wallet.transaction_log t
+                    WHERE (CASE WHEN t.operation = 'DEPOSIT' THEN t.target_wallet_id ELSE t.source_wallet_id END)
+                              BETWEEN :fromWalletId AND :toWalletId
+                      AND t.balance_after IS NOT NULL
+                      AND t.created_at <= :createdAt
+                    ORDER BY 1, t.settled_seq DESC
+                ) b ON b.wallet_id = w.id
+                WHERE w.id BETWEEN :fromWalletId AND :toWalletId
+                  AND w.created_at <= :createdAt
+                ORDER BY w.id
+            """, nativeQuery = true)
+    List<WalletBalance> findBalancesAtBetween(
+            @Param("fromWalletId") long fromWalletId,
+            @Param("toWalletId") long toWalletId,
+            @Param("createdAt") LocalDateTime createdAt);
+
+    @Query(value = """
+                SELECT w.id AS walletId,
+                       CASE WHEN b.balance_after IS NULL OR o.settled_seq > b.settled_seq
+                            THEN COALESCE(o.balance, 0)
+                            ELSE b.balance_after
+                       END AS balance
+                FROM wallet.wallet w
+                LEFT JOIN LATERAL (
+                    SELECT ob.balance, ob.settled_seq
+                    FROM wallet.transaction_log_opening_balance ob
+                    WHERE ob.wallet_id = w.id
+                      AND ob.as_of <= :createdAt
+                    ORDER BY ob.as_of DESC
+                    LIMIT 1
+                ) o ON TRUE
+                LEFT JOIN (
+                    SELECT DISTINCT ON (1)
+                           (CASE WHEN t.operation = 'DEPOSIT' THEN t.target_wallet_id ELSE t.source_wallet_id END)
+                               AS wallet_id,
+                           t.balance_after,
+                           t.settled_seq
+                    FROM wallet.transaction_log t
+                    WHERE (CASE WHEN t.operation = 'DEPOSIT' THEN t.target_wallet_id ELSE t.source_wallet_id END)
+                              IN (:walletIds)
+                      AND t.balance_after IS NOT NULL
+                      AND t.created_at <= :createdAt
+                    ORDER BY 1, t.settled_seq DESC
+                ) b ON b.wallet_id = w.id
+                WHERE w.id IN (:walletIds)
+                  AND w.created_at <= :createdAt
+                ORDER BY w.id
+            """, nativeQuery = true)
+    List<WalletBalance> findBalancesAtIn(
+            @Param("walletIds") Collection<Long> walletIds,
+            @Param("createdAt") LocalDateTime createdAt);
 }
@@ -1,11 +1,54 @@
 package com.service.wallet.api.repository;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.service.wallet.api.domain.Wallet;
+import com.service.wallet.api.repository.projection.WalletOwner;
 
 public interface WalletRepository extends JpaRepository<Wallet, Long> {
     Optional<Wallet> findByCustomerId(long userId);
+
+    /**
+     * Reads the owner and balance of a wallet in one statement. The customer ID
+     * comes from the foreign key column, so neither the wallet nor its customer
+     * is loaded.
+     */
+    @Query("""
+            SELECT new com.service.wallet.api.repository.projection.WalletOwner(w.id, w.customer.id, w.balance)
+            FROM Wallet w
+            WHERE w.id = :walletId
+            """)
+    Optional<WalletOwner> findOwnerById(@Param("walletId") long walletId);
+
+    /**
+     * Same as {@link #findOwnerById(long)}, looking the wallet up by its customer.
+     */
+    @Query("""
+            SELECT new com.service.wallet.api.repository.projection.WalletOwner(w.id, w.customer.id, w.balance)
+            FROM Wallet w
+            WHERE w.customer.id = :customerId
+            """)
+    Optional<WalletOwner> findOwnerByCustomerId(@Param("customerId") long customerId);
+
+    /**
+     * Reads the owners of the wallets whose IDs are in the given range.
+     */
+    @Query("""
+            SELECT new com.service.wallet.api.repository.projection.WalletOwner(w.id, w.customer.id, w.balance)
+            FROM Wallet w
+            WHERE w.id BETWEEN :fromWalletId AND :toWalletId
+            """)
+    List<WalletOwner> findOwnersBetween(@Param("fromWalletId") long fromWalletId,
+            @Param("toWalletId") long toWalletId);
+
+    @Query("SELECT MIN(w.id) FROM Wallet w")
+    Optional<Long> findMinId();
+
+    @Query("SELECT MAX(w.id) FROM Wallet w")
+    Optional<Long> findMaxId();
 }
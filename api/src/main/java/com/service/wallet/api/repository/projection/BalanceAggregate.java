@@ -0,0 +1,25 @@
+package com.service.wallet.api.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Settled amounts of a wallet per operation, computed in a single scan.
+ */
+public interface BalanceAggregate {
+
+    BigDecimal getDeposits();
+
+    BigDecimal getWithdrawals();
+
+    BigDecimal getTransfersSent();
+
+    BigDecimal getTransfersReceived();
+
+    /**
+     * Net balance of the wallet. Transfers are not added on top because their
+     * withdrawal and deposit legs already move the amount.
+     */
+    default BigDecimal getNetBalance() {
+        return getDeposits().subtract(getWithdrawals());
+    }
+}
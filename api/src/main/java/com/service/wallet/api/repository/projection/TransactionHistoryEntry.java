@@ -0,0 +1,24 @@
+package com.service.wallet.api.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.service.wallet.api.enums.OperationType;
+import com.service.wallet.api.enums.TransactionStatus;
+
+/**
+ * One entry of the transaction history of a wallet.
+ */
+public record TransactionHistoryEntry(
+        long id,
+        UUID correlationId,
+        OperationType operation,
+        Long sourceWalletId,
+        Long targetWalletId,
+        BigDecimal amount,
+        BigDecimal balanceAfter,
+        TransactionStatus status,
+        LocalDateTime createdAt) {
+
+}
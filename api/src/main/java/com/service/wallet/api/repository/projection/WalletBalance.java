@@ -0,0 +1,13 @@
+package com.service.wallet.api.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Balance of a wallet at a point in time, one row of a balance snapshot.
+ */
+public interface WalletBalance {
+
+    Long getWalletId();
+
+    BigDecimal getBalance();
+}
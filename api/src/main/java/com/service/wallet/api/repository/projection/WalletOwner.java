@@ -0,0 +1,14 @@
+package com.service.wallet.api.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Ownership and balance of a wallet, read in one statement without loading the
+ * {@link com.service.wallet.api.domain.Wallet} entity or its customer.
+ */
+public record WalletOwner(long walletId, long customerId, BigDecimal balance) {
+
+    public boolean isOwnedBy(long customerId) {
+        return this.customerId == customerId;
+    }
+}
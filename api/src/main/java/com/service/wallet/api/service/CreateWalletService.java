@@ -4,8 +4,10 @@ import java.math.BigDecimal;
 
 import org.springframework.stereotype.Service;
 
+import com.service.wallet.api.cache.WalletOwnershipIndex;
 import com.service.wallet.api.domain.Wallet;
 import com.service.wallet.api.exception.UserNotFoundException;
+import com.service.wallet.api.exception.WalletNotFoundException;
 import com.service.wallet.api.repository.UserRepository;
 import com.service.wallet.api.repository.WalletRepository;
 
@@ -24,7 +26,8 @@ import lombok.extern.slf4j.Slf4j;
  * </p>
  *
  * <p>
- * The wallet is initialized with a balance of zero.
+ * The wallet is initialized with a balance of zero and added to the
+ * {@link WalletOwnershipIndex} once created.
  * </p>
  *
  * @author Leonardo Freua
@@ -36,6 +39,7 @@ public class CreateWalletService {
 
     private final WalletRepository walletRepository;
     private final UserRepository userRepository;
+    private final WalletOwnershipIndex walletOwnershipIndex;
 
     /**
      * Creates a wallet for the specified user if one does not already exist.
@@ -52,6 +56,14 @@ public class CreateWalletService {
     @Transactional
     public Wallet execute(@Positive long userId) {
         log.info("Requested to create a wallet for the user {}", userId);
+        // A known wallet implies its customer exists, so the customer is not read again
+        var indexedWalletId = walletOwnershipIndex.findWalletId(userId);
+        if (indexedWalletId.isPresent()) {
+            log.info("User {} already has a wallet.", userId);
+            return walletRepository.findById(indexedWalletId.getAsLong())
+                    .orElseThrow(() -> new WalletNotFoundException(indexedWalletId.getAsLong()));
+        }
+
         var customer = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException(userId));
 
@@ -61,8 +73,8 @@ public class CreateWalletService {
             return existingWallet.get();
         }
 
-        Wallet newWallet = Wallet.of(customer, BigDecimal.ZERO);
-        walletRepository.saveAndFlush(newWallet);
+        Wallet newWallet = walletRepository.saveAndFlush(Wallet.of(customer, BigDecimal.ZERO));
+        walletOwnershipIndex.register(newWallet.getId(), userId);
 
         log.info("Wallet successfully created for user {}", userId);
 
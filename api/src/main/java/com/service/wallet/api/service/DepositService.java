@@ -1,14 +1,14 @@
 package com.service.wallet.api.service;
 
 import com.service.wallet.api.bean.TransactionLogBean;
-import com.service.wallet.api.domain.Wallet;
+import com.service.wallet.api.cache.WalletOwnershipIndex;
 import com.service.wallet.api.dto.api.request.DepositRequest;
-import com.service.wallet.api.dto.messaging.TransactionCorrelationId;
+import com.service.wallet.api.enums.OperationType;
 import com.service.wallet.api.enums.TransactionStatus;
 import com.service.wallet.api.exception.DepositException;
 import com.service.wallet.api.exception.WalletNotFoundException;
-import com.service.wallet.api.queue.producer.DepositProducer;
 import com.service.wallet.api.repository.WalletRepository;
+import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -37,8 +37,9 @@ import java.util.UUID;
 public class DepositService {
 
     private final WalletRepository walletRepository;
+    private final WalletOwnershipIndex walletOwnershipIndex;
     private final TransactionLogService transactionLogService;
-    private final DepositProducer depositProducer;
+    private final OutboxService outboxService;
 
     /**
      * Executes a deposit operation into a wallet as described by the provided
@@ -47,33 +48,42 @@ public class DepositService {
      * <pre>
      * This method performs the following validations and steps:
      *   - Validates that the wallet exists
-     *   - Ensures the deposit is being made by the wallet's owner
+     *   - Ensures the deposit is being made by the wallet's owner, looked up in
+     *     the {@link WalletOwnershipIndex} instead of the database
      *   - Adds the deposit amount to the current balance
      *   - Saves the updated wallet
      *   - Logs the transaction in the transaction log
+     *   - Adds the deposit message to the outbox, in the same transaction
+     *
+     * The cached balance is not evicted here: the deposit is only applied once the
+     * processor settles it, which then publishes the new balance and the API
+     * overwrites the cached one.
      * </pre>
      *
      * @param depositBean the details of the deposit operation, including wallet ID,
      *                    user ID, and amount
+     * @return the correlation ID of the deposit
      * @throws WalletNotFoundException if the wallet does not exist
      * @throws DepositException        if the wallet does not belong to the given
      *                                 user
      */
-    // @CacheEvict(value = "balances", key = "#depositBean.walletId()") // TODO
-    // remover o cache somente quando receber a mensagem de retorno via SNS
-    public void execute(@Positive long targetWalletId, @NotNull @Valid DepositRequest depositRequest)
+    @Transactional(rollbackOn = { WalletNotFoundException.class, DepositException.class })
+    public UUID execute(@Positive long targetWalletId, @NotNull @Valid DepositRequest depositRequest)
             throws DepositException {
         log.info("Deposit requested with the following criteria: {}", depositRequest);
-        Wallet targetWallet = walletRepository.findById(targetWalletId)
+        long ownerId = walletOwnershipIndex.findCustomerId(targetWalletId)
                 .orElseThrow(() -> new WalletNotFoundException(targetWalletId));
 
-        if (targetWallet.getCustomer().getId() != depositRequest.userId()) {
+        if (ownerId != depositRequest.userId()) {
             throw new DepositException("The user can only deposit into his own wallet!");
         }
 
         var transactionLog = transactionLogService
-                .log(TransactionLogBean.buildDeposit(targetWallet, depositRequest.amount(), UUID.randomUUID()), TransactionStatus.PROCESSING);
-        depositProducer.send(new TransactionCorrelationId(transactionLog.getCorrelationId()));
+                .log(TransactionLogBean.buildDeposit(walletRepository.getReferenceById(targetWalletId),
+                        depositRequest.amount(), UUID.randomUUID()), TransactionStatus.PROCESSING);
+        outboxService.enqueue(OperationType.DEPOSIT, transactionLog.getCorrelationId());
+
+        return transactionLog.getCorrelationId();
 
         // var newBalance = wallet.getBalance().add(depositBean.amount().value());
         // wallet.setBalance(newBalance);
@@ -1,14 +1,31 @@
 package com.service.wallet.api.service;
 
-import static com.service.wallet.api.enums.OperationType.DEPOSIT;
-import static com.service.wallet.api.enums.OperationType.TRANSFER;
-import static com.service.wallet.api.enums.OperationType.WITHDRAW;
-
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.service.wallet.api.dto.api.request.BalanceSnapshotRequest;
+import com.service.wallet.api.dto.api.response.BalanceConsistencyResponse;
+import com.service.wallet.api.dto.api.response.WalletBalanceResponse;
+import com.service.wallet.api.exception.BalanceSnapshotException;
+import com.service.wallet.api.exception.HistoryNotRetainedException;
+import com.service.wallet.api.repository.WalletRepository;
+import com.service.wallet.api.repository.projection.BalanceAggregate;
+import com.service.wallet.api.repository.projection.WalletBalance;
+
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
@@ -17,17 +34,31 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * Service responsible for calculating the historical balance of a wallet at a
  * specific timestamp.
- * 
+ *
  * <pre>
- * This service uses the {@link TransactionLogService} to query all relevant transactions
- * that occurred before the provided date and time, including deposits, withdrawals, and
- * transfers (both sent and received).
- * 
- * The historical balance is computed as:
- * 
- * (sum of deposits + sum of received transfers) - (sum of withdrawals + sum of sent transfers)
+ * Every settled deposit and withdrawal records the balance of its wallet right
+ * after it was applied (balance_after). The historical balance is therefore the
+ * running balance of the latest settled entry at or before the provided date and
+ * time, read with a single index seek regardless of how long the wallet history is.
+ *
+ * Transfers move money through their withdrawal and deposit legs, so they are
+ * already part of the running balance.
+ *
+ * The running balance can be checked against the aggregation of every settled
+ * entry of the wallet, computed in a single scan of the covering indexes:
+ *
+ * (sum of settled deposits) - (sum of settled withdrawals)
+ *
+ * Balance snapshots of many wallets at once (end-of-day reporting) split the
+ * wallets into ID ranges, read each range with a single grouped scan of the
+ * running balances and stream the results back range by range, scanning up to
+ * a configured number of ranges in parallel.
+ *
+ * Once the retention detached old partitions, every balance starts from the one
+ * carried forward at the retention cutoff, and points in time before the cutoff
+ * are refused.
  * </pre>
- * 
+ *
  * @author Leonardo Freua
  */
 @Slf4j
@@ -36,6 +67,16 @@ import lombok.extern.slf4j.Slf4j;
 public class HistoricalBalanceService {
 
     private final TransactionLogService transactionLogService;
+    private final WalletRepository walletRepository;
+
+    @Value("${wallet.balance-snapshot.range-size:5000}")
+    private int rangeSize;
+
+    @Value("${wallet.balance-snapshot.parallelism:4}")
+    private int parallelism;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
 
     /**
      * Calculates the historical balance of a wallet as of a specific date and time.
@@ -49,15 +90,124 @@ public class HistoricalBalanceService {
      */
     public BigDecimal getHistoricalBalance(@Positive long sourceWalletId, @NotNull LocalDateTime createdAt) {
         log.info("Request historical balance for wallet {} at date and time {}", sourceWalletId, createdAt);
-        BigDecimal deposits = transactionLogService.sumAmountByOperationBefore(sourceWalletId, DEPOSIT, createdAt);
-        BigDecimal withdrawals = transactionLogService.sumAmountByOperationBefore(sourceWalletId, WITHDRAW, createdAt);
-        BigDecimal transfersSent = transactionLogService.sumAmountByOperationBefore(sourceWalletId, TRANSFER,
-                createdAt);
-        BigDecimal transfersReceived = transactionLogService.sumReceivedTransfersBefore(sourceWalletId, createdAt);
-
-        return deposits
-                .add(transfersReceived)
-                .subtract(withdrawals)
-                .subtract(transfersSent);
+        return transactionLogService.balanceAt(sourceWalletId, createdAt);
+    }
+
+    /**
+     * Compares the running balance of a wallet at a specific date and time with
+     * the aggregation of all its settled entries up to that moment.
+     *
+     * @param walletId  the ID of the wallet to check
+     * @param createdAt the point in time to check
+     * @return both balances and whether they match
+     */
+    public BalanceConsistencyResponse checkConsistency(@Positive long walletId, @NotNull LocalDateTime createdAt) {
+        BigDecimal runningBalance = transactionLogService.balanceAt(walletId, createdAt);
+        BalanceAggregate aggregate = transactionLogService.aggregateSettledBefore(walletId, createdAt);
+        BigDecimal aggregatedBalance = aggregate.getNetBalance();
+        boolean consistent = runningBalance.compareTo(aggregatedBalance) == 0;
+
+        if (!consistent) {
+            log.warn("Running balance {} of wallet {} at {} differs from the aggregated balance {}", runningBalance,
+                    walletId, createdAt, aggregatedBalance);
+        }
+
+        return new BalanceConsistencyResponse(walletId, createdAt, runningBalance, aggregatedBalance,
+                aggregate.getDeposits(), aggregate.getWithdrawals(), aggregate.getTransfersSent(),
+                aggregate.getTransfersReceived(), consistent);
+    }
+
+    /**
+     * Streams the balance of many wallets as of a specific date and time.
+     * <p>
+     * The wallets are split into ranges of at most {@code rangeSize} IDs, each one
+     * read with a single grouped scan. Up to {@code parallelism} ranges are scanned
+     * at the same time and the results are handed to the sink in wallet ID order,
+     * so only the ranges in flight are kept in memory.
+     * </p>
+     *
+     * @param request the wallets, or all of them, and the point in time
+     * @param sink    receives the balance of each wallet created up to the point in
+     *                time, ordered by wallet ID
+     * @throws BalanceSnapshotException    if a range could not be scanned
+     * @throws HistoryNotRetainedException if the point in time is before the
+     *                                     retention cutoff
+     */
+    public void snapshotBalances(@NotNull BalanceSnapshotRequest request,
+            @NotNull Consumer<WalletBalanceResponse> sink) {
+        LocalDateTime createdAt = request.timestamp();
+        List<Callable<List<WalletBalance>>> scans = request.all()
+                ? rangeScans(createdAt)
+                : idScans(request.walletIds(), createdAt);
+
+        log.info("Request balance snapshot at {} split into {} scans", createdAt, scans.size());
+        if (scans.isEmpty()) {
+            return;
+        }
+
+        int workers = Math.max(1, Math.min(parallelism, scans.size()));
+        Deque<Future<List<WalletBalance>>> inFlight = new ArrayDeque<>(workers);
+        Iterator<Callable<List<WalletBalance>>> pending = scans.iterator();
+
+        // At most `workers` scans are in flight, so a thread per scan is bounded too
+        try (var executor = virtualThreads
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(workers)) {
+            try {
+                while (pending.hasNext() || !inFlight.isEmpty()) {
+                    while (inFlight.size() < workers && pending.hasNext()) {
+                        inFlight.add(executor.submit(pending.next()));
+                    }
+
+                    for (var balance : await(inFlight.poll())) {
+                        sink.accept(new WalletBalanceResponse(balance.getWalletId(), balance.getBalance()));
+                    }
+                }
+            } finally {
+                inFlight.forEach(scan -> scan.cancel(true));
+            }
+        }
+    }
+
+    private List<Callable<List<WalletBalance>>> rangeScans(LocalDateTime createdAt) {
+        List<Callable<List<WalletBalance>>> scans = new ArrayList<>();
+        var minId = walletRepository.findMinId();
+        var maxId = walletRepository.findMaxId();
+        if (minId.isEmpty() || maxId.isEmpty()) {
+            return scans;
+        }
+
+        for (long from = minId.get(); from <= maxId.get(); from += rangeSize) {
+            long fromWalletId = from;
+            long toWalletId = Math.min(from + rangeSize - 1, maxId.get());
+            scans.add(() -> transactionLogService.balancesAt(fromWalletId, toWalletId, createdAt));
+        }
+
+        return scans;
+    }
+
+    private List<Callable<List<WalletBalance>>> idScans(Collection<Long> walletIds, LocalDateTime createdAt) {
+        List<Long> sortedIds = walletIds.stream().distinct().sorted().toList();
+        List<Callable<List<WalletBalance>>> scans = new ArrayList<>();
+        for (int from = 0; from < sortedIds.size(); from += rangeSize) {
+            List<Long> range = sortedIds.subList(from, Math.min(from + rangeSize, sortedIds.size()));
+            scans.add(() -> transactionLogService.balancesAt(range, createdAt));
+        }
+
+        return scans;
+    }
+
+    private static List<WalletBalance> await(Future<List<WalletBalance>> scan) {
+        try {
+            return scan.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BalanceSnapshotException("Interrupted while waiting for the balance snapshot", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof HistoryNotRetainedException notRetained) {
+                throw notRetained;
+            }
+            throw new BalanceSnapshotException("Failed to scan the balances of a wallet range", e.getCause());
+        }
     }
 }
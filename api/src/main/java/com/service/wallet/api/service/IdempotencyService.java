@@ -0,0 +1,268 @@
+package com.service.wallet.api.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.service.wallet.api.bean.IdempotentResult;
+import com.service.wallet.api.exception.BusinessRuleException;
+import com.service.wallet.api.exception.IdempotencyKeyConflictException;
+import com.service.wallet.api.exception.IdempotencyKeyInProgressException;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Service responsible for making the money movement endpoints safe to retry
+ * through the {@code Idempotency-Key} header.
+ *
+ * <pre>
+ * For every key, Redis holds the hash of the request, its status and, once the
+ * operation completes, the response and the correlation ID of the transaction:
+ *
+ *   - A retry of a completed request is answered from that entry with a single
+ *     GET, without touching the database or the queues
+ *   - The first request claims the key with SET NX before executing, so
+ *     concurrent duplicates (also across API instances) wait for its outcome
+ *     instead of executing again
+ *   - The claim expires after lock-ttl, so a crashed instance does not hold
+ *     the key forever; while the operation runs, its claim is renewed every
+ *     third of lock-ttl, and only while the key still holds that claim
+ *   - Reusing a key for a different request is rejected
+ *   - If the operation fails the key is released, so the client can retry it
+ *   - If the response cannot be stored once the operation succeeded, the
+ *     client still gets the success; the claim then expires after lock-ttl
+ *     and a retry after that executes the operation again
+ * </pre>
+ *
+ * @author Leonardo Freua
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService implements DisposableBean {
+
+    static final String KEY_PREFIX = "idempotency:";
+    static final int MAX_KEY_LENGTH = 255;
+
+    private static final String IN_PROGRESS = "IN_PROGRESS";
+    private static final String COMPLETED = "COMPLETED";
+
+    /** Extends the claim only if the key still holds it: KEYS[1] key, ARGV[1] claim, ARGV[2] TTL in ms. */
+    static final RedisScript<Long> RENEW_CLAIM = RedisScript.of("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final ScheduledExecutorService claimRenewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "idempotency-claim-renewer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${wallet.idempotency.ttl:24h}")
+    private Duration ttl;
+
+    @Value("${wallet.idempotency.lock-ttl:30s}")
+    private Duration lockTtl;
+
+    @Value("${wallet.idempotency.wait-timeout:5s}")
+    private Duration waitTimeout;
+
+    @Value("${wallet.idempotency.poll-interval:50ms}")
+    private Duration pollInterval;
+
+    /**
+     * Executes the operation once per idempotency key.
+     *
+     * @param idempotencyKey the key sent by the client, the operation is simply
+     *                       executed when it is {@code null}
+     * @param scope          the operation and the resource it targets, e.g.
+     *                       {@code deposit:42}
+     * @param request        the request body, part of the request hash
+     * @param status         the HTTP status answered when the operation succeeds
+     * @param operation      the operation, returning the correlation ID of the
+     *                       transaction it creates, if any
+     * @return the outcome of the operation, executed now or replayed
+     * @throws IdempotencyKeyConflictException   if the key was used for a
+     *                                           different request
+     * @throws IdempotencyKeyInProgressException if a request with the same key is
+     *                                           still executing after the wait
+     *                                           timeout
+     */
+    public IdempotentResult execute(String idempotencyKey, @NotNull String scope, Object request, int status,
+            @NotNull Supplier<UUID> operation) {
+        if (idempotencyKey == null) {
+            return new IdempotentResult(status, operation.get(), false);
+        }
+
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BusinessRuleException(
+                    "The Idempotency-Key header must have between 1 and " + MAX_KEY_LENGTH + " characters!");
+        }
+
+        String storeKey = KEY_PREFIX + idempotencyKey;
+        String requestHash = hash(scope, request);
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+
+        while (true) {
+            StoredResponse stored = read(storeKey);
+            if (stored == null) {
+                String claim = write(new StoredResponse(IN_PROGRESS, requestHash, 0, null, UUID.randomUUID()));
+                if (claim(storeKey, claim)) {
+                    return executeAndStore(storeKey, claim, requestHash, status, operation);
+                }
+
+                continue;
+            }
+
+            if (!stored.requestHash().equals(requestHash)) {
+                throw new IdempotencyKeyConflictException(
+                        "The Idempotency-Key was already used for a different request!");
+            }
+
+            if (COMPLETED.equals(stored.state())) {
+                log.info("Replaying the response of idempotency key {}", idempotencyKey);
+                return new IdempotentResult(stored.status(), stored.correlationId(), true);
+            }
+
+            if (System.nanoTime() > deadline) {
+                throw new IdempotencyKeyInProgressException(
+                        "A request with the same Idempotency-Key is still being processed!");
+            }
+
+            pause();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        claimRenewer.shutdownNow();
+    }
+
+    private IdempotentResult executeAndStore(String storeKey, String claim, String requestHash, int status,
+            Supplier<UUID> operation) {
+        UUID correlationId;
+        ScheduledFuture<?> renewal = scheduleRenewal(storeKey, claim);
+        try {
+            correlationId = operation.get();
+        } catch (RuntimeException e) {
+            renewal.cancel(false);
+            release(storeKey, e);
+            throw e;
+        }
+
+        renewal.cancel(false);
+        try {
+            redisTemplate.opsForValue().set(storeKey,
+                    write(new StoredResponse(COMPLETED, requestHash, status, correlationId, null)), ttl);
+        } catch (RuntimeException e) {
+            log.error("Failed to store the response of idempotency key {} (correlation ID {}), a retry after {} "
+                    + "executes it again", storeKey, correlationId, lockTtl, e);
+        }
+
+        return new IdempotentResult(status, correlationId, false);
+    }
+
+    private boolean claim(String storeKey, String claim) {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(storeKey, claim, lockTtl));
+    }
+
+    private ScheduledFuture<?> scheduleRenewal(String storeKey, String claim) {
+        long period = Math.max(1, lockTtl.toMillis() / 3);
+        return claimRenewer.scheduleAtFixedRate(() -> renew(storeKey, claim), period, period,
+                TimeUnit.MILLISECONDS);
+    }
+
+    private void renew(String storeKey, String claim) {
+        try {
+            Long renewed = redisTemplate.execute(RENEW_CLAIM, List.of(storeKey), claim,
+                    String.valueOf(lockTtl.toMillis()));
+            if (renewed == null || renewed == 0) {
+                log.warn("Lost the claim of idempotency key {} while its operation was still running", storeKey);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to renew the claim of idempotency key {}", storeKey, e);
+        }
+    }
+
+    private void release(String storeKey, RuntimeException failure) {
+        try {
+            redisTemplate.delete(storeKey);
+        } catch (RuntimeException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    private StoredResponse read(String storeKey) {
+        String value = redisTemplate.opsForValue().get(storeKey);
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            return objectMapper.readValue(value, StoredResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable idempotency entry " + storeKey, e);
+        }
+    }
+
+    private String write(StoredResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize the idempotency entry", e);
+        }
+    }
+
+    private String hash(String scope, Object request) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            digest.update(scope.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Failed to hash the request", e);
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(pollInterval);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInProgressException(
+                    "Interrupted while waiting for the request with the same Idempotency-Key", e);
+        }
+    }
+
+    /**
+     * @param claimId unique per claim, so a renewal never extends the claim or
+     *                the response stored by another request
+     */
+    record StoredResponse(String state, String requestHash, int status, UUID correlationId, UUID claimId) {
+    }
+}
@@ -0,0 +1,204 @@
+package com.service.wallet.api.service;
+
+import com.service.wallet.api.domain.OutboxMessage;
+import com.service.wallet.api.dto.messaging.TransactionCorrelationId;
+import com.service.wallet.api.enums.OperationType;
+import com.service.wallet.api.queue.producer.DepositProducer;
+import com.service.wallet.api.queue.producer.SqsProducer;
+import com.service.wallet.api.queue.producer.TransferProducer;
+import com.service.wallet.api.repository.OutboxMessageRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.transaction.Transactional;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Service responsible for the transactional outbox of the queue messages.
+ *
+ * <pre>
+ * Operations that must announce a PROCESSING transaction to the processor
+ * enqueue the message in the same database transaction that writes the
+ * transaction log entries, so either both exist or neither does. The request
+ * never waits on SQS.
+ *
+ * The {@link com.service.wallet.api.queue.producer.OutboxRelay} then publishes
+ * the pending messages in batches, without holding a connection or row locks
+ * while it waits on SQS:
+ *
+ *   1. A short transaction claims the due messages with FOR UPDATE SKIP LOCKED
+ *      and leases them by moving next_attempt_at forward by the lease, so the
+ *      relays of several API instances do not publish them in parallel
+ *   2. The messages are sent outside of any transaction
+ *   3. A second short transaction deletes the published messages and
+ *      reschedules the failed ones with an exponential backoff
+ *
+ * Delivery is at least once: a message whose batch stops between the send and
+ * the second transaction is published again once its lease expires, which the
+ * processor ignores because the transaction is no longer PROCESSING.
+ *
+ * Metrics:
+ *   - wallet.outbox.published   messages published to SQS
+ *   - wallet.outbox.failed      publication attempts that failed and were rescheduled
+ * </pre>
+ *
+ * @author Leonardo Freua
+ */
+@Slf4j
+@Service
+public class OutboxService {
+
+    private final OutboxMessageRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<OperationType, SqsProducer<TransactionCorrelationId>> producers;
+    private final Counter published;
+    private final Counter failed;
+
+    @Value("${wallet.outbox.send-timeout:10s}")
+    private Duration sendTimeout;
+
+    @Value("${wallet.outbox.lease:30s}")
+    private Duration lease;
+
+    @Value("${wallet.outbox.retry-backoff:1s}")
+    private Duration retryBackoff;
+
+    @Value("${wallet.outbox.max-retry-backoff:5m}")
+    private Duration maxRetryBackoff;
+
+    public OutboxService(OutboxMessageRepository repository, PlatformTransactionManager transactionManager,
+            DepositProducer depositProducer, TransferProducer transferProducer, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.producers = Map.of(
+                OperationType.DEPOSIT, depositProducer,
+                OperationType.TRANSFER, transferProducer);
+        this.published = Counter.builder("wallet.outbox.published")
+                .description("Outbox messages published to SQS")
+                .register(meterRegistry);
+        this.failed = Counter.builder("wallet.outbox.failed")
+                .description("Outbox publication attempts that failed and were rescheduled")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Adds a message announcing a PROCESSING transaction to the outbox. Must run
+     * inside the transaction that writes its transaction log entries.
+     *
+     * @param operation     the operation, which selects the queue
+     * @param correlationId the correlation ID of the transaction
+     * @return the stored message
+     * @throws IllegalArgumentException if no queue is published for the operation
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public OutboxMessage enqueue(@NotNull OperationType operation, @NotNull UUID correlationId) {
+        if (!producers.containsKey(operation)) {
+            throw new IllegalArgumentException("No queue is published for " + operation + " operations");
+        }
+
+        return repository.save(OutboxMessage.builder()
+                .operation(operation)
+                .correlationId(correlationId)
+                .nextAttemptAt(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * Publishes one batch of the messages due for an attempt. The messages are
+     * leased in a short transaction, sent outside of it and then deleted or
+     * rescheduled in another one.
+     *
+     * @param batchSize the maximum number of messages to publish
+     * @return the number of messages taken, published or not
+     */
+    public int publishPending(@Positive int batchSize) {
+        List<OutboxMessage> messages = transactionTemplate.execute(status -> lease(batchSize));
+        if (messages == null || messages.isEmpty()) {
+            return 0;
+        }
+
+        // The producers batch the sends, so all of them are started before waiting on any
+        List<CompletableFuture<String>> sends = messages.stream()
+                .map(this::send)
+                .toList();
+
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        List<Long> publishedIds = new ArrayList<>(messages.size());
+        List<OutboxMessage> rescheduled = new ArrayList<>();
+        for (int i = 0; i < messages.size(); i++) {
+            OutboxMessage message = messages.get(i);
+            try {
+                sends.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                publishedIds.add(message.getId());
+            } catch (InterruptedException e) {
+                // The remaining messages are taken again once their lease expires
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException | TimeoutException e) {
+                reschedule(message, e instanceof ExecutionException ? e.getCause() : e);
+                rescheduled.add(message);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            repository.deleteAllByIdInBatch(publishedIds);
+            repository.saveAll(rescheduled);
+        });
+        published.increment(publishedIds.size());
+        log.debug("Published {} of {} outbox messages", publishedIds.size(), messages.size());
+
+        return messages.size();
+    }
+
+    /**
+     * Locks the due messages and moves their next attempt past the lease, so no
+     * other relay takes them while they are being sent.
+     */
+    private List<OutboxMessage> lease(int batchSize) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxMessage> messages = repository.lockDueMessages(now, batchSize);
+        messages.forEach(message -> message.setNextAttemptAt(now.plus(lease)));
+        return messages;
+    }
+
+    private CompletableFuture<String> send(OutboxMessage message) {
+        try {
+            return producers.get(message.getOperation())
+                    .send(new TransactionCorrelationId(message.getCorrelationId()));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void reschedule(OutboxMessage message, Throwable cause) {
+        message.setAttempts(message.getAttempts() + 1);
+        Duration backoff = backoff(message.getAttempts());
+        message.setNextAttemptAt(LocalDateTime.now().plus(backoff));
+        failed.increment();
+
+        log.warn("Failed to publish {} message {} (attempt {}), retrying in {}", message.getOperation(),
+                message.getCorrelationId(), message.getAttempts(), backoff, cause);
+    }
+
+    private Duration backoff(int attempts) {
+        long factor = 1L << Math.min(attempts - 1, 20);
+        Duration backoff = retryBackoff.multipliedBy(factor);
+        return backoff.compareTo(maxRetryBackoff) > 0 ? maxRetryBackoff : backoff;
+    }
+}
@@ -0,0 +1,121 @@
+package com.service.wallet.api.service;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.service.wallet.api.cache.WalletOwnershipIndex;
+import com.service.wallet.api.dto.api.response.TransactionHistoryResponse;
+import com.service.wallet.api.dto.api.response.TransactionResponse;
+import com.service.wallet.api.exception.InvalidCursorException;
+import com.service.wallet.api.exception.WalletNotFoundException;
+import com.service.wallet.api.mapper.TransactionMapper;
+import com.service.wallet.api.repository.TransactionHistoryRepository;
+import com.service.wallet.api.repository.projection.TransactionHistoryEntry;
+import com.service.wallet.api.type.TransactionCursor;
+
+import jakarta.transaction.Transactional;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Service responsible for listing and exporting the transaction history of a
+ * wallet: every log entry it sent or received, including the audit entry of
+ * its transfers.
+ *
+ * <pre>
+ * Two ways to read it:
+ *
+ *   - Pages, newest first, keyset-paginated on (created_at, id). Each page
+ *     returns an opaque cursor that the next page starts after, so reading
+ *     page N costs the same as reading the first one
+ *   - An export, oldest first, streamed row by row from a forward-only
+ *     database cursor. Only {@code exportFetchSize} rows are held at a time,
+ *     whatever the length of the history
+ * </pre>
+ *
+ * @author Leonardo Freua
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionHistoryService {
+
+    private final TransactionHistoryRepository transactionHistoryRepository;
+    private final WalletOwnershipIndex walletOwnershipIndex;
+    private final TransactionMapper transactionMapper;
+
+    @Value("${wallet.transactions.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${wallet.transactions.page.max-size:500}")
+    private int maxPageSize;
+
+    @Value("${wallet.transactions.export.fetch-size:1000}")
+    private int exportFetchSize;
+
+    /**
+     * Returns a page of the transaction history of a wallet, newest first.
+     *
+     * @param walletId the ID of the wallet
+     * @param cursor   the {@code nextCursor} of the previous page, or
+     *                 {@code null} for the first page
+     * @param size     the number of entries, up to the configured maximum;
+     *                 {@code null} for the default size
+     * @return the entries of the page and the cursor of the next one
+     * @throws WalletNotFoundException if the wallet does not exist
+     * @throws InvalidCursorException  if the cursor is malformed
+     */
+    public TransactionHistoryResponse findPage(@Positive long walletId, String cursor, @Positive Integer size) {
+        requireWallet(walletId);
+        int pageSize = size == null ? defaultPageSize : Math.min(size, maxPageSize);
+        TransactionCursor before = cursor == null || cursor.isBlank() ? null : TransactionCursor.decode(cursor);
+
+        // One extra entry tells whether there is a next page without counting the history
+        List<TransactionHistoryEntry> entries = transactionHistoryRepository.findPage(walletId, before, pageSize + 1);
+        boolean hasNext = entries.size() > pageSize;
+        List<TransactionHistoryEntry> page = hasNext ? entries.subList(0, pageSize) : entries;
+
+        String nextCursor = null;
+        if (hasNext) {
+            TransactionHistoryEntry last = page.getLast();
+            nextCursor = new TransactionCursor(last.createdAt(), last.id()).encode();
+        }
+
+        return new TransactionHistoryResponse(page.stream().map(transactionMapper::fromEntryToResponse).toList(),
+                nextCursor);
+    }
+
+    /**
+     * Checks that the wallet exists, so that an export can be rejected before
+     * its response starts.
+     *
+     * @throws WalletNotFoundException if the wallet does not exist
+     */
+    public void requireWallet(@Positive long walletId) {
+        if (walletOwnershipIndex.findCustomerId(walletId).isEmpty()) {
+            throw new WalletNotFoundException(walletId);
+        }
+    }
+
+    /**
+     * Streams the whole transaction history of a wallet, oldest first.
+     * <p>
+     * Runs in a transaction, which the database cursor requires. The export is a
+     * single statement, so it reads a consistent snapshot however long it takes.
+     * </p>
+     *
+     * @param walletId the ID of the wallet
+     * @param sink     receives each entry as soon as it is read
+     */
+    @Transactional
+    public void export(@Positive long walletId, @NotNull Consumer<TransactionResponse> sink) {
+        log.info("Exporting the transaction history of wallet {}", walletId);
+        transactionHistoryRepository.streamAll(walletId, exportFetchSize,
+                entry -> sink.accept(transactionMapper.fromEntryToResponse(entry)));
+    }
+}
@@ -0,0 +1,109 @@
+package com.service.wallet.api.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.service.wallet.api.repository.TransactionLogPartitionRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Service responsible for maintaining the monthly partitions of the
+ * transaction log.
+ *
+ * <pre>
+ * On startup and then on a schedule it:
+ *
+ *   - Creates the partitions of the current month and of the next
+ *     {@code monthsAhead} months, so inserts never miss a partition
+ *   - When a retention is configured, carries the balance of every wallet at
+ *     the cutoff ({@code retentionMonths} months ago) forward into
+ *     wallet.transaction_log_opening_balance, then detaches the older partitions
+ *     with DETACH PARTITION ... CONCURRENTLY, which does not block the other
+ *     partitions. Detached partitions are kept as regular tables to be archived
+ *     or dropped
+ *
+ * Historical balances at or after the cutoff start from the carried balance;
+ * the ones before it are no longer supported and are refused. Nothing is
+ * detached while entries before the cutoff are still PROCESSING, since the
+ * processor could not settle them anymore, nor when the balances cannot be
+ * carried forward.
+ * </pre>
+ *
+ * @author Leonardo Freua
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionLogPartitionService {
+
+    private final TransactionLogPartitionRepository partitionRepository;
+    private final TransactionLogService transactionLogService;
+
+    @Value("${wallet.transaction-log.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${wallet.transaction-log.partitions.retention-months:0}")
+    private int retentionMonths;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintainPartitions();
+    }
+
+    /**
+     * Creates the upcoming partitions and detaches the expired ones.
+     */
+    @Scheduled(cron = "${wallet.transaction-log.partitions.cron:0 0 3 * * *}")
+    public void maintainPartitions() {
+        LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+
+        int created = partitionRepository.createPartitions(currentMonth, currentMonth.plusMonths(monthsAhead));
+        log.info("Created {} transaction log partitions up to {} months ahead", created, monthsAhead);
+
+        if (retentionMonths <= 0) {
+            return;
+        }
+
+        LocalDate cutoffMonth = currentMonth.minusMonths(retentionMonths);
+        List<String> expired = partitionRepository.findPartitionsBefore(cutoffMonth);
+        if (expired.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime cutoff = cutoffMonth.atStartOfDay();
+        long processing = partitionRepository.countProcessingBefore(cutoff);
+        if (processing > 0) {
+            log.error("{} transaction log entries created before {} are still PROCESSING, keeping partitions {} "
+                    + "attached until they are settled", processing, cutoff, expired);
+            return;
+        }
+
+        try {
+            int carried = partitionRepository.carryForwardBalances(cutoff);
+            transactionLogService.refreshRetentionCutoff();
+            log.info("Carried forward {} wallet balances at {}", carried, cutoff);
+        } catch (RuntimeException e) {
+            log.error("Failed to carry forward the wallet balances at {}, keeping partitions {} attached", cutoff,
+                    expired, e);
+            return;
+        }
+
+        for (var partition : expired) {
+            try {
+                partitionRepository.detachPartition(partition);
+                log.info("Detached transaction log partition {}", partition);
+            } catch (RuntimeException e) {
+                log.error("Failed to detach transaction log partition {}", partition, e);
+            }
+        }
+    }
+}
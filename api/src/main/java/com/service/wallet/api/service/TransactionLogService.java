@@ -4,27 +4,41 @@ import com.service.wallet.api.bean.TransactionLogBean;
 import com.service.wallet.api.domain.TransactionLog;
 import com.service.wallet.api.enums.OperationType;
 import com.service.wallet.api.enums.TransactionStatus;
+import com.service.wallet.api.exception.HistoryNotRetainedException;
 import com.service.wallet.api.exception.TransactionLogException;
+import com.service.wallet.api.repository.TransactionLogOpeningBalanceRepository;
 import com.service.wallet.api.repository.TransactionLogRepository;
+import com.service.wallet.api.repository.projection.BalanceAggregate;
+import com.service.wallet.api.repository.projection.WalletBalance;
+import com.service.wallet.api.type.MinorAmount;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.UUID;
 
 /**
  * Service responsible for logging and aggregating transaction data.
  * <p>
  * This service handles the creation of transaction log entries and provides
- * methods to calculate aggregated values such as total deposits, withdrawals,
- * and transfers before a specified point in time.
+ * methods to read the running balance and the aggregated deposits, withdrawals,
+ * and transfers of a wallet before a specified point in time.
+ * </p>
+ * <p>
+ * Once partitions are detached by the retention, these reads start from the
+ * balance carried forward at the retention cutoff, and reads before the cutoff
+ * are refused instead of reporting a partial history.
  * </p>
  * 
  * @author Leonardo Freua
@@ -35,6 +49,17 @@ import java.util.UUID;
 public class TransactionLogService {
 
     private final TransactionLogRepository repository;
+    private final TransactionLogOpeningBalanceRepository openingBalanceRepository;
+
+    @Value("${wallet.money.minor-units.enabled:false}")
+    private boolean minorUnits;
+
+    /**
+     * Latest retention cutoff, {@code null} while no partition was detached. It
+     * only moves when partitions are detached, so it is read once and refreshed
+     * on a schedule instead of on every balance read.
+     */
+    private volatile LocalDateTime retentionCutoff;
 
     /**
      * Persists a new transaction log entry based on the provided bean.
@@ -50,10 +75,37 @@ public class TransactionLogService {
     @Transactional
     public TransactionLog log(@NotNull @Valid TransactionLogBean transactionLogBean, @NotNull TransactionStatus status) {
         log.info("Creating trasanction log with status {} and the following criteria: {}", status, transactionLogBean);
+        return repository.save(toTransactionLog(transactionLogBean, status));
+    }
+
+    /**
+     * Persists the log entries of a multi-leg operation (e.g. the withdraw,
+     * deposit and transfer entries of a transfer) in a single transaction.
+     * <p>
+     * The IDs come from a pooled sequence and the entries are flushed as one JDBC
+     * batch, so the whole operation costs a single insert round trip.
+     * </p>
+     *
+     * @param transactionLogBeans the beans containing the details of each entry
+     * @throws TransactionLogException if a transfer or deposit entry is missing
+     *                                 the target wallet
+     */
+    @Transactional
+    public List<TransactionLog> logAll(@NotNull List<@NotNull @Valid TransactionLogBean> transactionLogBeans,
+            @NotNull TransactionStatus status) {
+        log.info("Creating {} trasanction logs with status {} and the following criteria: {}",
+                transactionLogBeans.size(), status, transactionLogBeans);
+        return repository.saveAll(transactionLogBeans.stream()
+                .map(transactionLogBean -> toTransactionLog(transactionLogBean, status))
+                .toList());
+    }
+
+    private static TransactionLog toTransactionLog(TransactionLogBean transactionLogBean, TransactionStatus status) {
         var transactionLogBuilder = TransactionLog.builder()
-                .correlationId(UUID.randomUUID())
+                .correlationId(transactionLogBean.correlationId())
                 .operation(transactionLogBean.operationType())
                 .amount(transactionLogBean.amount().value())
+                .amountCents(MinorAmount.of(transactionLogBean.amount()).cents())
                 .currentStatus(status)
                 .createdAt(LocalDateTime.now());
 
@@ -70,38 +122,101 @@ public class TransactionLogService {
             transactionLogBuilder.targetWallet(transactionLogBean.targetWallet());
         }
 
-        return repository.save(transactionLogBuilder.build());
+        return transactionLogBuilder.build();
     }
 
     /**
-     * Returns the total amount of a given operation type for a wallet,
-     * limited to transactions that occurred before the specified date and time.
+     * Returns the running balance recorded by the last settled entry of a wallet
+     * among the ones created at or before the given timestamp, in a single
+     * query. Entries settle out of creation order, so the last settled one is
+     * the one with the highest settlement sequence, which is compared with the
+     * balance carried forward at the retention cutoff as well.
      *
-     * @param sourceWalletId the ID of the wallet performing the operation
-     * @param operation      the operation type (e.g., DEPOSIT, WITHDRAW)
-     * @param createdAt      the timestamp threshold; only transactions before this
-     *                       will be summed
-     * @return the total amount or {@code BigDecimal.ZERO} if no transactions are
-     *         found
+     * @param walletId  the ID of the wallet
+     * @param createdAt the timestamp threshold
+     * @return the balance after that entry or carried forward, or
+     *         {@code BigDecimal.ZERO} if the wallet had no settled entries yet
+     * @throws HistoryNotRetainedException if the timestamp is before the
+     *                                     retention cutoff
      */
-    public BigDecimal sumAmountByOperationBefore(@Positive long sourceWalletId, @NotNull OperationType operation,
-            @NotNull LocalDateTime createdAt) {
-        return repository.sumBySourceWalletIdAndTypeBefore(sourceWalletId, operation, createdAt)
+    public BigDecimal balanceAt(@Positive long walletId, @NotNull LocalDateTime createdAt) {
+        requireRetained(createdAt);
+        return repository.findBalanceAfterAt(walletId, createdAt)
                 .orElse(BigDecimal.ZERO);
     }
 
     /**
-     * Returns the total amount received from transfer operations by a wallet
-     * before the given timestamp.
+     * Returns the settled deposits, withdrawals, sent transfers and received
+     * transfers of a wallet up to the given timestamp, computed in a single
+     * statement instead of one aggregation per operation. With
+     * {@code wallet.money.minor-units.enabled} the sums run on the BIGINT cents
+     * column instead of the NUMERIC one. The totals carried forward at the
+     * retention cutoff are added in the same statement.
      *
-     * @param sourceWalletId the ID of the wallet that received the transfers
-     * @param createdAt      the timestamp threshold; only transactions before this
-     *                       will be summed
-     * @return the total amount of received transfers or {@code BigDecimal.ZERO} if
-     *         none are found
+     * @param walletId  the ID of the wallet
+     * @param createdAt the timestamp threshold; only transactions at or before
+     *                  this will be summed
+     * @return the amounts per operation, including the ones carried forward at
+     *         the retention cutoff, zero for operations without entries
+     * @throws HistoryNotRetainedException if the timestamp is before the
+     *                                     retention cutoff
      */
-    public BigDecimal sumReceivedTransfersBefore(@Positive long sourceWalletId, @NotNull LocalDateTime createdAt) {
-        return repository.sumReceivedTransfers(sourceWalletId, OperationType.TRANSFER, createdAt)
-                .orElse(BigDecimal.ZERO);
+    public BalanceAggregate aggregateSettledBefore(@Positive long walletId, @NotNull LocalDateTime createdAt) {
+        requireRetained(createdAt);
+        return minorUnits
+                ? repository.aggregateSettledBeforeInCents(walletId, createdAt)
+                : repository.aggregateSettledBefore(walletId, createdAt);
+    }
+
+    /**
+     * Returns the running balance of every wallet whose ID is within the given
+     * range at the given timestamp, in a single grouped scan.
+     *
+     * @param fromWalletId the first wallet ID of the range, inclusive
+     * @param toWalletId   the last wallet ID of the range, inclusive
+     * @param createdAt    the timestamp threshold
+     * @return the balance of each wallet created up to the timestamp, ordered by
+     *         wallet ID
+     * @throws HistoryNotRetainedException if the timestamp is before the
+     *                                     retention cutoff
+     */
+    public List<WalletBalance> balancesAt(long fromWalletId, long toWalletId, @NotNull LocalDateTime createdAt) {
+        requireRetained(createdAt);
+        return repository.findBalancesAtBetween(fromWalletId, toWalletId, createdAt);
+    }
+
+    /**
+     * Returns the running balance of the given wallets at the given timestamp, in
+     * a single grouped scan.
+     *
+     * @param walletIds the IDs of the wallets
+     * @param createdAt the timestamp threshold
+     * @return the balance of each existing wallet created up to the timestamp,
+     *         ordered by wallet ID
+     * @throws HistoryNotRetainedException if the timestamp is before the
+     *                                     retention cutoff
+     */
+    public List<WalletBalance> balancesAt(@NotNull Collection<Long> walletIds, @NotNull LocalDateTime createdAt) {
+        requireRetained(createdAt);
+        return repository.findBalancesAtIn(walletIds, createdAt);
+    }
+
+    /**
+     * Reloads the latest retention cutoff. Runs on startup, on a schedule, and
+     * right after this instance carried balances forward, so the other instances
+     * refuse the detached history at most one refresh interval later.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${wallet.transaction-log.partitions.cutoff-refresh:5m}")
+    public void refreshRetentionCutoff() {
+        retentionCutoff = openingBalanceRepository.findRetentionCutoff().orElse(null);
+    }
+
+    private void requireRetained(LocalDateTime createdAt) {
+        LocalDateTime cutoff = retentionCutoff;
+        if (cutoff != null && createdAt.isBefore(cutoff)) {
+            throw new HistoryNotRetainedException(
+                    "The transaction history before %s is no longer retained".formatted(cutoff));
+        }
     }
 }
@@ -1,14 +1,15 @@
 package com.service.wallet.api.service;
 
 import com.service.wallet.api.bean.TransactionLogBean;
+import com.service.wallet.api.cache.WalletOwnershipIndex;
 import com.service.wallet.api.domain.Wallet;
 import com.service.wallet.api.dto.api.request.TransferRequest;
-import com.service.wallet.api.dto.messaging.TransactionCorrelationId;
+import com.service.wallet.api.enums.OperationType;
 import com.service.wallet.api.enums.TransactionStatus;
 import com.service.wallet.api.exception.TransferException;
 import com.service.wallet.api.exception.WalletNotFoundException;
-import com.service.wallet.api.queue.producer.TransferProducer;
 import com.service.wallet.api.repository.WalletRepository;
+import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -16,6 +17,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -28,9 +30,12 @@ import java.util.UUID;
  *   - The source and target users are not the same
  *   - The source wallet exists and belongs to the requesting user
  *   - The target wallet exists and belongs to a different user
+ *   - Both ownership checks are answered by the {@link WalletOwnershipIndex}
  *   - A withdrawal is performed from the source wallet
  *   - A deposit is performed into the target wallet
  *   - The transfer is logged for audit and traceability purposes
+ *   - The withdrawal, deposit and transfer entries are written as a single batch
+ *   - The transfer message is added to the outbox in the same transaction
  * </pre>
  *
  * <p>
@@ -46,8 +51,9 @@ import java.util.UUID;
 public class TransferService {
 
     private final WalletRepository walletRepository;
+    private final WalletOwnershipIndex walletOwnershipIndex;
     private final TransactionLogService transactionLogService;
-    private final TransferProducer transferProducer;
+    private final OutboxService outboxService;
 
     /**
      * Executes a money transfer between two wallets owned by different users.
@@ -55,6 +61,7 @@ public class TransferService {
      * @param transferBean the details of the transfer operation, including source
      *                     and target wallets, user IDs, and the amount to be
      *                     transferred
+     * @return the correlation ID of the transfer
      * @throws TransferException       if the source and target users are the same,
      *                                 if the source wallet doesn't
      *                                 belong to the user, or if any validation
@@ -62,31 +69,37 @@ public class TransferService {
      * @throws WalletNotFoundException if either the source or target wallet cannot
      *                                 be found
      */
-    public void execute(@Positive long sourceWalletId, @NotNull @Valid TransferRequest transferRequest)
+    @Transactional(rollbackOn = { TransferException.class, WalletNotFoundException.class })
+    public UUID execute(@Positive long sourceWalletId, @NotNull @Valid TransferRequest transferRequest)
             throws TransferException, WalletNotFoundException {
         log.info("Transfer requested with the following criteria: {}", transferRequest);
         if (transferRequest.sourceUserId() == transferRequest.targetUserId()) {
             throw new TransferException("The source and destination user cannot be the same!");
         }
 
-        Wallet sourceWallet = walletRepository.findById(sourceWalletId)
+        long sourceOwnerId = walletOwnershipIndex.findCustomerId(sourceWalletId)
                 .orElseThrow(() -> new WalletNotFoundException("Source wallet not found!"));
 
-        if (sourceWallet.getCustomer().getId() != transferRequest.sourceUserId()) {
+        if (sourceOwnerId != transferRequest.sourceUserId()) {
             throw new TransferException("The provided wallet does not belong to the requesting user!");
         }
 
-        Wallet targetWallet = walletRepository.findByCustomerId(transferRequest.targetUserId())
+        long targetWalletId = walletOwnershipIndex.findWalletId(transferRequest.targetUserId())
                 .orElseThrow(() -> new WalletNotFoundException("Target wallet not found!"));
 
+        // The log entries only need the wallet IDs, references avoid loading the wallets
+        Wallet sourceWallet = walletRepository.getReferenceById(sourceWalletId);
+        Wallet targetWallet = walletRepository.getReferenceById(targetWalletId);
+
         UUID transactionCorrelatiUuid = UUID.randomUUID();
-        transactionLogService.log(
-                TransactionLogBean.buildWithdraw(sourceWallet, transferRequest.amount(), transactionCorrelatiUuid), TransactionStatus.PROCESSING);
-        transactionLogService.log(
-                TransactionLogBean.buildDeposit(targetWallet, transferRequest.amount(), transactionCorrelatiUuid), TransactionStatus.PROCESSING);
-        transactionLogService.log(
-                TransactionLogBean.buildTransfer(sourceWallet, targetWallet, transferRequest.amount(), transactionCorrelatiUuid), TransactionStatus.PROCESSING);
+        transactionLogService.logAll(List.of(
+                TransactionLogBean.buildWithdraw(sourceWallet, transferRequest.amount(), transactionCorrelatiUuid),
+                TransactionLogBean.buildDeposit(targetWallet, transferRequest.amount(), transactionCorrelatiUuid),
+                TransactionLogBean.buildTransfer(sourceWallet, targetWallet, transferRequest.amount(), transactionCorrelatiUuid)),
+                TransactionStatus.PROCESSING);
+
+        outboxService.enqueue(OperationType.TRANSFER, transactionCorrelatiUuid);
 
-        transferProducer.send(new TransactionCorrelationId(transactionCorrelatiUuid));
+        return transactionCorrelatiUuid;
     }
 }
\ No newline at end of file
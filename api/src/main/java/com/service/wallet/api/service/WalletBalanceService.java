@@ -8,6 +8,7 @@ import org.springframework.stereotype.Service;
 import com.service.wallet.api.domain.Wallet;
 import com.service.wallet.api.exception.WalletNotFoundException;
 import com.service.wallet.api.repository.WalletRepository;
+import com.service.wallet.common.cache.WalletBalanceCacheFormat;
 
 import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
@@ -20,6 +21,11 @@ import lombok.extern.slf4j.Slf4j;
  * balance for a wallet identified by its ID. If the wallet is not found, a
  * {@link WalletNotFoundException} is thrown.
  * </p>
+ * <p>
+ * The cached balances are written by the processor when it settles a
+ * transaction. A miss here only fills the cache if it is still empty, so a
+ * balance read just before a settlement never replaces the settled one.
+ * </p>
  *
  * @author Leonardo Freua
  */
@@ -37,7 +43,7 @@ public class WalletBalanceService {
      * @return the current balance of the wallet
      * @throws WalletNotFoundException if no wallet is found with the specified ID
      */
-    @Cacheable(value = "balances", key = "#walletId")
+    @Cacheable(value = WalletBalanceCacheFormat.CACHE_NAME, key = "#walletId", sync = true)
     public BigDecimal execute(@Positive long walletId) {
         log.info("Request current balance for wallet {}", walletId);
         return walletRepository.findById(walletId)
@@ -6,10 +6,11 @@ import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 
 import com.service.wallet.api.bean.WithdrawBean;
-import com.service.wallet.api.domain.Wallet;
 import com.service.wallet.api.exception.WalletNotFoundException;
 import com.service.wallet.api.exception.WithdrawException;
 import com.service.wallet.api.repository.WalletRepository;
+import com.service.wallet.api.repository.projection.WalletOwner;
+import com.service.wallet.common.cache.WalletBalanceCacheFormat;
 
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
@@ -61,26 +62,26 @@ public class WithdrawService {
      *                                 balance is insufficient
      */
     @Transactional(rollbackOn = { WalletNotFoundException.class, WithdrawException.class})
-    @CacheEvict(value = "balances", key = "#withdrawBean.walletId()")
+    @CacheEvict(value = WalletBalanceCacheFormat.CACHE_NAME, key = "#withdrawBean.walletId()")
     public void execute(@NotNull @Valid WithdrawBean withdrawBean) {
         log.info("Withdrawal requested with the following criteria: {}", withdrawBean);
-        Wallet wallet = walletRepository.findById(withdrawBean.walletId())
+        WalletOwner wallet = walletRepository.findOwnerById(withdrawBean.walletId())
                 .orElseThrow(() -> new WalletNotFoundException(withdrawBean.walletId()));
 
-        if (wallet.getCustomer().getId() != withdrawBean.userId()) {
+        if (!wallet.isOwnedBy(withdrawBean.userId())) {
             throw new WithdrawException("The user can only withdraw from his own wallet!");
         }
 
-        if (wallet.getBalance().compareTo(BigDecimal.ZERO) == 0) {
+        if (wallet.balance().compareTo(BigDecimal.ZERO) == 0) {
             throw new WithdrawException("Wallet without balance!");
         }
 
         BigDecimal desiredAmount = withdrawBean.amount().value();
-        if (desiredAmount.compareTo(wallet.getBalance()) == 1) {
+        if (desiredAmount.compareTo(wallet.balance()) == 1) {
             throw new WithdrawException("The amount to be withdrawn cannot be greater than the current balance!");
         }
 
-        // BigDecimal newBalance = wallet.getBalance().subtract(desiredAmount);
+        // BigDecimal newBalance = wallet.balance().subtract(desiredAmount);
         // wallet.setBalance(newBalance);
 
         // walletRepository.save(wallet);
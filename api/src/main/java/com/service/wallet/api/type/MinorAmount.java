@@ -0,0 +1,39 @@
+package com.service.wallet.api.type;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An {@link Amount} held as a primitive number of cents (minor units), as
+ * stored in the {@code *_cents} BIGINT columns.
+ * <p>
+ * The API keeps exchanging decimal amounts; this type only exists between the
+ * edge and the database. Amounts are rounded half up to cents, the same way
+ * Postgres rounds them into the {@code NUMERIC(19,2)} columns, so both
+ * representations of a dual-written row always agree.
+ * </p>
+ */
+public record MinorAmount(long cents) {
+
+    public static final int SCALE = 2;
+
+    public static MinorAmount of(Amount amount) {
+        return new MinorAmount(toCents(amount.value()));
+    }
+
+    /**
+     * @throws ArithmeticException if the value does not fit in a {@code long}
+     *                             number of cents
+     */
+    public static long toCents(BigDecimal value) {
+        return value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toDecimal(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    public Amount toAmount() {
+        return new Amount(toDecimal(cents));
+    }
+}
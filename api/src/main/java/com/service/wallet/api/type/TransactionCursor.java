@@ -0,0 +1,42 @@
+package com.service.wallet.api.type;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.service.wallet.api.exception.InvalidCursorException;
+
+/**
+ * Position in the transaction history of a wallet: the {@code (createdAt, id)}
+ * of the last entry of a page. The next page starts right after it.
+ * <p>
+ * Exposed to clients as an opaque URL-safe token, so the key columns can change
+ * without changing the API.
+ * </p>
+ */
+public record TransactionCursor(LocalDateTime createdAt, long id) {
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString((createdAt.toString() + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws InvalidCursorException if the token was not produced by
+     *                                {@link #encode()}
+     */
+    public static TransactionCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(SEPARATOR);
+            return new TransactionCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid transaction history cursor", e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+-- Adds a BIGINT cents (minor unit) copy of every money column. Sums and
+-- arithmetic on BIGINT avoid the NUMERIC machinery in Postgres and map to a
+-- primitive long in the application.
+--
+-- During the transition the application writes both representations; the
+-- NUMERIC columns stay the source of truth until wallet.money.minor-units.enabled
+-- is switched on, which must only happen once every writer runs this version.
+ALTER TABLE wallet.wallet ADD COLUMN balance_cents BIGINT;
+
+UPDATE wallet.wallet SET balance_cents = (balance * 100)::BIGINT;
+
+ALTER TABLE wallet.wallet ALTER COLUMN balance_cents SET DEFAULT 0;
+ALTER TABLE wallet.wallet ALTER COLUMN balance_cents SET NOT NULL;
+
+-- Left nullable so that inserts of writers still on the previous version keep working
+ALTER TABLE wallet.transaction_log ADD COLUMN amount_cents BIGINT;
+ALTER TABLE wallet.transaction_log ADD COLUMN balance_after_cents BIGINT;
+
+UPDATE wallet.transaction_log
+   SET amount_cents = (amount * 100)::BIGINT,
+       balance_after_cents = (balance_after * 100)::BIGINT;
+
+-- The aggregates must remain index-only scans when they sum the cents column
+DROP INDEX IF EXISTS wallet.idx_tx_log_source_wallet_op_created_at_cov;
+DROP INDEX IF EXISTS wallet.idx_tx_log_target_wallet_op_created_at_cov;
+
+CREATE INDEX idx_tx_log_source_wallet_op_created_at_cov
+    ON wallet.transaction_log (source_wallet_id, operation, created_at)
+    INCLUDE (amount, amount_cents, current_status);
+
+CREATE INDEX idx_tx_log_target_wallet_op_created_at_cov
+    ON wallet.transaction_log (target_wallet_id, operation, created_at)
+    INCLUDE (amount, amount_cents, current_status);
@@ -0,0 +1,11 @@
+-- Transaction history of a wallet, keyset-paginated on (created_at, id). The
+-- history reads the entries the wallet sent and the ones it received with one
+-- ordered index scan each, merged by created_at; the (wallet, operation,
+-- created_at) indexes cannot return a wallet's entries in that order.
+CREATE INDEX idx_tx_log_source_wallet_created_at_id
+    ON wallet.transaction_log (source_wallet_id, created_at, id)
+    WHERE source_wallet_id IS NOT NULL;
+
+CREATE INDEX idx_tx_log_target_wallet_created_at_id
+    ON wallet.transaction_log (target_wallet_id, created_at, id)
+    WHERE target_wallet_id IS NOT NULL;
@@ -0,0 +1,16 @@
+-- Progress checkpoints of the monthly statement job of the processor. The job
+-- splits the wallets in fixed ID ranges (chunks); each chunk is claimed by one
+-- processor instance, and marked DONE once the statements of its wallets are
+-- stored. A rerun for the same period skips the DONE chunks, and a RUNNING
+-- chunk whose claim is older than the claim timeout (its instance died) is
+-- claimed again.
+CREATE TABLE wallet.statement_chunk (
+    period         DATE                        NOT NULL,
+    from_wallet_id BIGINT                      NOT NULL,
+    to_wallet_id   BIGINT                      NOT NULL,
+    status         VARCHAR(20)                 NOT NULL,
+    statements     INTEGER,
+    claimed_at     TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    completed_at   TIMESTAMP WITHOUT TIME ZONE,
+    PRIMARY KEY (period, from_wallet_id)
+);
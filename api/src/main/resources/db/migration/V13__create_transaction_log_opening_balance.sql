@@ -0,0 +1,19 @@
+-- Balances carried forward when the api detaches the expired transaction_log
+-- partitions. Before detaching, one row per wallet records the running balance
+-- and the settled totals per operation up to the retention cutoff (as_of), so
+-- balance queries at or after the cutoff still see the detached history.
+-- Queries before the latest cutoff are refused.
+CREATE TABLE wallet.transaction_log_opening_balance (
+    id                 BIGINT                      GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    wallet_id          BIGINT                      NOT NULL REFERENCES wallet.wallet(id),
+    as_of              TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    balance            NUMERIC(19,2)               NOT NULL,
+    deposits           NUMERIC(19,2)               NOT NULL,
+    withdrawals        NUMERIC(19,2)               NOT NULL,
+    transfers_sent     NUMERIC(19,2)               NOT NULL,
+    transfers_received NUMERIC(19,2)               NOT NULL,
+    UNIQUE (wallet_id, as_of)
+);
+
+-- The latest cutoff is read by every historical balance query
+CREATE INDEX idx_tx_log_opening_balance_as_of ON wallet.transaction_log_opening_balance (as_of);
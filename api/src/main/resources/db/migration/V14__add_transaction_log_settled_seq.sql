@@ -0,0 +1,38 @@
+-- Order in which the processor settled each entry. balance_after is the running
+-- balance of the wallet in settlement order, which is not created_at order
+-- whenever entries settle out of order (parallel receivers, retries, an
+-- unordered queue), and pooled IDs are not time-ordered across api instances.
+-- The latest running balance of a wallet is therefore the one with the highest
+-- settled_seq, stamped by the processor together with balance_after.
+CREATE SEQUENCE wallet.transaction_log_settled_seq;
+
+ALTER TABLE wallet.transaction_log ADD COLUMN settled_seq BIGINT;
+
+-- Entries settled so far keep the created_at order their running balance was
+-- backfilled with (V5)
+UPDATE wallet.transaction_log t
+   SET settled_seq = r.settled_seq
+  FROM (
+        SELECT id, created_at, ROW_NUMBER() OVER (ORDER BY created_at, id) AS settled_seq
+          FROM wallet.transaction_log
+         WHERE balance_after IS NOT NULL
+       ) r
+ WHERE t.id = r.id
+   AND t.created_at = r.created_at;
+
+SELECT setval('wallet.transaction_log_settled_seq', COALESCE(MAX(settled_seq), 0) + 1, false)
+  FROM wallet.transaction_log;
+
+-- Balance at a point in time: the last settled entry of the wallet created at or
+-- before the timestamp, read backwards in settlement order
+DROP INDEX IF EXISTS wallet.idx_tx_log_wallet_balance_after;
+
+CREATE INDEX idx_tx_log_wallet_balance_after
+    ON wallet.transaction_log ((CASE WHEN operation = 'DEPOSIT' THEN target_wallet_id ELSE source_wallet_id END),
+                               settled_seq DESC)
+    INCLUDE (balance_after, created_at)
+    WHERE balance_after IS NOT NULL;
+
+-- Settlement position of the running balance carried forward, so it can be
+-- compared with the entries still attached
+ALTER TABLE wallet.transaction_log_opening_balance ADD COLUMN settled_seq BIGINT;
@@ -0,0 +1,4 @@
+-- Identifies the claim a processor instance holds on a statement chunk. Once
+-- a claim times out, another instance takes the chunk over with a new token;
+-- the instance that lost it can then neither checkpoint nor release the chunk.
+ALTER TABLE wallet.statement_chunk ADD COLUMN claim_token UUID;
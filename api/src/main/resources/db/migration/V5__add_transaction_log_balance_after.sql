@@ -0,0 +1,46 @@
+-- Balance of the wallet right after the entry was settled.
+-- Only the legs that move money carry it: DEPOSIT (target wallet) and WITHDRAW (source wallet).
+ALTER TABLE wallet.transaction_log ADD COLUMN IF NOT EXISTS balance_after NUMERIC(19,2);
+
+-- Backfill the running balance of the entries settled so far
+UPDATE wallet.transaction_log t
+   SET balance_after = r.balance_after
+  FROM (
+        SELECT id,
+               SUM(CASE WHEN operation = 'DEPOSIT' THEN amount ELSE -amount END)
+                   OVER (PARTITION BY CASE WHEN operation = 'DEPOSIT' THEN target_wallet_id ELSE source_wallet_id END
+                         ORDER BY created_at, id) AS balance_after
+          FROM wallet.transaction_log
+         WHERE current_status = 'SUCCESS'
+           AND operation IN ('DEPOSIT', 'WITHDRAW')
+       ) r
+ WHERE t.id = r.id;
+
+-- Balance at a point in time: latest entry of the wallet at or before the timestamp
+CREATE INDEX IF NOT EXISTS idx_tx_log_wallet_balance_after
+    ON wallet.transaction_log ((CASE WHEN operation = 'DEPOSIT' THEN target_wallet_id ELSE source_wallet_id END),
+                               created_at DESC, id DESC)
+    INCLUDE (balance_after)
+    WHERE balance_after IS NOT NULL;
+
+-- Consistency check: the latest running balance of each wallet must match its current balance
+DO $$
+DECLARE
+    mismatches BIGINT;
+BEGIN
+    SELECT COUNT(*) INTO mismatches
+      FROM wallet.wallet w
+      LEFT JOIN LATERAL (
+            SELECT t.balance_after
+              FROM wallet.transaction_log t
+             WHERE (CASE WHEN t.operation = 'DEPOSIT' THEN t.target_wallet_id ELSE t.source_wallet_id END) = w.id
+               AND t.balance_after IS NOT NULL
+             ORDER BY t.created_at DESC, t.id DESC
+             LIMIT 1
+           ) latest ON TRUE
+     WHERE COALESCE(latest.balance_after, 0) <> w.balance;
+
+    IF mismatches > 0 THEN
+        RAISE WARNING 'balance_after backfill: % wallets whose latest running balance differs from wallet.balance', mismatches;
+    END IF;
+END $$;
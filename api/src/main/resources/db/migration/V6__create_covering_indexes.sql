@@ -0,0 +1,13 @@
+-- Covering versions of the V4 indexes: the balance aggregation reads amount and
+-- current_status straight from the index (index-only scan) instead of the heap.
+CREATE INDEX idx_tx_log_source_wallet_op_created_at_cov
+    ON transaction_log (source_wallet_id, operation, created_at)
+    INCLUDE (amount, current_status);
+
+CREATE INDEX idx_tx_log_target_wallet_op_created_at_cov
+    ON transaction_log (target_wallet_id, operation, created_at)
+    INCLUDE (amount, current_status);
+
+-- Same key columns as the covering indexes above, no longer needed
+DROP INDEX IF EXISTS idx_tx_log_source_wallet_op_created_at;
+DROP INDEX IF EXISTS idx_tx_log_target_wallet_op_created_at;
@@ -0,0 +1,97 @@
+-- Turns wallet.transaction_log into a table range-partitioned by created_at month.
+-- Every balance query filters on created_at, so partitions after the requested
+-- timestamp are pruned, and old months can be detached (and archived) one
+-- partition at a time instead of vacuuming a single ever-growing heap.
+
+-- Keep the existing rows aside; the secondary indexes are recreated on the new table
+ALTER TABLE wallet.transaction_log RENAME TO transaction_log_legacy;
+ALTER TABLE wallet.transaction_log_legacy RENAME CONSTRAINT transaction_log_pkey TO transaction_log_legacy_pkey;
+ALTER SEQUENCE wallet.transaction_log_id_seq OWNED BY NONE;
+
+DROP INDEX IF EXISTS wallet.idx_tx_log_wallet_balance_after;
+DROP INDEX IF EXISTS wallet.idx_tx_log_source_wallet_op_created_at_cov;
+DROP INDEX IF EXISTS wallet.idx_tx_log_target_wallet_op_created_at_cov;
+
+-- The partition key must be part of the primary key. IDs still come from the
+-- same sequence, so they stay unique across partitions.
+CREATE TABLE wallet.transaction_log (
+    id               BIGINT                      NOT NULL DEFAULT nextval('wallet.transaction_log_id_seq'),
+    correlation_id   UUID                        NOT NULL,
+    source_wallet_id BIGINT,
+    target_wallet_id BIGINT,
+    operation        VARCHAR(20)                 NOT NULL,
+    amount           NUMERIC(19,2)               NOT NULL,
+    balance_after    NUMERIC(19,2),
+    current_status   VARCHAR(20)                 NOT NULL,
+    error_message    VARCHAR(255),
+    created_at       TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    PRIMARY KEY (id, created_at),
+    FOREIGN KEY (source_wallet_id) REFERENCES wallet.wallet(id),
+    FOREIGN KEY (target_wallet_id) REFERENCES wallet.wallet(id)
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE wallet.transaction_log_id_seq OWNED BY wallet.transaction_log.id;
+
+-- Creates the monthly partitions (transaction_log_pYYYY_MM) between two months,
+-- both inclusive, skipping the ones that already exist. Called by the api on
+-- startup and on a schedule to keep a few months ahead of the current one.
+CREATE OR REPLACE FUNCTION wallet.create_transaction_log_partitions(from_month DATE, to_month DATE)
+RETURNS INTEGER
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    month_start    DATE := date_trunc('month', from_month)::DATE;
+    partition_name TEXT;
+    created        INTEGER := 0;
+BEGIN
+    -- Serializes concurrent callers (several api instances starting together)
+    PERFORM pg_advisory_xact_lock(hashtext('wallet.transaction_log.partitions'));
+
+    WHILE month_start <= date_trunc('month', to_month)::DATE LOOP
+        partition_name := format('transaction_log_p%s', to_char(month_start, 'YYYY_MM'));
+
+        IF to_regclass(format('wallet.%I', partition_name)) IS NULL THEN
+            EXECUTE format('CREATE TABLE wallet.%I PARTITION OF wallet.transaction_log FOR VALUES FROM (%L) TO (%L)',
+                           partition_name, month_start, (month_start + INTERVAL '1 month')::DATE);
+            created := created + 1;
+        END IF;
+
+        month_start := (month_start + INTERVAL '1 month')::DATE;
+    END LOOP;
+
+    RETURN created;
+END $$;
+
+-- Partitions for the existing history and the next three months
+SELECT wallet.create_transaction_log_partitions(
+           COALESCE((SELECT MIN(created_at) FROM wallet.transaction_log_legacy), LOCALTIMESTAMP)::DATE,
+           (LOCALTIMESTAMP + INTERVAL '3 months')::DATE);
+
+INSERT INTO wallet.transaction_log (id, correlation_id, source_wallet_id, target_wallet_id, operation, amount,
+                                    balance_after, current_status, error_message, created_at)
+SELECT id, correlation_id, source_wallet_id, target_wallet_id, operation, amount,
+       balance_after, current_status, error_message, created_at
+  FROM wallet.transaction_log_legacy;
+
+DROP TABLE wallet.transaction_log_legacy;
+
+-- Indexes declared on the parent are created on every current and future partition
+CREATE INDEX idx_tx_log_wallet_balance_after
+    ON wallet.transaction_log ((CASE WHEN operation = 'DEPOSIT' THEN target_wallet_id ELSE source_wallet_id END),
+                               created_at DESC, id DESC)
+    INCLUDE (balance_after)
+    WHERE balance_after IS NOT NULL;
+
+CREATE INDEX idx_tx_log_source_wallet_op_created_at_cov
+    ON wallet.transaction_log (source_wallet_id, operation, created_at)
+    INCLUDE (amount, current_status);
+
+CREATE INDEX idx_tx_log_target_wallet_op_created_at_cov
+    ON wallet.transaction_log (target_wallet_id, operation, created_at)
+    INCLUDE (amount, current_status);
+
+-- Settlement looks entries up by correlation ID without knowing their month;
+-- keep that lookup an index probe per partition instead of a scan
+CREATE INDEX idx_tx_log_processing_correlation_id
+    ON wallet.transaction_log (correlation_id)
+    WHERE current_status = 'PROCESSING';
@@ -0,0 +1,5 @@
+-- TransactionLog IDs are allocated in blocks of 50 (pooled-lo optimizer): one
+-- nextval returns the low end of a block the application then fills in memory.
+-- Any writer still using the column default keeps calling nextval, which now
+-- jumps past the whole block, so both kinds of writers never collide.
+ALTER SEQUENCE wallet.transaction_log_id_seq INCREMENT BY 50;
@@ -0,0 +1,19 @@
+-- Transactional outbox: the messages to publish to SQS are written in the same
+-- transaction as the PROCESSING transaction log entries they announce, and a
+-- relay publishes them afterwards. Published rows are deleted, so the table only
+-- holds the backlog and the relay's SKIP LOCKED scans stay short.
+CREATE SEQUENCE wallet.outbox_message_id_seq INCREMENT BY 50;
+
+CREATE TABLE wallet.outbox_message (
+    id              BIGINT                      PRIMARY KEY DEFAULT nextval('wallet.outbox_message_id_seq'),
+    operation       VARCHAR(20)                 NOT NULL,
+    correlation_id  UUID                        NOT NULL,
+    attempts        INTEGER                     NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    created_at      TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+ALTER SEQUENCE wallet.outbox_message_id_seq OWNED BY wallet.outbox_message.id;
+
+-- The relay reads the oldest messages due for an attempt
+CREATE INDEX idx_outbox_message_next_attempt_at ON wallet.outbox_message (next_attempt_at, id);
@@ -0,0 +1,28 @@
+package com.service.wallet.api;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.service.wallet.common.test.SynchronizedScanner;
+
+/**
+ * Requests and queue workers run on virtual threads. On Java 21 a virtual
+ * thread that blocks while holding a monitor pins its carrier thread, so our
+ * own code must guard shared state with {@link java.util.concurrent.locks.Lock}
+ * instead of {@code synchronized} methods or blocks.
+ * <p>
+ * Pinning inside third-party code can be spotted at runtime with
+ * {@code -Djdk.tracePinnedThreads=short} or the {@code jdk.VirtualThreadPinned}
+ * JFR event.
+ * </p>
+ */
+class VirtualThreadPinningTest {
+
+    @Test
+    void compiledClasses_shouldNotUseSynchronized() {
+        var violations = SynchronizedScanner.scanModuleOf(WalletServiceApplication.class);
+
+        assertTrue(violations.isEmpty(), "synchronized pins virtual threads, use a Lock instead: " + violations);
+    }
+}
@@ -0,0 +1,107 @@
+package com.service.wallet.api.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(1).toNanos();
+
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 2, 8,
+            Duration.ofMillis(100), 0.5);
+
+    @Test
+    void tryAcquire_shouldRejectRequests_whenTheLimitIsInFlight() {
+        // Given
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+
+        // When & Then
+        assertFalse(limiter.tryAcquire());
+        assertEquals(4, limiter.getInFlight());
+    }
+
+    @Test
+    void release_shouldDecreaseTheLimitMultiplicatively_whenTheRequestIsSlow() {
+        // Given
+        limiter.tryAcquire();
+
+        // When
+        limiter.release(SLOW, false);
+
+        // Then
+        assertEquals(2, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void release_shouldDecreaseTheLimit_whenADependencyIsOverloaded() {
+        // Given
+        limiter.tryAcquire();
+
+        // When
+        limiter.release(FAST, true);
+
+        // Then
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void release_shouldNeverDecreaseBelowTheMinimum() {
+        // When
+        for (int i = 0; i < 10; i++) {
+            limiter.decrease();
+        }
+
+        // Then
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void release_shouldIncreaseTheLimitAdditively_whenSaturatedRequestsAreFast() {
+        // When
+        for (int round = 0; round < 4; round++) {
+            int admitted = 0;
+            while (limiter.tryAcquire()) {
+                admitted++;
+            }
+
+            for (int i = 0; i < admitted; i++) {
+                limiter.release(FAST, false);
+            }
+        }
+
+        // Then
+        assertTrue(limiter.getLimit() > 4);
+    }
+
+    @Test
+    void release_shouldKeepTheLimit_whenFewRequestsAreInFlight() {
+        // Given
+        limiter.tryAcquire();
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            limiter.release(FAST, false);
+            limiter.tryAcquire();
+        }
+
+        // Then
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void constructor_shouldThrowIllegalArgumentException_whenTheLimitsAreInconsistent() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveConcurrencyLimiter(10, 2, 8, Duration.ofMillis(100), 0.5));
+    }
+}
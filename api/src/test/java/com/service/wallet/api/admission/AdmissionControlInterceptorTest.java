@@ -0,0 +1,85 @@
+package com.service.wallet.api.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import com.service.wallet.api.enums.OperationType;
+import com.service.wallet.api.exception.AdmissionRejectedException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AdmissionControlInterceptorTest {
+
+    private final AdaptiveConcurrencyLimiter depositLimiter = new AdaptiveConcurrencyLimiter(1, 1, 4,
+            Duration.ofSeconds(1), 0.5);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AdmissionControlInterceptor interceptor = new AdmissionControlInterceptor(
+            Map.of(OperationType.DEPOSIT, depositLimiter), Duration.ofSeconds(2), meterRegistry);
+
+    @Test
+    void preHandle_shouldRejectWithRetryAfter_whenTheOperationIsOverItsLimit() throws Exception {
+        // Given
+        var handler = handler("deposit");
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), handler));
+
+        // When
+        var exception = assertThrows(AdmissionRejectedException.class,
+                () -> interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), handler));
+
+        // Then
+        assertEquals(Duration.ofSeconds(2), exception.getRetryAfter());
+        assertEquals(1.0, meterRegistry.get("wallet.admission.rejected").tag("operation", "deposit").counter()
+                .count());
+    }
+
+    @Test
+    void preHandle_shouldNeverLimit_whenTheEndpointIsNotAdmissionControlled() throws Exception {
+        // Given
+        depositLimiter.tryAcquire();
+        var handler = handler("balance");
+
+        // When & Then
+        for (int i = 0; i < 10; i++) {
+            assertTrue(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), handler));
+        }
+    }
+
+    @Test
+    void afterCompletion_shouldReleaseTheSlot_whenTheRequestCompletes() throws Exception {
+        // Given
+        var handler = handler("deposit");
+        var request = new MockHttpServletRequest();
+        var response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, handler);
+
+        // When
+        interceptor.afterCompletion(request, response, handler, null);
+
+        // Then
+        assertEquals(0, depositLimiter.getInFlight());
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), handler));
+    }
+
+    private static HandlerMethod handler(String name) throws NoSuchMethodException {
+        return new HandlerMethod(new Endpoints(), Endpoints.class.getMethod(name));
+    }
+
+    static class Endpoints {
+
+        @AdmissionControlled(OperationType.DEPOSIT)
+        public void deposit() {
+        }
+
+        public void balance() {
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.service.wallet.api.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+class BigDecimalRedisSerializerTest {
+
+    private final BigDecimalRedisSerializer serializer = new BigDecimalRedisSerializer();
+
+    @ParameterizedTest
+    @ValueSource(strings = { "0", "0.00", "1234.56", "-42.10", "98765432109876543210.123456789", "1E+300",
+            "1E-300" })
+    void deserialize_shouldRestoreValueAndScale_whenSerializedBySameSerializer(String value) {
+        // Given
+        var balance = new BigDecimal(value);
+
+        // When
+        var restored = serializer.deserialize(serializer.serialize(balance));
+
+        // Then
+        assertEquals(balance, restored);
+        assertEquals(balance.scale(), restored.scale());
+    }
+
+    @Test
+    void serialize_shouldBeSmallerThanJson_whenValueIsATypicalBalance() {
+        // Given
+        var balance = new BigDecimal("1234.56");
+
+        // When
+        var bytes = serializer.serialize(balance);
+
+        // Then
+        assertEquals(5, bytes.length);
+        assertTrue(bytes.length < new GenericJackson2JsonRedisSerializer().serialize(balance).length);
+    }
+
+    @Test
+    void deserialize_shouldReturnNull_whenValueWasWrittenAsJson() {
+        // Given
+        var json = new GenericJackson2JsonRedisSerializer().serialize(new BigDecimal("10.00"));
+
+        // When & Then
+        assertNull(serializer.deserialize(json));
+    }
+}
@@ -0,0 +1,57 @@
+package com.service.wallet.api.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class TwoLevelCacheMeterBinderProviderTest {
+
+    @Mock
+    CacheManager sharedCacheManager;
+
+    @Mock
+    CacheInvalidationBus invalidationBus;
+
+    @Test
+    void getMeterBinder_shouldExposeNearCacheHitsAndMisses() {
+        // Given
+        var sharedCache = new ConcurrentMapCache("balances");
+        sharedCache.put(1L, new BigDecimal("10.00"));
+        when(sharedCacheManager.getCache("balances")).thenReturn(sharedCache);
+
+        var cacheManager = new TwoLevelCacheManager(sharedCacheManager, invalidationBus, Set.of("balances"), 100,
+                Duration.ofMinutes(1));
+        var cache = (TwoLevelCache) cacheManager.getCache("balances");
+        var registry = new SimpleMeterRegistry();
+        new TwoLevelCacheMeterBinderProvider()
+                .getMeterBinder(cache, List.of(Tag.of("cacheManager", "cacheManager")))
+                .bindTo(registry);
+
+        // When
+        cache.get(1L);
+        cache.get(1L);
+        cache.get(1L);
+        cache.get(2L);
+
+        // Then
+        assertEquals(2, registry.get("cache.gets").tags("cache", "balances.near", "result", "hit")
+                .functionCounter().count());
+        assertEquals(2, registry.get("cache.gets").tags("cache", "balances.near", "result", "miss")
+                .functionCounter().count());
+    }
+}
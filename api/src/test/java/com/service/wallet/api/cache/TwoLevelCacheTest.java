@@ -0,0 +1,124 @@
+package com.service.wallet.api.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+@ExtendWith(MockitoExtension.class)
+class TwoLevelCacheTest {
+
+    @Spy
+    ConcurrentMapCache sharedCache = new ConcurrentMapCache("balances");
+
+    @Mock
+    CacheManager sharedCacheManager;
+
+    @Mock
+    CacheInvalidationBus invalidationBus;
+
+    TwoLevelCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        when(sharedCacheManager.getCache("balances")).thenReturn(sharedCache);
+        cacheManager = new TwoLevelCacheManager(sharedCacheManager, invalidationBus, Set.of("balances"), 100,
+                Duration.ofMinutes(1));
+    }
+
+    @Test
+    void get_shouldServeFromLocalCache_afterFirstSharedCacheHit() {
+        // Given
+        sharedCache.put(1L, new BigDecimal("10.00"));
+        var cache = cacheManager.getCache("balances");
+
+        // When
+        cache.get(1L);
+        var value = cache.get(1L, BigDecimal.class);
+
+        // Then
+        assertEquals(new BigDecimal("10.00"), value);
+        verify(sharedCache, times(1)).get(1L);
+    }
+
+    @Test
+    void evict_shouldDropBothLevelsAndBroadcast() {
+        // Given
+        var cache = cacheManager.getCache("balances");
+        cache.put(1L, new BigDecimal("10.00"));
+
+        // When
+        cache.evict(1L);
+
+        // Then
+        assertNull(cache.get(1L));
+        verify(invalidationBus, times(2)).publish("balances", "1");
+    }
+
+    @Test
+    void getWithLoader_shouldKeepTheNewerValue_whenItWasWrittenWhileLoading() {
+        // Given
+        var cache = cacheManager.getCache("balances");
+
+        // When
+        var value = cache.get(1L, () -> {
+            // A settlement writes the shared cache while this read is still loading
+            sharedCache.put(1L, new BigDecimal("20.00"));
+            return new BigDecimal("10.00");
+        });
+
+        // Then
+        assertEquals(new BigDecimal("20.00"), value);
+        assertEquals(new BigDecimal("20.00"), sharedCache.get(1L, BigDecimal.class));
+        assertEquals(new BigDecimal("20.00"), cache.get(1L, BigDecimal.class));
+        verify(invalidationBus, never()).publish("balances", "1");
+    }
+
+    @Test
+    void getWithLoader_shouldFillBothLevels_whenTheEntryIsAbsent() {
+        // Given
+        var cache = cacheManager.getCache("balances");
+
+        // When
+        var value = cache.get(1L, () -> new BigDecimal("10.00"));
+
+        // Then
+        assertEquals(new BigDecimal("10.00"), value);
+        assertEquals(new BigDecimal("10.00"), sharedCache.get(1L, BigDecimal.class));
+        verify(invalidationBus, never()).publish("balances", "1");
+    }
+
+    @Test
+    void invalidation_shouldDropLocalCopy_whenAnotherInstanceChangesTheEntry() {
+        // Given
+        ArgumentCaptor<Consumer<CacheInvalidation>> captor = ArgumentCaptor.captor();
+        verify(invalidationBus).subscribe(captor.capture());
+
+        var cache = cacheManager.getCache("balances");
+        cache.put(1L, new BigDecimal("10.00"));
+        sharedCache.put(1L, new BigDecimal("20.00"));
+
+        // When
+        captor.getValue().accept(new CacheInvalidation("other-instance", "balances", "1"));
+
+        // Then
+        assertEquals(new BigDecimal("20.00"), cache.get(1L, BigDecimal.class));
+    }
+}
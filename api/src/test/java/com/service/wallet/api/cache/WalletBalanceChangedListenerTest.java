@@ -0,0 +1,70 @@
+package com.service.wallet.api.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+@ExtendWith(MockitoExtension.class)
+class WalletBalanceChangedListenerTest {
+
+    @Mock
+    CacheManager cacheManager;
+
+    @Mock
+    Cache sharedCache;
+
+    @Mock
+    CacheInvalidationBus invalidationBus;
+
+    @Test
+    void onMessage_shouldOnlyDropTheNearCachedBalances_whenBalancesChanged() {
+        // Given
+        var localCache = Caffeine.newBuilder().<String, Object>build();
+        localCache.put("1", new BigDecimal("100.00"));
+        localCache.put("2", new BigDecimal("50.00"));
+        localCache.put("3", new BigDecimal("10.00"));
+        var listener = new WalletBalanceChangedListener(cacheManager, new ObjectMapper());
+        when(cacheManager.getCache("balances")).thenReturn(new TwoLevelCache(sharedCache, localCache, invalidationBus));
+
+        // When
+        listener.onMessage(message("{\"balances\":{\"1\":70.00,\"2\":30.00}}"), null);
+
+        // Then
+        assertNull(localCache.getIfPresent("1"));
+        assertNull(localCache.getIfPresent("2"));
+        assertEquals(new BigDecimal("10.00"), localCache.getIfPresent("3"));
+        verifyNoInteractions(sharedCache, invalidationBus);
+    }
+
+    @Test
+    void onMessage_shouldIgnoreMessage_whenPayloadIsMalformed() {
+        // Given
+        var listener = new WalletBalanceChangedListener(cacheManager, new ObjectMapper());
+
+        // When
+        listener.onMessage(message("not-json"), null);
+
+        // Then
+        verifyNoInteractions(cacheManager);
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage("wallet:balance-changed".getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,109 @@
+package com.service.wallet.api.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.service.wallet.api.repository.WalletRepository;
+import com.service.wallet.api.repository.projection.WalletOwner;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class WalletOwnershipIndexTest {
+
+    @Mock
+    WalletRepository walletRepository;
+
+    WalletOwnershipIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new WalletOwnershipIndex(walletRepository, new SimpleMeterRegistry(), 100);
+        ReflectionTestUtils.setField(index, "warmUpEnabled", true);
+        ReflectionTestUtils.setField(index, "warmUpPageSize", 2);
+    }
+
+    @Test
+    void findCustomerId_shouldReadTheOwnerOnceAndIndexBothDirections() {
+        // Given
+        when(walletRepository.findOwnerById(10L)).thenReturn(Optional.of(new WalletOwner(10L, 1L, BigDecimal.TEN)));
+
+        // When
+        var first = index.findCustomerId(10L);
+        var second = index.findCustomerId(10L);
+        var walletId = index.findWalletId(1L);
+
+        // Then
+        assertEquals(OptionalLong.of(1L), first);
+        assertEquals(OptionalLong.of(1L), second);
+        assertEquals(OptionalLong.of(10L), walletId);
+        verify(walletRepository, times(1)).findOwnerById(10L);
+        verify(walletRepository, never()).findOwnerByCustomerId(anyLong());
+    }
+
+    @Test
+    void findWalletId_shouldNotRememberMissingWallets() {
+        // Given
+        when(walletRepository.findOwnerByCustomerId(1L))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(new WalletOwner(10L, 1L, BigDecimal.ZERO)));
+
+        // When
+        var missing = index.findWalletId(1L);
+        var created = index.findWalletId(1L);
+
+        // Then
+        assertTrue(missing.isEmpty());
+        assertEquals(OptionalLong.of(10L), created);
+    }
+
+    @Test
+    void register_shouldIndexTheWalletRightAway_whenOutsideATransaction() {
+        // When
+        index.register(10L, 1L);
+
+        // Then
+        assertEquals(OptionalLong.of(1L), index.findCustomerId(10L));
+        assertEquals(OptionalLong.of(10L), index.findWalletId(1L));
+        verify(walletRepository, never()).findOwnerById(anyLong());
+        verify(walletRepository, never()).findOwnerByCustomerId(anyLong());
+    }
+
+    @Test
+    void warmUp_shouldLoadTheOwnersOnePageAtATime() {
+        // Given
+        when(walletRepository.findMinId()).thenReturn(Optional.of(1L));
+        when(walletRepository.findMaxId()).thenReturn(Optional.of(3L));
+        when(walletRepository.findOwnersBetween(1L, 2L)).thenReturn(List.of(
+                new WalletOwner(1L, 100L, BigDecimal.ZERO),
+                new WalletOwner(2L, 200L, BigDecimal.ZERO)));
+        when(walletRepository.findOwnersBetween(3L, 4L)).thenReturn(List.of(
+                new WalletOwner(3L, 300L, BigDecimal.ZERO)));
+
+        // When
+        index.warmUp();
+
+        // Then
+        assertEquals(OptionalLong.of(200L), index.findCustomerId(2L));
+        assertEquals(OptionalLong.of(3L), index.findWalletId(300L));
+        verify(walletRepository, never()).findOwnerById(anyLong());
+        verify(walletRepository, never()).findOwnerByCustomerId(anyLong());
+    }
+}
@@ -0,0 +1,124 @@
+package com.service.wallet.api.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.service.wallet.api.dto.api.response.TransactionResponse;
+import com.service.wallet.api.enums.OperationType;
+import com.service.wallet.api.enums.TransactionStatus;
+import com.service.wallet.api.exception.WalletNotFoundException;
+import com.service.wallet.api.mapper.WalletMapper;
+import com.service.wallet.api.mapper.WithdrawMapper;
+import com.service.wallet.api.service.CreateWalletService;
+import com.service.wallet.api.service.DepositService;
+import com.service.wallet.api.service.HistoricalBalanceService;
+import com.service.wallet.api.service.IdempotencyService;
+import com.service.wallet.api.service.TransactionHistoryService;
+import com.service.wallet.api.service.TransferService;
+import com.service.wallet.api.service.WalletBalanceService;
+import com.service.wallet.api.service.WithdrawService;
+
+@WebMvcTest(controllers = WalletController.class, properties = "wallet.admission.enabled=false")
+class WalletControllerExportTest {
+
+    private static final long ONE_HOUR_MILLIS = 3_600_000L;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockitoBean
+    TransactionHistoryService transactionHistoryService;
+
+    @MockitoBean
+    CreateWalletService createWalletService;
+
+    @MockitoBean
+    WalletBalanceService walletBalanceService;
+
+    @MockitoBean
+    HistoricalBalanceService historicalBalanceService;
+
+    @MockitoBean
+    DepositService depositService;
+
+    @MockitoBean
+    WithdrawService withdrawService;
+
+    @MockitoBean
+    TransferService transferService;
+
+    @MockitoBean
+    IdempotencyService idempotencyService;
+
+    @MockitoBean
+    WalletMapper walletMapper;
+
+    @MockitoBean
+    WithdrawMapper withdrawMapper;
+
+    @Test
+    void exportTransactions_shouldStreamTheWholeHistoryWithTheConfiguredAsyncTimeout() throws Exception {
+        // Given
+        var deposit = transaction(1L, OperationType.DEPOSIT, null, 1L, "100.00");
+        var withdraw = transaction(2L, OperationType.WITHDRAW, 1L, null, "30.00");
+        doAnswer(invocation -> {
+            Consumer<TransactionResponse> sink = invocation.getArgument(1);
+            sink.accept(deposit);
+            sink.accept(withdraw);
+            return null;
+        }).when(transactionHistoryService).export(eq(1L), any());
+
+        // When
+        var started = mockMvc.perform(get("/api/v1/wallets/1/transactions/export").param("format", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        assertEquals(ONE_HOUR_MILLIS, started.getRequest().getAsyncContext().getTimeout());
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv"))
+                .andExpect(content().string(String.join("\n",
+                        WalletController.TRANSACTIONS_CSV_HEADER,
+                        "1," + deposit.correlationId() + ",DEPOSIT,,1,100.00,100.00,SUCCESS,2025-01-15T10:30",
+                        "2," + withdraw.correlationId() + ",WITHDRAW,1,,30.00,100.00,SUCCESS,2025-01-15T10:30",
+                        "")));
+    }
+
+    @Test
+    void exportTransactions_shouldReturnNotFoundBeforeStreaming_whenTheWalletDoesNotExist() throws Exception {
+        // Given
+        doThrow(new WalletNotFoundException(1L)).when(transactionHistoryService).requireWallet(1L);
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/wallets/1/transactions/export"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isNotFound());
+    }
+
+    private static TransactionResponse transaction(long id, OperationType operation, Long sourceWalletId,
+            Long targetWalletId, String amount) {
+        return new TransactionResponse(id, UUID.randomUUID(), operation, sourceWalletId, targetWalletId,
+                new BigDecimal(amount), new BigDecimal("100.00"), TransactionStatus.SUCCESS,
+                LocalDateTime.of(2025, 1, 15, 10, 30));
+    }
+}
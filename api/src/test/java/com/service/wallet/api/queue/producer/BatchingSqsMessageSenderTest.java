@@ -0,0 +1,170 @@
+package com.service.wallet.api.queue.producer;
+
+import com.service.wallet.api.exception.QueueException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BatchingSqsMessageSenderTest {
+
+    private static final String QUEUE_URL = "http://localhost:4566/000000000000/deposit_queue";
+
+    @Mock
+    SqsAsyncClient sqsAsyncClient;
+
+    BatchingSqsMessageSender sender;
+
+    @AfterEach
+    void tearDown() {
+        if (sender != null) {
+            sender.destroy();
+        }
+    }
+
+    @Test
+    void send_shouldCoalesceMessagesIntoSingleBatch_whenBatchSizeIsReached() throws Exception {
+        // Given
+        sender = new BatchingSqsMessageSender(sqsAsyncClient, 10, 60_000, 3, 1);
+        when(sqsAsyncClient.sendMessageBatch(any(SendMessageBatchRequest.class)))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(succeedAll(invocation.getArgument(0))));
+
+        // When
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(sender.send(QUEUE_URL, "message-" + i));
+        }
+
+        // Then
+        for (int i = 0; i < 10; i++) {
+            assertEquals("id-" + i, futures.get(i).get(1, TimeUnit.SECONDS));
+        }
+
+        ArgumentCaptor<SendMessageBatchRequest> captor = ArgumentCaptor.forClass(SendMessageBatchRequest.class);
+        verify(sqsAsyncClient, times(1)).sendMessageBatch(captor.capture());
+        assertEquals(QUEUE_URL, captor.getValue().queueUrl());
+        assertEquals(10, captor.getValue().entries().size());
+    }
+
+    @Test
+    void send_shouldFlushPartialBatch_whenFlushIntervalElapses() throws Exception {
+        // Given
+        sender = new BatchingSqsMessageSender(sqsAsyncClient, 10, 10, 3, 1);
+        when(sqsAsyncClient.sendMessageBatch(any(SendMessageBatchRequest.class)))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(succeedAll(invocation.getArgument(0))));
+
+        // When
+        var first = sender.send(QUEUE_URL, "first");
+        var second = sender.send(QUEUE_URL, "second");
+
+        // Then
+        assertEquals("id-0", first.get(1, TimeUnit.SECONDS));
+        assertEquals("id-1", second.get(1, TimeUnit.SECONDS));
+        verify(sqsAsyncClient, times(1)).sendMessageBatch(any(SendMessageBatchRequest.class));
+    }
+
+    @Test
+    void send_shouldRetryOnlyFailedEntries_whenBatchIsPartiallyRejected() throws Exception {
+        // Given
+        sender = new BatchingSqsMessageSender(sqsAsyncClient, 2, 10, 3, 1);
+        var partialFailure = SendMessageBatchResponse.builder()
+                .successful(SendMessageBatchResultEntry.builder().id("0").messageId("ok").build())
+                .failed(BatchResultErrorEntry.builder().id("1").code("ServiceUnavailable").senderFault(false).build())
+                .build();
+        var retrySuccess = SendMessageBatchResponse.builder()
+                .successful(SendMessageBatchResultEntry.builder().id("0").messageId("retried").build())
+                .build();
+        when(sqsAsyncClient.sendMessageBatch(any(SendMessageBatchRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(partialFailure))
+                .thenReturn(CompletableFuture.completedFuture(retrySuccess));
+
+        // When
+        var delivered = sender.send(QUEUE_URL, "delivered");
+        var retried = sender.send(QUEUE_URL, "retried");
+
+        // Then
+        assertEquals("ok", delivered.get(1, TimeUnit.SECONDS));
+        assertEquals("retried", retried.get(1, TimeUnit.SECONDS));
+
+        ArgumentCaptor<SendMessageBatchRequest> captor = ArgumentCaptor.forClass(SendMessageBatchRequest.class);
+        verify(sqsAsyncClient, times(2)).sendMessageBatch(captor.capture());
+        List<SendMessageBatchRequestEntry> retryEntries = captor.getAllValues().get(1).entries();
+        assertEquals(1, retryEntries.size());
+        assertEquals("retried", retryEntries.get(0).messageBody());
+    }
+
+    @Test
+    void send_shouldFailFuture_whenEntryIsRejectedBySenderFault() {
+        // Given
+        sender = new BatchingSqsMessageSender(sqsAsyncClient, 1, 60_000, 3, 1);
+        var rejected = SendMessageBatchResponse.builder()
+                .failed(BatchResultErrorEntry.builder().id("0").code("InvalidMessageContents").senderFault(true).build())
+                .build();
+        when(sqsAsyncClient.sendMessageBatch(any(SendMessageBatchRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(rejected));
+
+        // When
+        var future = sender.send(QUEUE_URL, "invalid");
+
+        // Then
+        var exception = assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(QueueException.class, exception.getCause());
+        verify(sqsAsyncClient, times(1)).sendMessageBatch(any(SendMessageBatchRequest.class));
+    }
+
+    @Test
+    void send_shouldFailFuture_whenAttemptsAreExhausted() {
+        // Given
+        sender = new BatchingSqsMessageSender(sqsAsyncClient, 1, 60_000, 2, 1);
+        when(sqsAsyncClient.sendMessageBatch(any(SendMessageBatchRequest.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("connection reset")));
+
+        // When
+        var future = sender.send(QUEUE_URL, "message");
+
+        // Then
+        var exception = assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(QueueException.class, exception.getCause());
+        verify(sqsAsyncClient, times(2)).sendMessageBatch(any(SendMessageBatchRequest.class));
+    }
+
+    @Test
+    void constructor_shouldThrowIllegalArgumentException_whenBatchSizeExceedsSqsLimit() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BatchingSqsMessageSender(sqsAsyncClient, 11, 20, 3, 1));
+    }
+
+    private static SendMessageBatchResponse succeedAll(SendMessageBatchRequest request) {
+        return SendMessageBatchResponse.builder()
+                .successful(request.entries().stream()
+                        .map(entry -> SendMessageBatchResultEntry.builder()
+                                .id(entry.id())
+                                .messageId("id-" + entry.id())
+                                .build())
+                        .toList())
+                .build();
+    }
+}
@@ -0,0 +1,112 @@
+package com.service.wallet.api.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.service.wallet.api.domain.Customer;
+import com.service.wallet.api.domain.Wallet;
+import com.service.wallet.api.repository.projection.TransactionHistoryEntry;
+import com.service.wallet.api.type.TransactionCursor;
+
+/**
+ * Runs the history queries on an in-memory H2 database with the schema
+ * generated from the entities.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true"
+})
+@Import(TransactionHistoryRepository.class)
+class TransactionHistoryRepositoryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TransactionHistoryRepository repository;
+
+    long walletId;
+    long otherWalletId;
+    long nextId = 1;
+
+    @BeforeEach
+    void setUp() {
+        var customer = entityManager.persist(Customer.builder().email("owner@test.com").build());
+        var other = entityManager.persist(Customer.builder().email("other@test.com").build());
+        walletId = entityManager.persist(Wallet.of(customer, BigDecimal.ZERO)).getId();
+        otherWalletId = entityManager.persist(Wallet.of(other, BigDecimal.ZERO)).getId();
+        entityManager.flush();
+
+        // Sent and received entries interleaved in time, plus an entry of another wallet
+        insert(null, walletId, "DEPOSIT", START.plusMinutes(1));
+        insert(walletId, null, "WITHDRAW", START.plusMinutes(2));
+        insert(walletId, otherWalletId, "TRANSFER", START.plusMinutes(3));
+        insert(otherWalletId, walletId, "TRANSFER", START.plusMinutes(4));
+        insert(null, otherWalletId, "DEPOSIT", START.plusMinutes(5));
+        insert(null, walletId, "DEPOSIT", START.plusMinutes(5));
+    }
+
+    @Test
+    void findPage_shouldWalkTheHistoryNewestFirst_fromCursorToCursor() {
+        // When
+        var first = repository.findPage(walletId, null, 2);
+        var second = repository.findPage(walletId, cursorOf(first), 2);
+        var third = repository.findPage(walletId, cursorOf(second), 2);
+
+        // Then
+        assertEquals(List.of(6L, 4L), ids(first));
+        assertEquals(List.of(3L, 2L), ids(second));
+        assertEquals(List.of(1L), ids(third));
+    }
+
+    @Test
+    void streamAll_shouldReadTheWholeHistoryOldestFirst() {
+        // Given
+        List<TransactionHistoryEntry> entries = new ArrayList<>();
+
+        // When
+        repository.streamAll(walletId, 2, entries::add);
+
+        // Then
+        assertEquals(List.of(1L, 2L, 3L, 4L, 6L), ids(entries));
+        assertEquals(new BigDecimal("10.00"), entries.getFirst().amount());
+    }
+
+    private void insert(Long sourceWalletId, Long targetWalletId, String operation, LocalDateTime createdAt) {
+        jdbcTemplate.update("""
+                INSERT INTO wallet.transaction_log (id, correlation_id, source_wallet_id, target_wallet_id, operation,
+                                                    amount, current_status, created_at)
+                VALUES (?, ?, ?, ?, ?, 10.00, 'SUCCESS', ?)
+                """, nextId++, UUID.randomUUID(), sourceWalletId, targetWalletId, operation,
+                Timestamp.valueOf(createdAt));
+    }
+
+    private static TransactionCursor cursorOf(List<TransactionHistoryEntry> page) {
+        var last = page.getLast();
+        return new TransactionCursor(last.createdAt(), last.id());
+    }
+
+    private static List<Long> ids(List<TransactionHistoryEntry> entries) {
+        return entries.stream().map(TransactionHistoryEntry::id).toList();
+    }
+}
@@ -1,5 +1,6 @@
 package com.service.wallet.api.service;
 
+import com.service.wallet.api.cache.WalletOwnershipIndex;
 import com.service.wallet.api.domain.Customer;
 import com.service.wallet.api.domain.Wallet;
 import com.service.wallet.api.exception.UserNotFoundException;
@@ -13,11 +14,13 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -35,6 +38,9 @@ class CreateWalletServiceTest {
     @Mock
     UserRepository userRepository;
 
+    @Mock
+    WalletOwnershipIndex walletOwnershipIndex;
+
     @Test
     void execute_shouldThrowUserNotFoundException_whenUserDoesNotExist() {
         // Given
@@ -80,7 +86,11 @@ class CreateWalletServiceTest {
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(walletRepository.findByCustomerId(userId)).thenReturn(Optional.empty());
 
-        Wallet savedWallet = Wallet.of(user, BigDecimal.ZERO);
+        Wallet savedWallet = Wallet.builder()
+                .id(10L)
+                .customer(user)
+                .balance(BigDecimal.ZERO)
+                .build();
         when(walletRepository.saveAndFlush(any(Wallet.class))).thenReturn(savedWallet);
 
         // When
@@ -93,6 +103,28 @@ class CreateWalletServiceTest {
 
         verify(userRepository).findById(userId);
         verify(walletRepository).findByCustomerId(userId);
-        verify(walletRepository).saveAndFlush(savedWallet);
+        verify(walletRepository).saveAndFlush(Wallet.of(user, BigDecimal.ZERO));
+        verify(walletOwnershipIndex).register(10L, userId);
+    }
+
+    @Test
+    void execute_shouldReturnIndexedWalletWithoutReadingTheUser_whenWalletIsIndexed() {
+        // Given
+        long userId = 1L;
+        long walletId = 10L;
+        Wallet existingWallet = Wallet.of(new Customer(userId, "anyemail@test.com"), BigDecimal.TEN);
+
+        when(walletOwnershipIndex.findWalletId(userId)).thenReturn(OptionalLong.of(walletId));
+        when(walletRepository.findById(walletId)).thenReturn(Optional.of(existingWallet));
+
+        // When
+        Wallet result = createWalletService.execute(userId);
+
+        // Then
+        assertEquals(existingWallet, result);
+
+        verifyNoInteractions(userRepository);
+        verify(walletRepository, never()).findByCustomerId(anyLong());
+        verify(walletRepository, never()).saveAndFlush(any());
     }
 }
@@ -1,19 +1,33 @@
 package com.service.wallet.api.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
-import com.service.wallet.api.enums.OperationType;
+import com.service.wallet.api.dto.api.request.BalanceSnapshotRequest;
+import com.service.wallet.api.dto.api.response.WalletBalanceResponse;
+import com.service.wallet.api.exception.BalanceSnapshotException;
+import com.service.wallet.api.repository.WalletRepository;
+import com.service.wallet.api.repository.projection.BalanceAggregate;
+import com.service.wallet.api.repository.projection.WalletBalance;
 
 @ExtendWith(MockitoExtension.class)
 class HistoricalBalanceServiceTest {
@@ -21,157 +35,184 @@ class HistoricalBalanceServiceTest {
     @Mock
     TransactionLogService transactionLogService;
 
+    @Mock
+    WalletRepository walletRepository;
+
     @InjectMocks
     HistoricalBalanceService historicalBalanceService;
 
     @Test
-    void getHistoricalBalance_shouldReturnZero_whenAllOperationsAreZero() {
+    void getHistoricalBalance_shouldReturnZero_whenWalletHasNoSettledEntries() {
         // Given
         long walletId = 1L;
         LocalDateTime date = LocalDateTime.now();
 
-        when(transactionLogService.sumAmountByOperationBefore(walletId, OperationType.DEPOSIT, date))
-                .thenReturn(BigDecimal.ZERO);
-        when(transactionLogService.sumAmountByOperationBefore(walletId, OperationType.WITHDRAW, date))
-                .thenReturn(BigDecimal.ZERO);
-        when(transactionLogService.sumAmountByOperationBefore(walletId, OperationType.TRANSFER, date))
-                .thenReturn(BigDecimal.ZERO);
-        when(transactionLogService.sumReceivedTransfersBefore(walletId, date))
-                .thenReturn(BigDecimal.ZERO);
+        when(transactionLogService.balanceAt(walletId, date)).thenReturn(BigDecimal.ZERO);
 
         // When & Then
         BigDecimal balance = historicalBalanceService.getHistoricalBalance(walletId, date);
         assertEquals(BigDecimal.ZERO, balance);
 
-        verify(transactionLogService).sumAmountByOperationBefore(walletId, OperationType.DEPOSIT, date);
-        verify(transactionLogService).sumAmountByOperationBefore(walletId, OperationType.WITHDRAW, date);
-        verify(transactionLogService).sumAmountByOperationBefore(walletId, OperationType.TRANSFER, date);
-        verify(transactionLogService).sumReceivedTransfersBefore(walletId, date);
+        verify(transactionLogService).balanceAt(walletId, date);
+        verifyNoMoreInteractions(transactionLogService);
     }
 
     @Test
-    void getHistoricalBalance_shouldReturnCorrectBalance_whenOperationsHaveValues() {
+    void getHistoricalBalance_shouldReturnRunningBalance_whenWalletHasSettledEntries() {
         // Given
         long walletId = 2L;
         LocalDateTime date = LocalDateTime.now();
 
-        when(transactionLogService.sumAmountByOperationBefore(walletId, OperationType.DEPOSIT, date))
-                .thenReturn(new BigDecimal("100.00"));
-        when(transactionLogService.sumAmountByOperationBefore(walletId, OperationType.WITHDRAW, date))
-                .thenReturn(new BigDecimal("30.00"));
-        when(transactionLogService.sumAmountByOperationBefore(walletId, OperationType.TRANSFER, date))
-                .thenReturn(new BigDecimal("20.00")); // Sent
-        when(transactionLogService.sumReceivedTransfersBefore(walletId, date))
-                .thenReturn(new BigDecimal("50.00")); // Received
+        when(transactionLogService.balanceAt(walletId, date)).thenReturn(new BigDecimal("100.00"));
 
         // When & Then
         BigDecimal balance = historicalBalanceService.getHistoricalBalance(walletId, date);
-        // Expected: 100 + 50 - 30 - 20 = 100
         assertEquals(new BigDecimal("100.00"), balance);
 
-        verify(transactionLogService).sumAmountByOperationBefore(walletId, OperationType.DEPOSIT, date);
-        verify(transactionLogService).sumAmountByOperationBefore(walletId, OperationType.WITHDRAW, date);
-        verify(transactionLogService).sumAmountByOperationBefore(walletId, OperationType.TRANSFER, date);
-        verify(transactionLogService).sumReceivedTransfersBefore(walletId, date);
+        verify(transactionLogService).balanceAt(walletId, date);
+        verifyNoMoreInteractions(transactionLogService);
     }
 
     @Test
-    void getHistoricalBalance_shouldReturnOnlyDeposits_whenOtherOperationsAreZero() {
+    void checkConsistency_shouldBeConsistent_whenRunningAndAggregatedBalancesMatch() {
         // Given
-        long walletId = 1L;
+        long walletId = 3L;
         LocalDateTime date = LocalDateTime.now();
 
-        when(transactionLogService.sumAmountByOperationBefore(walletId, OperationType.DEPOSIT, date))
-                .thenReturn(new BigDecimal("200.00"));
-        when(transactionLogService.sumAmountByOperationBefore(walletId, OperationType.WITHDRAW, date))
-                .thenReturn(BigDecimal.ZERO);
-        when(transactionLogService.sumAmountByOperationBefore(walletId, OperationType.TRANSFER, date))
-                .thenReturn(BigDecimal.ZERO);
-        when(transactionLogService.sumReceivedTransfersBefore(walletId, date))
-                .thenReturn(BigDecimal.ZERO);
+        when(transactionLogService.balanceAt(walletId, date)).thenReturn(new BigDecimal("70.00"));
+        when(transactionLogService.aggregateSettledBefore(walletId, date)).thenReturn(new Aggregate(
+                new BigDecimal("100.00"), new BigDecimal("30.0"), new BigDecimal("20.00"), BigDecimal.ZERO));
 
-        // When & Then
-        BigDecimal balance = historicalBalanceService.getHistoricalBalance(walletId, date);
-        assertEquals(new BigDecimal("200.00"), balance);
+        // When
+        var result = historicalBalanceService.checkConsistency(walletId, date);
 
-        verify(transactionLogService).sumAmountByOperationBefore(walletId, OperationType.DEPOSIT, date);
-        verify(transactionLogService).sumAmountByOperationBefore(walletId, OperationType.WITHDRAW, date);
-        verify(transactionLogService).sumAmountByOperationBefore(walletId, OperationType.TRANSFER, date);
-        verify(transactionLogService).sumReceivedTransfersBefore(walletId, date);
+        // Then
+        assertTrue(result.consistent());
+        assertEquals(walletId, result.walletId());
+        assertEquals(new BigDecimal("70.00"), result.runningBalance());
+        assertEquals(new BigDecimal("20.00"), result.transfersSent());
     }
 
     @Test
-    void getHistoricalBalance_shouldSubtractWithdrawalsOnly_whenOtherOperationsAreZero() {
+    void checkConsistency_shouldBeInconsistent_whenRunningAndAggregatedBalancesDiffer() {
         // Given
-        long walletId = 2L;
+        long walletId = 4L;
         LocalDateTime date = LocalDateTime.now();
 
-        when(transactionLogService.sumAmountByOperationBefore(walletId, OperationType.DEPOSIT, date))
-                .thenReturn(BigDecimal.ZERO);
-        when(transactionLogService.sumAmountByOperationBefore(walletId, OperationType.WITHDRAW, date))
-                .thenReturn(new BigDecimal("50.00"));
-        when(transactionLogService.sumAmountByOperationBefore(walletId, OperationType.TRANSFER, date))
-                .thenReturn(BigDecimal.ZERO);
-        when(transactionLogService.sumReceivedTransfersBefore(walletId, date))
-                .thenReturn(BigDecimal.ZERO);
+        when(transactionLogService.balanceAt(walletId, date)).thenReturn(new BigDecimal("70.00"));
+        when(transactionLogService.aggregateSettledBefore(walletId, date)).thenReturn(new Aggregate(
+                new BigDecimal("100.00"), new BigDecimal("60.00"), BigDecimal.ZERO, BigDecimal.ZERO));
 
-        // When & Then
-        BigDecimal balance = historicalBalanceService.getHistoricalBalance(walletId, date);
-        assertEquals(new BigDecimal("-50.00"), balance);
+        // When
+        var result = historicalBalanceService.checkConsistency(walletId, date);
 
-        verify(transactionLogService).sumAmountByOperationBefore(walletId, OperationType.DEPOSIT, date);
-        verify(transactionLogService).sumAmountByOperationBefore(walletId, OperationType.WITHDRAW, date);
-        verify(transactionLogService).sumAmountByOperationBefore(walletId, OperationType.TRANSFER, date);
-        verify(transactionLogService).sumReceivedTransfersBefore(walletId, date);
+        // Then
+        assertFalse(result.consistent());
+        assertEquals(new BigDecimal("40.00"), result.aggregatedBalance());
     }
 
     @Test
-    void getHistoricalBalance_shouldSubtractTransfersSentOnly_whenOtherOperationsAreZero() {
+    void snapshotBalances_shouldStreamEveryWalletInIdOrder_whenAllWalletsAreRequested() {
         // Given
-        long walletId = 3L;
         LocalDateTime date = LocalDateTime.now();
+        ReflectionTestUtils.setField(historicalBalanceService, "rangeSize", 2);
+        ReflectionTestUtils.setField(historicalBalanceService, "parallelism", 2);
+
+        when(walletRepository.findMinId()).thenReturn(Optional.of(1L));
+        when(walletRepository.findMaxId()).thenReturn(Optional.of(5L));
+        when(transactionLogService.balancesAt(1L, 2L, date)).thenReturn(List.of(
+                new Balance(1L, new BigDecimal("10.00")), new Balance(2L, BigDecimal.ZERO)));
+        when(transactionLogService.balancesAt(3L, 4L, date)).thenReturn(List.of(
+                new Balance(4L, new BigDecimal("40.00"))));
+        when(transactionLogService.balancesAt(5L, 5L, date)).thenReturn(List.of(
+                new Balance(5L, new BigDecimal("50.00"))));
+
+        // When
+        List<WalletBalanceResponse> balances = new ArrayList<>();
+        historicalBalanceService.snapshotBalances(new BalanceSnapshotRequest(null, true, date), balances::add);
+
+        // Then
+        assertEquals(List.of(
+                new WalletBalanceResponse(1L, new BigDecimal("10.00")),
+                new WalletBalanceResponse(2L, BigDecimal.ZERO),
+                new WalletBalanceResponse(4L, new BigDecimal("40.00")),
+                new WalletBalanceResponse(5L, new BigDecimal("50.00"))), balances);
+    }
 
-        when(transactionLogService.sumAmountByOperationBefore(walletId, OperationType.DEPOSIT, date))
-                .thenReturn(BigDecimal.ZERO);
-        when(transactionLogService.sumAmountByOperationBefore(walletId, OperationType.WITHDRAW, date))
-                .thenReturn(BigDecimal.ZERO);
-        when(transactionLogService.sumAmountByOperationBefore(walletId, OperationType.TRANSFER, date))
-                .thenReturn(new BigDecimal("40.00"));
-        when(transactionLogService.sumReceivedTransfersBefore(walletId, date))
-                .thenReturn(BigDecimal.ZERO);
-
-        // When & Then
-        BigDecimal balance = historicalBalanceService.getHistoricalBalance(walletId, date);
-        assertEquals(new BigDecimal("-40.00"), balance);
-
-        verify(transactionLogService).sumAmountByOperationBefore(walletId, OperationType.DEPOSIT, date);
-        verify(transactionLogService).sumAmountByOperationBefore(walletId, OperationType.WITHDRAW, date);
-        verify(transactionLogService).sumAmountByOperationBefore(walletId, OperationType.TRANSFER, date);
-        verify(transactionLogService).sumReceivedTransfersBefore(walletId, date);
+    @Test
+    void snapshotBalances_shouldScanRequestedWalletsInSortedChunks_whenWalletIdsAreInformed() {
+        // Given
+        LocalDateTime date = LocalDateTime.now();
+        ReflectionTestUtils.setField(historicalBalanceService, "rangeSize", 2);
+        ReflectionTestUtils.setField(historicalBalanceService, "parallelism", 4);
+
+        when(transactionLogService.balancesAt(List.of(1L, 3L), date)).thenReturn(List.of(
+                new Balance(1L, new BigDecimal("10.00")), new Balance(3L, new BigDecimal("30.00"))));
+        when(transactionLogService.balancesAt(List.of(5L), date)).thenReturn(List.of(
+                new Balance(5L, new BigDecimal("50.00"))));
+
+        // When
+        List<WalletBalanceResponse> balances = new ArrayList<>();
+        historicalBalanceService.snapshotBalances(new BalanceSnapshotRequest(Set.of(5L, 1L, 3L), false, date),
+                balances::add);
+
+        // Then
+        assertEquals(List.of(1L, 3L, 5L), balances.stream().map(WalletBalanceResponse::walletId).toList());
+        verifyNoMoreInteractions(walletRepository);
     }
 
     @Test
-    void getHistoricalBalance_shouldAddTransfersReceivedOnly_whenOtherOperationsAreZero() {
+    void snapshotBalances_shouldThrowBalanceSnapshotException_whenRangeScanFails() {
         // Given
-        long walletId = 4L;
         LocalDateTime date = LocalDateTime.now();
+        ReflectionTestUtils.setField(historicalBalanceService, "rangeSize", 10);
+        ReflectionTestUtils.setField(historicalBalanceService, "parallelism", 1);
 
-        when(transactionLogService.sumAmountByOperationBefore(walletId, OperationType.DEPOSIT, date))
-                .thenReturn(BigDecimal.ZERO);
-        when(transactionLogService.sumAmountByOperationBefore(walletId, OperationType.WITHDRAW, date))
-                .thenReturn(BigDecimal.ZERO);
-        when(transactionLogService.sumAmountByOperationBefore(walletId, OperationType.TRANSFER, date))
-                .thenReturn(BigDecimal.ZERO);
-        when(transactionLogService.sumReceivedTransfersBefore(walletId, date))
-                .thenReturn(new BigDecimal("70.00"));
+        when(walletRepository.findMinId()).thenReturn(Optional.of(1L));
+        when(walletRepository.findMaxId()).thenReturn(Optional.of(5L));
+        when(transactionLogService.balancesAt(1L, 5L, date)).thenThrow(new IllegalStateException("boom"));
 
         // When & Then
-        BigDecimal balance = historicalBalanceService.getHistoricalBalance(walletId, date);
-        assertEquals(new BigDecimal("70.00"), balance);
+        var request = new BalanceSnapshotRequest(null, true, date);
+        assertThrows(BalanceSnapshotException.class,
+                () -> historicalBalanceService.snapshotBalances(request, balance -> {
+                }));
+    }
+
+    private record Balance(Long walletId, BigDecimal balance) implements WalletBalance {
+
+        @Override
+        public Long getWalletId() {
+            return walletId;
+        }
+
+        @Override
+        public BigDecimal getBalance() {
+            return balance;
+        }
+    }
+
+    private record Aggregate(BigDecimal deposits, BigDecimal withdrawals, BigDecimal transfersSent,
+            BigDecimal transfersReceived) implements BalanceAggregate {
+
+        @Override
+        public BigDecimal getDeposits() {
+            return deposits;
+        }
+
+        @Override
+        public BigDecimal getWithdrawals() {
+            return withdrawals;
+        }
+
+        @Override
+        public BigDecimal getTransfersSent() {
+            return transfersSent;
+        }
 
-        verify(transactionLogService).sumAmountByOperationBefore(walletId, OperationType.DEPOSIT, date);
-        verify(transactionLogService).sumAmountByOperationBefore(walletId, OperationType.WITHDRAW, date);
-        verify(transactionLogService).sumAmountByOperationBefore(walletId, OperationType.TRANSFER, date);
-        verify(transactionLogService).sumReceivedTransfersBefore(walletId, date);
+        @Override
+        public BigDecimal getTransfersReceived() {
+            return transfersReceived;
+        }
     }
 }
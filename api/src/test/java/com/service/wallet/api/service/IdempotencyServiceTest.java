@@ -0,0 +1,227 @@
+package com.service.wallet.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.service.wallet.api.dto.api.request.DepositRequest;
+import com.service.wallet.api.exception.DepositException;
+import com.service.wallet.api.exception.IdempotencyKeyConflictException;
+import com.service.wallet.api.exception.IdempotencyKeyInProgressException;
+import com.service.wallet.api.type.Amount;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    private static final String KEY = "idempotency:key-1";
+
+    @Mock
+    StringRedisTemplate redisTemplate;
+
+    @Mock
+    ValueOperations<String, String> valueOperations;
+
+    IdempotencyService idempotencyService;
+
+    private final DepositRequest request = new DepositRequest(1L, new Amount(BigDecimal.TEN));
+    private final AtomicInteger executions = new AtomicInteger();
+    private final UUID correlationId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(redisTemplate, new ObjectMapper());
+        ReflectionTestUtils.setField(idempotencyService, "ttl", Duration.ofHours(24));
+        ReflectionTestUtils.setField(idempotencyService, "lockTtl", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(idempotencyService, "waitTimeout", Duration.ofMillis(50));
+        ReflectionTestUtils.setField(idempotencyService, "pollInterval", Duration.ofMillis(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        idempotencyService.destroy();
+    }
+
+    @Test
+    void execute_shouldExecuteWithoutStore_whenNoKeyIsInformed() {
+        // When
+        var result = idempotencyService.execute(null, "deposit:1", request, 201, this::operation);
+
+        // Then
+        assertEquals(correlationId, result.correlationId());
+        assertEquals(1, executions.get());
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void execute_shouldClaimExecuteAndStore_whenKeyIsNew() {
+        // Given
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq(KEY), anyString(), eq(Duration.ofSeconds(30)))).thenReturn(true);
+
+        // When
+        var result = idempotencyService.execute("key-1", "deposit:1", request, 201, this::operation);
+
+        // Then
+        assertFalse(result.replayed());
+        assertEquals(1, executions.get());
+        ArgumentCaptor<String> stored = ArgumentCaptor.forClass(String.class);
+        verify(valueOperations).set(eq(KEY), stored.capture(), eq(Duration.ofHours(24)));
+        assertTrue(stored.getValue().contains("COMPLETED"));
+        assertTrue(stored.getValue().contains(correlationId.toString()));
+    }
+
+    @Test
+    void execute_shouldReplayStoredResponse_whenKeyWasCompleted() {
+        // Given
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq(KEY), anyString(), any(Duration.class))).thenReturn(true);
+        idempotencyService.execute("key-1", "deposit:1", request, 201, this::operation);
+
+        ArgumentCaptor<String> stored = ArgumentCaptor.forClass(String.class);
+        verify(valueOperations).set(eq(KEY), stored.capture(), any(Duration.class));
+        when(valueOperations.get(KEY)).thenReturn(stored.getValue());
+
+        // When
+        var result = idempotencyService.execute("key-1", "deposit:1", request, 201, this::operation);
+
+        // Then
+        assertTrue(result.replayed());
+        assertEquals(201, result.status());
+        assertEquals(correlationId, result.correlationId());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_shouldRejectKey_whenItWasUsedForADifferentRequest() {
+        // Given
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq(KEY), anyString(), any(Duration.class))).thenReturn(true);
+        idempotencyService.execute("key-1", "deposit:1", request, 201, this::operation);
+
+        ArgumentCaptor<String> stored = ArgumentCaptor.forClass(String.class);
+        verify(valueOperations).set(eq(KEY), stored.capture(), any(Duration.class));
+        when(valueOperations.get(KEY)).thenReturn(stored.getValue());
+
+        // When & Then
+        var otherRequest = new DepositRequest(1L, new Amount(BigDecimal.ONE));
+        assertThrows(IdempotencyKeyConflictException.class,
+                () -> idempotencyService.execute("key-1", "deposit:1", otherRequest, 201, this::operation));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_shouldFailAfterWaiting_whenDuplicateIsStillInProgress() {
+        // Given
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq(KEY), anyString(), any(Duration.class))).thenReturn(true, false);
+        ArgumentCaptor<String> claimed = ArgumentCaptor.forClass(String.class);
+
+        // The first request claims the key and is still running when the duplicate arrives
+        idempotencyService.execute("key-1", "deposit:1", request, 201, () -> {
+            verify(valueOperations).setIfAbsent(eq(KEY), claimed.capture(), any(Duration.class));
+            when(valueOperations.get(KEY)).thenReturn(claimed.getValue());
+
+            // When & Then
+            assertThrows(IdempotencyKeyInProgressException.class,
+                    () -> idempotencyService.execute("key-1", "deposit:1", request, 201, this::operation));
+            return correlationId;
+        });
+
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void execute_shouldReleaseKey_whenOperationFails() {
+        // Given
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq(KEY), anyString(), any(Duration.class))).thenReturn(true);
+
+        // When & Then
+        assertThrows(DepositException.class, () -> idempotencyService.execute("key-1", "deposit:1", request, 201,
+                () -> {
+                    throw new DepositException("The user can only deposit into his own wallet!");
+                }));
+        verify(redisTemplate).delete(KEY);
+        verify(valueOperations, never()).set(eq(KEY), anyString(), any(Duration.class));
+    }
+
+    @Test
+    void execute_shouldRenewClaim_whenOperationOutlivesLockTtl() {
+        // Given
+        ReflectionTestUtils.setField(idempotencyService, "lockTtl", Duration.ofMillis(30));
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq(KEY), anyString(), eq(Duration.ofMillis(30)))).thenReturn(true);
+        when(redisTemplate.execute(eq(IdempotencyService.RENEW_CLAIM), eq(List.of(KEY)), anyString(), eq("30")))
+                .thenReturn(1L);
+
+        // When
+        var result = idempotencyService.execute("key-1", "deposit:1", request, 201, () -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            return operation();
+        });
+
+        // Then
+        assertEquals(correlationId, result.correlationId());
+        ArgumentCaptor<String> claimed = ArgumentCaptor.forClass(String.class);
+        verify(valueOperations).setIfAbsent(eq(KEY), claimed.capture(), any(Duration.class));
+        verify(redisTemplate, atLeastOnce()).execute(IdempotencyService.RENEW_CLAIM, List.of(KEY),
+                claimed.getValue(), "30");
+    }
+
+    @Test
+    void execute_shouldAnswerSuccess_whenResponseCannotBeStoredAfterOperationSucceeded() {
+        // Given
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq(KEY), anyString(), any(Duration.class))).thenReturn(true);
+        doThrow(new RedisConnectionFailureException("Redis is down")).when(valueOperations)
+                .set(eq(KEY), anyString(), eq(Duration.ofHours(24)));
+
+        // When
+        var result = idempotencyService.execute("key-1", "deposit:1", request, 201, this::operation);
+
+        // Then
+        assertFalse(result.replayed());
+        assertEquals(201, result.status());
+        assertEquals(correlationId, result.correlationId());
+        assertEquals(1, executions.get());
+    }
+
+    private UUID operation() {
+        executions.incrementAndGet();
+        return correlationId;
+    }
+}
@@ -0,0 +1,150 @@
+package com.service.wallet.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.service.wallet.api.domain.OutboxMessage;
+import com.service.wallet.api.dto.messaging.TransactionCorrelationId;
+import com.service.wallet.api.enums.OperationType;
+import com.service.wallet.api.queue.producer.DepositProducer;
+import com.service.wallet.api.queue.producer.TransferProducer;
+import com.service.wallet.api.repository.OutboxMessageRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxServiceTest {
+
+    @Mock
+    OutboxMessageRepository repository;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @Mock
+    DepositProducer depositProducer;
+
+    @Mock
+    TransferProducer transferProducer;
+
+    SimpleMeterRegistry meterRegistry;
+
+    OutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        outboxService = new OutboxService(repository, transactionManager, depositProducer, transferProducer,
+                meterRegistry);
+        ReflectionTestUtils.setField(outboxService, "sendTimeout", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(outboxService, "lease", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(outboxService, "retryBackoff", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(outboxService, "maxRetryBackoff", Duration.ofSeconds(3));
+    }
+
+    @Test
+    void enqueue_shouldThrowIllegalArgumentException_whenOperationHasNoQueue() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> outboxService.enqueue(OperationType.WITHDRAW, UUID.randomUUID()));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void publishPending_shouldPublishToTheOperationQueueAndDelete_whenSendsSucceed() {
+        // Given
+        var deposit = message(1L, OperationType.DEPOSIT, 0);
+        var transfer = message(2L, OperationType.TRANSFER, 0);
+        when(repository.lockDueMessages(any(LocalDateTime.class), anyInt())).thenReturn(List.of(deposit, transfer));
+        when(depositProducer.send(new TransactionCorrelationId(deposit.getCorrelationId())))
+                .thenReturn(CompletableFuture.completedFuture("message-1"));
+        when(transferProducer.send(new TransactionCorrelationId(transfer.getCorrelationId())))
+                .thenReturn(CompletableFuture.completedFuture("message-2"));
+
+        // When
+        int taken = outboxService.publishPending(10);
+
+        // Then
+        assertEquals(2, taken);
+        verify(repository).deleteAllByIdInBatch(List.of(1L, 2L));
+        assertEquals(2, meterRegistry.get("wallet.outbox.published").counter().count());
+    }
+
+    @Test
+    void publishPending_shouldRescheduleWithBackoff_whenSendFails() {
+        // Given
+        var published = message(1L, OperationType.DEPOSIT, 0);
+        var failing = message(2L, OperationType.DEPOSIT, 2);
+        when(repository.lockDueMessages(any(LocalDateTime.class), anyInt())).thenReturn(List.of(published, failing));
+        when(depositProducer.send(new TransactionCorrelationId(published.getCorrelationId())))
+                .thenReturn(CompletableFuture.completedFuture("message-1"));
+        when(depositProducer.send(new TransactionCorrelationId(failing.getCorrelationId())))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("SQS unavailable")));
+
+        // When
+        LocalDateTime before = LocalDateTime.now();
+        outboxService.publishPending(10);
+
+        // Then
+        verify(repository).deleteAllByIdInBatch(List.of(1L));
+        verify(repository).saveAll(List.of(failing));
+        assertEquals(3, failing.getAttempts());
+        // 1s * 2^2 capped at 3s
+        assertTrue(!failing.getNextAttemptAt().isBefore(before.plusSeconds(3)));
+        assertTrue(failing.getNextAttemptAt().isBefore(before.plusSeconds(4)));
+        assertEquals(1, meterRegistry.get("wallet.outbox.failed").counter().count());
+    }
+
+    @Test
+    void publishPending_shouldLeaseMessagesInTheirOwnTransaction_whenSendingOutsideOfIt() {
+        // Given
+        var deposit = message(1L, OperationType.DEPOSIT, 0);
+        when(repository.lockDueMessages(any(LocalDateTime.class), anyInt())).thenReturn(List.of(deposit));
+        when(depositProducer.send(new TransactionCorrelationId(deposit.getCorrelationId())))
+                .thenReturn(CompletableFuture.completedFuture("message-1"));
+
+        // When
+        LocalDateTime before = LocalDateTime.now();
+        outboxService.publishPending(10);
+
+        // Then
+        var order = inOrder(repository, transactionManager, depositProducer);
+        order.verify(repository).lockDueMessages(any(LocalDateTime.class), anyInt());
+        order.verify(transactionManager).commit(any());
+        order.verify(depositProducer).send(new TransactionCorrelationId(deposit.getCorrelationId()));
+        order.verify(repository).deleteAllByIdInBatch(List.of(1L));
+        order.verify(transactionManager).commit(any());
+        assertTrue(!deposit.getNextAttemptAt().isBefore(before.plusSeconds(30)));
+    }
+
+    private static OutboxMessage message(long id, OperationType operation, int attempts) {
+        return OutboxMessage.builder()
+                .id(id)
+                .operation(operation)
+                .correlationId(UUID.randomUUID())
+                .attempts(attempts)
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,51 @@
+package com.service.wallet.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Counts the JDBC statements of a service call with the Hibernate statistics
+ * ({@code hibernate.generate_statistics} must be enabled).
+ * <p>
+ * The persistence context is flushed and cleared before the call, so nothing it
+ * reads comes from the first level cache, and flushed again after it, so the
+ * writes still pending at the end of the call are counted as well. A JDBC batch
+ * counts as a single statement.
+ * </p>
+ */
+final class StatementCounter {
+
+    private final EntityManager entityManager;
+    private final Statistics statistics;
+
+    StatementCounter(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+    }
+
+    /**
+     * Runs the call and asserts it prepared at most {@code maxStatements} JDBC
+     * statements and loaded no entity, i.e. it only read projections.
+     */
+    void assertAtMost(long maxStatements, Runnable call) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        call.run();
+        entityManager.flush();
+
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= maxStatements,
+                () -> "Expected at most " + maxStatements + " statements but " + statements + " were prepared");
+        assertEquals(0, statistics.getEntityLoadCount(),
+                () -> "Expected no entity load but loaded " + String.join(", ", statistics.getEntityNames()));
+    }
+}
@@ -0,0 +1,120 @@
+package com.service.wallet.api.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.service.wallet.api.cache.WalletOwnershipIndex;
+import com.service.wallet.api.enums.OperationType;
+import com.service.wallet.api.enums.TransactionStatus;
+import com.service.wallet.api.exception.InvalidCursorException;
+import com.service.wallet.api.exception.WalletNotFoundException;
+import com.service.wallet.api.mapper.TransactionMapper;
+import com.service.wallet.api.mapper.TransactionMapperImpl;
+import com.service.wallet.api.repository.TransactionHistoryRepository;
+import com.service.wallet.api.repository.projection.TransactionHistoryEntry;
+import com.service.wallet.api.type.TransactionCursor;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionHistoryServiceTest {
+
+    private static final long WALLET_ID = 1L;
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Mock
+    TransactionHistoryRepository transactionHistoryRepository;
+
+    @Mock
+    WalletOwnershipIndex walletOwnershipIndex;
+
+    @Spy
+    TransactionMapper transactionMapper = new TransactionMapperImpl();
+
+    @InjectMocks
+    TransactionHistoryService transactionHistoryService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(transactionHistoryService, "defaultPageSize", 2);
+        ReflectionTestUtils.setField(transactionHistoryService, "maxPageSize", 3);
+    }
+
+    @Test
+    void findPage_shouldThrowWalletNotFoundException_whenWalletDoesNotExist() {
+        // Given
+        when(walletOwnershipIndex.findCustomerId(WALLET_ID)).thenReturn(OptionalLong.empty());
+
+        // When & Then
+        assertThrows(WalletNotFoundException.class, () -> transactionHistoryService.findPage(WALLET_ID, null, null));
+        verifyNoInteractions(transactionHistoryRepository);
+    }
+
+    @Test
+    void findPage_shouldReturnTheCursorOfTheLastEntry_whenThereIsANextPage() {
+        // Given
+        when(walletOwnershipIndex.findCustomerId(WALLET_ID)).thenReturn(OptionalLong.of(10L));
+        when(transactionHistoryRepository.findPage(WALLET_ID, null, 3)).thenReturn(entries(9, 8, 7));
+
+        // When
+        var page = transactionHistoryService.findPage(WALLET_ID, null, null);
+
+        // Then
+        assertEquals(List.of(9L, 8L), page.transactions().stream().map(transaction -> transaction.id()).toList());
+        assertEquals(new TransactionCursor(START.plusMinutes(8), 8L), TransactionCursor.decode(page.nextCursor()));
+    }
+
+    @Test
+    void findPage_shouldStartAfterTheCursorAndCapTheSize_whenCursorAndSizeAreGiven() {
+        // Given
+        var cursor = new TransactionCursor(START.plusMinutes(8), 8L);
+        when(walletOwnershipIndex.findCustomerId(WALLET_ID)).thenReturn(OptionalLong.of(10L));
+        when(transactionHistoryRepository.findPage(WALLET_ID, cursor, 4)).thenReturn(entries(7, 6));
+
+        // When
+        var page = transactionHistoryService.findPage(WALLET_ID, cursor.encode(), 100);
+
+        // Then
+        assertEquals(2, page.transactions().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void findPage_shouldThrowInvalidCursorException_whenCursorIsMalformed() {
+        // Given
+        when(walletOwnershipIndex.findCustomerId(WALLET_ID)).thenReturn(OptionalLong.of(10L));
+
+        // When & Then
+        assertThrows(InvalidCursorException.class, () -> transactionHistoryService.findPage(WALLET_ID, "nope", null));
+        verify(transactionHistoryRepository, never()).findPage(anyLong(), any(), anyInt());
+    }
+
+    private static List<TransactionHistoryEntry> entries(long... ids) {
+        return LongStream.of(ids)
+                .mapToObj(id -> new TransactionHistoryEntry(id, UUID.randomUUID(), OperationType.DEPOSIT, null,
+                        WALLET_ID, BigDecimal.TEN, null, TransactionStatus.SUCCESS, START.plusMinutes(id)))
+                .toList();
+    }
+}
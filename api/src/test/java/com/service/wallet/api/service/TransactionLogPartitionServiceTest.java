@@ -0,0 +1,133 @@
+package com.service.wallet.api.service;
+
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.service.wallet.api.repository.TransactionLogPartitionRepository;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionLogPartitionServiceTest {
+
+    @Mock
+    TransactionLogPartitionRepository partitionRepository;
+
+    @Mock
+    TransactionLogService transactionLogService;
+
+    @InjectMocks
+    TransactionLogPartitionService partitionService;
+
+    @Test
+    void maintainPartitions_shouldOnlyCreateUpcomingPartitions_whenRetentionIsDisabled() {
+        // Given
+        LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+        ReflectionTestUtils.setField(partitionService, "monthsAhead", 3);
+
+        // When
+        partitionService.maintainPartitions();
+
+        // Then
+        verify(partitionRepository).createPartitions(currentMonth, currentMonth.plusMonths(3));
+        verifyNoMoreInteractions(partitionRepository);
+    }
+
+    @Test
+    void maintainPartitions_shouldDetachExpiredPartitions_whenRetentionIsConfigured() {
+        // Given
+        LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+        ReflectionTestUtils.setField(partitionService, "monthsAhead", 3);
+        ReflectionTestUtils.setField(partitionService, "retentionMonths", 12);
+
+        when(partitionRepository.findPartitionsBefore(currentMonth.minusMonths(12)))
+                .thenReturn(List.of("transaction_log_p2020_01", "transaction_log_p2020_02"));
+        doThrow(new IllegalStateException("lock timeout"))
+                .when(partitionRepository).detachPartition("transaction_log_p2020_01");
+
+        // When
+        partitionService.maintainPartitions();
+
+        // Then
+        var order = inOrder(partitionRepository, transactionLogService);
+        order.verify(partitionRepository).createPartitions(currentMonth, currentMonth.plusMonths(3));
+        order.verify(partitionRepository).countProcessingBefore(currentMonth.minusMonths(12).atStartOfDay());
+        order.verify(partitionRepository).carryForwardBalances(currentMonth.minusMonths(12).atStartOfDay());
+        order.verify(transactionLogService).refreshRetentionCutoff();
+        order.verify(partitionRepository).detachPartition("transaction_log_p2020_01");
+        order.verify(partitionRepository).detachPartition("transaction_log_p2020_02");
+    }
+
+    @Test
+    void maintainPartitions_shouldKeepPartitionsAttached_whenBalancesCannotBeCarriedForward() {
+        // Given
+        LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+        LocalDateTime cutoff = currentMonth.minusMonths(12).atStartOfDay();
+        ReflectionTestUtils.setField(partitionService, "monthsAhead", 3);
+        ReflectionTestUtils.setField(partitionService, "retentionMonths", 12);
+
+        when(partitionRepository.findPartitionsBefore(currentMonth.minusMonths(12)))
+                .thenReturn(List.of("transaction_log_p2020_01"));
+        when(partitionRepository.carryForwardBalances(cutoff)).thenThrow(new IllegalStateException("disk full"));
+
+        // When
+        partitionService.maintainPartitions();
+
+        // Then
+        verify(partitionRepository, never()).detachPartition(anyString());
+    }
+
+    @Test
+    void maintainPartitions_shouldKeepPartitionsAttached_whenEntriesBeforeTheCutoffAreProcessing() {
+        // Given
+        LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+        LocalDateTime cutoff = currentMonth.minusMonths(12).atStartOfDay();
+        ReflectionTestUtils.setField(partitionService, "monthsAhead", 3);
+        ReflectionTestUtils.setField(partitionService, "retentionMonths", 12);
+
+        when(partitionRepository.findPartitionsBefore(currentMonth.minusMonths(12)))
+                .thenReturn(List.of("transaction_log_p2020_01"));
+        when(partitionRepository.countProcessingBefore(cutoff)).thenReturn(2L);
+
+        // When
+        partitionService.maintainPartitions();
+
+        // Then
+        verify(partitionRepository, never()).carryForwardBalances(cutoff);
+        verify(partitionRepository, never()).detachPartition(anyString());
+        verifyNoInteractions(transactionLogService);
+    }
+
+    @Test
+    void maintainPartitions_shouldNotCarryForward_whenNoPartitionExpired() {
+        // Given
+        LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+        ReflectionTestUtils.setField(partitionService, "monthsAhead", 3);
+        ReflectionTestUtils.setField(partitionService, "retentionMonths", 12);
+
+        when(partitionRepository.findPartitionsBefore(currentMonth.minusMonths(12))).thenReturn(List.of());
+
+        // When
+        partitionService.maintainPartitions();
+
+        // Then
+        verify(partitionRepository).createPartitions(currentMonth, currentMonth.plusMonths(3));
+        verify(partitionRepository).findPartitionsBefore(currentMonth.minusMonths(12));
+        verifyNoMoreInteractions(partitionRepository);
+    }
+}
@@ -1,23 +1,44 @@
 package com.service.wallet.api.service;
 
+import com.service.wallet.api.bean.TransactionLogBean;
+import com.service.wallet.api.domain.TransactionLog;
+import com.service.wallet.api.domain.Wallet;
 import com.service.wallet.api.enums.OperationType;
+import com.service.wallet.api.enums.TransactionStatus;
+import com.service.wallet.api.exception.HistoryNotRetainedException;
+import com.service.wallet.api.exception.TransactionLogException;
+import com.service.wallet.api.repository.TransactionLogOpeningBalanceRepository;
 import com.service.wallet.api.repository.TransactionLogRepository;
+import com.service.wallet.api.repository.projection.BalanceAggregate;
+import com.service.wallet.api.type.Amount;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.EnumSource.Mode;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,6 +47,9 @@ class TransactionLogServiceTest {
     @Mock
     TransactionLogRepository transactionLogRepository;
 
+    @Mock
+    TransactionLogOpeningBalanceRepository openingBalanceRepository;
+
     @InjectMocks
     TransactionLogService service;
 
@@ -94,78 +118,182 @@ class TransactionLogServiceTest {
     }
 
     @Nested
-    class SumAmountByOperationBeforeTests {
+    class LogAllTests {
 
-        @ParameterizedTest
-        @EnumSource(value = OperationType.class)
-        void sumAmountByOperationBefore_shouldReturnValue_whenPresent(OperationType operationType) {
+        @Test
+        void logAll_shouldPersistEveryLegInOneSaveAll_whenTransferIsLogged() {
+            // Given
+            var source = Wallet.builder().id(1L).build();
+            var target = Wallet.builder().id(2L).build();
+            var amount = new Amount(BigDecimal.TEN);
+            var correlationId = UUID.randomUUID();
+            var beans = List.of(
+                    TransactionLogBean.buildWithdraw(source, amount, correlationId),
+                    TransactionLogBean.buildDeposit(target, amount, correlationId),
+                    TransactionLogBean.buildTransfer(source, target, amount, correlationId));
+
+            // When
+            service.logAll(beans, TransactionStatus.PROCESSING);
+
+            // Then
+            ArgumentCaptor<List<TransactionLog>> captor = ArgumentCaptor.forClass(List.class);
+            verify(transactionLogRepository).saveAll(captor.capture());
+            verifyNoMoreInteractions(transactionLogRepository);
+
+            var saved = captor.getValue();
+            assertEquals(List.of(OperationType.WITHDRAW, OperationType.DEPOSIT, OperationType.TRANSFER),
+                    saved.stream().map(TransactionLog::getOperation).toList());
+            assertEquals(source, saved.get(0).getSourceWallet());
+            assertNull(saved.get(0).getTargetWallet());
+            assertNull(saved.get(1).getSourceWallet());
+            assertEquals(target, saved.get(1).getTargetWallet());
+            assertEquals(target, saved.get(2).getTargetWallet());
+            assertTrue(saved.stream().allMatch(log -> correlationId.equals(log.getCorrelationId())
+                    && log.getCurrentStatus() == TransactionStatus.PROCESSING));
+            assertTrue(saved.stream().allMatch(log -> log.getAmountCents() == 1000L));
+        }
+
+        @Test
+        void logAll_shouldThrowTransactionLogException_whenAnyLegMissesTheTargetWallet() {
+            // Given
+            var source = Wallet.builder().id(1L).build();
+            var amount = new Amount(BigDecimal.TEN);
+            var correlationId = UUID.randomUUID();
+            var beans = List.of(
+                    TransactionLogBean.buildWithdraw(source, amount, correlationId),
+                    TransactionLogBean.buildTransfer(source, null, amount, correlationId));
+
+            // When & Then
+            assertThrows(TransactionLogException.class, () -> service.logAll(beans, TransactionStatus.PROCESSING));
+            verifyNoInteractions(transactionLogRepository);
+        }
+    }
+
+    @Nested
+    class AggregateSettledBeforeTests {
+
+        @Test
+        void aggregateSettledBefore_shouldReturnAggregateFromSingleQuery() {
             // Given
             long walletId = 1L;
             var createdAt = LocalDateTime.now();
-            var amountExpected = new BigDecimal("100.00");
+            var aggregate = mock(BalanceAggregate.class);
 
-            when(transactionLogRepository.sumBySourceWalletIdAndTypeBefore(walletId, operationType, createdAt))
-                    .thenReturn(Optional.of(amountExpected));
+            when(transactionLogRepository.aggregateSettledBefore(walletId, createdAt)).thenReturn(aggregate);
 
             // When & Then
-            BigDecimal result = service.sumAmountByOperationBefore(walletId, operationType, createdAt);
-            assertEquals(amountExpected, result);
+            assertSame(aggregate, service.aggregateSettledBefore(walletId, createdAt));
 
-            verify(transactionLogRepository).sumBySourceWalletIdAndTypeBefore(walletId, operationType, createdAt);
+            verify(transactionLogRepository).aggregateSettledBefore(walletId, createdAt);
+            verifyNoMoreInteractions(transactionLogRepository);
         }
 
-        @ParameterizedTest
-        @EnumSource(value = OperationType.class)
-        void sumAmountByOperationBefore_shouldReturnZero_whenEmpty(OperationType operationType) {
+        @Test
+        void aggregateSettledBefore_shouldSumTheCentsColumn_whenMinorUnitsAreEnabled() {
             // Given
             long walletId = 1L;
             var createdAt = LocalDateTime.now();
+            var aggregate = mock(BalanceAggregate.class);
+            ReflectionTestUtils.setField(service, "minorUnits", true);
 
-            when(transactionLogRepository.sumBySourceWalletIdAndTypeBefore(walletId, operationType, createdAt))
-                    .thenReturn(Optional.empty());
+            when(transactionLogRepository.aggregateSettledBeforeInCents(walletId, createdAt)).thenReturn(aggregate);
 
             // When & Then
-            BigDecimal result = service.sumAmountByOperationBefore(walletId, operationType, createdAt);
-            assertEquals(BigDecimal.ZERO, result);
+            assertSame(aggregate, service.aggregateSettledBefore(walletId, createdAt));
 
-            verify(transactionLogRepository).sumBySourceWalletIdAndTypeBefore(walletId, operationType, createdAt);
+            verify(transactionLogRepository).aggregateSettledBeforeInCents(walletId, createdAt);
+            verifyNoMoreInteractions(transactionLogRepository);
         }
     }
 
     @Nested
-    class SumReceivedTransfersBeforeTests {
+    class BalanceAtTests {
 
         @Test
-        void sumReceivedTransfersBefore_shouldReturnValue_whenPresent() {
+        void balanceAt_shouldReturnRunningBalance_whenPresent() {
             // Given
-            long walletId = 2L;
+            long walletId = 3L;
             var createdAt = LocalDateTime.now();
-            var amountExpected = new BigDecimal("75.50");
+            var balanceExpected = new BigDecimal("42.00");
 
-            when(transactionLogRepository.sumReceivedTransfers(walletId, OperationType.TRANSFER, createdAt))
-                    .thenReturn(Optional.of(amountExpected));
+            when(transactionLogRepository.findBalanceAfterAt(walletId, createdAt))
+                    .thenReturn(Optional.of(balanceExpected));
 
             // When & Then
-            BigDecimal result = service.sumReceivedTransfersBefore(walletId, createdAt);
-            assertEquals(amountExpected, result);
+            BigDecimal result = service.balanceAt(walletId, createdAt);
+            assertEquals(balanceExpected, result);
 
-            verify(transactionLogRepository).sumReceivedTransfers(walletId, OperationType.TRANSFER, createdAt);
+            verify(transactionLogRepository).findBalanceAfterAt(walletId, createdAt);
         }
 
         @Test
-        void sumReceivedTransfersBefore_shouldReturnZero_whenEmpty() {
+        void balanceAt_shouldReturnZero_whenEmpty() {
             // Given
-            long walletId = 2L;
-            var date = LocalDateTime.now();
+            long walletId = 3L;
+            var createdAt = LocalDateTime.now();
 
-            when(transactionLogRepository.sumReceivedTransfers(walletId, OperationType.TRANSFER, date))
+            when(transactionLogRepository.findBalanceAfterAt(walletId, createdAt))
                     .thenReturn(Optional.empty());
 
             // When & Then
-            BigDecimal result = service.sumReceivedTransfersBefore(walletId, date);
+            BigDecimal result = service.balanceAt(walletId, createdAt);
             assertEquals(BigDecimal.ZERO, result);
 
-            verify(transactionLogRepository).sumReceivedTransfers(walletId, OperationType.TRANSFER, date);
+            verify(transactionLogRepository).findBalanceAfterAt(walletId, createdAt);
+        }
+
+        @Test
+        void balanceAt_shouldReadTheRetentionCutoffOnlyOnRefresh_whenPartitionsWereDetached() {
+            // Given
+            long walletId = 3L;
+            var cutoff = LocalDateTime.of(2025, 1, 1, 0, 0);
+            var createdAt = cutoff.plusDays(10);
+
+            when(openingBalanceRepository.findRetentionCutoff()).thenReturn(Optional.of(cutoff));
+            when(transactionLogRepository.findBalanceAfterAt(walletId, createdAt))
+                    .thenReturn(Optional.of(new BigDecimal("70.00")));
+            service.refreshRetentionCutoff();
+
+            // When & Then
+            assertEquals(new BigDecimal("70.00"), service.balanceAt(walletId, createdAt));
+            assertEquals(new BigDecimal("70.00"), service.balanceAt(walletId, createdAt));
+
+            verify(openingBalanceRepository).findRetentionCutoff();
+            verify(transactionLogRepository, times(2)).findBalanceAfterAt(walletId, createdAt);
+            verifyNoMoreInteractions(transactionLogRepository, openingBalanceRepository);
+        }
+
+        @Test
+        void balanceAt_shouldThrowHistoryNotRetainedException_whenBeforeRetentionCutoff() {
+            // Given
+            long walletId = 3L;
+            var cutoff = LocalDateTime.of(2025, 1, 1, 0, 0);
+            var createdAt = cutoff.minusSeconds(1);
+
+            when(openingBalanceRepository.findRetentionCutoff()).thenReturn(Optional.of(cutoff));
+            service.refreshRetentionCutoff();
+
+            // When & Then
+            var exception = assertThrows(HistoryNotRetainedException.class,
+                    () -> service.balanceAt(walletId, createdAt));
+            assertEquals("The transaction history before 2025-01-01T00:00 is no longer retained",
+                    exception.getMessage());
+
+            verifyNoInteractions(transactionLogRepository);
+        }
+
+        @Test
+        void aggregateSettledBefore_shouldThrowHistoryNotRetainedException_whenBeforeRetentionCutoff() {
+            // Given
+            var cutoff = LocalDateTime.of(2025, 1, 1, 0, 0);
+            when(openingBalanceRepository.findRetentionCutoff()).thenReturn(Optional.of(cutoff));
+            service.refreshRetentionCutoff();
+
+            // When & Then
+            assertThrows(HistoryNotRetainedException.class,
+                    () -> service.aggregateSettledBefore(3L, cutoff.minusDays(1)));
+
+            verifyNoInteractions(transactionLogRepository);
         }
     }
 }
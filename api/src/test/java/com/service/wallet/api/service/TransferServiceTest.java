@@ -1,11 +1,13 @@
 package com.service.wallet.api.service;
 
 import com.service.wallet.api.bean.TransactionLogBean;
-import com.service.wallet.api.bean.TransferBean;
-import com.service.wallet.api.bean.WithdrawBean;
-import com.service.wallet.api.domain.Customer;
+import com.service.wallet.api.cache.WalletOwnershipIndex;
 import com.service.wallet.api.domain.Wallet;
+import com.service.wallet.api.dto.api.request.TransferRequest;
 import com.service.wallet.api.enums.OperationType;
+import com.service.wallet.api.enums.TransactionStatus;
+import com.service.wallet.api.exception.TransferException;
+import com.service.wallet.api.exception.WalletNotFoundException;
 import com.service.wallet.api.repository.WalletRepository;
 import com.service.wallet.api.type.Amount;
 import org.junit.jupiter.api.Test;
@@ -16,13 +18,16 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
-import java.util.Optional;
+import java.util.List;
+import java.util.OptionalLong;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
-import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,13 +37,13 @@ class TransferServiceTest {
     WalletRepository walletRepository;
 
     @Mock
-    TransactionLogService transactionLogService;
+    WalletOwnershipIndex walletOwnershipIndex;
 
     @Mock
-    WithdrawService withdrawService;
+    TransactionLogService transactionLogService;
 
     @Mock
-    DepositService depositService;
+    OutboxService outboxService;
 
     @InjectMocks
     TransferService transferService;
@@ -47,29 +52,29 @@ class TransferServiceTest {
     void execute_shouldTransferException_whenSourceAndTargetUsersAreSame() {
         // Given
         long userId = 1L;
-        var bean = new TransferBean(10L, userId, userId, new Amount(BigDecimal.TEN));
+        var request = new TransferRequest(userId, userId, new Amount(BigDecimal.TEN));
 
         // When & Then
-//        var exception = assertThrows(TransferException.class, () -> transferService.execute(bean));
-//        assertEquals("The source and destination user cannot be the same!", exception.getMessage());
+        var exception = assertThrows(TransferException.class, () -> transferService.execute(10L, request));
+        assertEquals("The source and destination user cannot be the same!", exception.getMessage());
 
-        verifyNoInteractions(walletRepository, withdrawService, depositService, transactionLogService);
+        verifyNoInteractions(walletOwnershipIndex, walletRepository, transactionLogService, outboxService);
     }
 
     @Test
     void execute_shouldThrowWalletNotFoundException_whenSourceWalletNotFound() {
         // Given
         long sourceWalletId = 10L;
-        var bean = new TransferBean(sourceWalletId, 1L, 2L, new Amount(BigDecimal.TEN));
-        when(walletRepository.findById(anyLong())).thenReturn(Optional.empty());
+        var request = new TransferRequest(1L, 2L, new Amount(BigDecimal.TEN));
+        when(walletOwnershipIndex.findCustomerId(sourceWalletId)).thenReturn(OptionalLong.empty());
 
         // When & Then
-//        var exception = assertThrows(WalletNotFoundException.class, () -> transferService.execute(bean));
-//        assertEquals("Source wallet not found!", exception.getMessage());
+        var exception = assertThrows(WalletNotFoundException.class,
+                () -> transferService.execute(sourceWalletId, request));
+        assertEquals("Source wallet not found!", exception.getMessage());
 
-        verify(walletRepository).findById(sourceWalletId);
-        verifyNoMoreInteractions(walletRepository);
-        verifyNoInteractions(withdrawService, depositService, transactionLogService);
+        verify(walletOwnershipIndex).findCustomerId(sourceWalletId);
+        verifyNoInteractions(walletRepository, transactionLogService, outboxService);
     }
 
     @Test
@@ -78,21 +83,16 @@ class TransferServiceTest {
         long userId = 1L;
         long wrongUserId = 99L;
         long sourceWalletId = 10L;
-        var sourceWallet = Wallet.builder()
-                .id(sourceWalletId)
-                .customer(new Customer(wrongUserId, "wrong@test.com"))
-                .build();
-
-        var bean = new TransferBean(sourceWalletId, userId, 2L, new Amount(BigDecimal.TEN));
-        when(walletRepository.findById(sourceWalletId)).thenReturn(Optional.of(sourceWallet));
+        var request = new TransferRequest(userId, 2L, new Amount(BigDecimal.TEN));
+        when(walletOwnershipIndex.findCustomerId(sourceWalletId)).thenReturn(OptionalLong.of(wrongUserId));
 
         // When & Then
-//        var exception = assertThrows(TransferException.class, () -> transferService.execute(bean));
-//        assertEquals("The provided wallet does not belong to the requesting user!", exception.getMessage());
+        var exception = assertThrows(TransferException.class, () -> transferService.execute(sourceWalletId, request));
+        assertEquals("The provided wallet does not belong to the requesting user!", exception.getMessage());
 
-        verify(walletRepository).findById(sourceWalletId);
-        verifyNoMoreInteractions(walletRepository);
-        verifyNoInteractions(withdrawService, depositService, transactionLogService);
+        verify(walletOwnershipIndex).findCustomerId(sourceWalletId);
+        verify(walletOwnershipIndex, never()).findWalletId(anyLong());
+        verifyNoInteractions(walletRepository, transactionLogService, outboxService);
     }
 
     @Test
@@ -101,67 +101,51 @@ class TransferServiceTest {
         long sourceUserId = 1L;
         long targetUserId = 2L;
         long sourceWalletId = 10L;
-        var sourceWallet = Wallet.builder()
-                .id(sourceWalletId)
-                .customer(new Customer(sourceUserId, "wrong@test.com"))
-                .build();
-
-        TransferBean bean = new TransferBean(sourceWalletId, sourceUserId, targetUserId, new Amount(BigDecimal.TEN));
-        when(walletRepository.findById(sourceWalletId)).thenReturn(Optional.of(sourceWallet));
-        when(walletRepository.findByCustomerId(targetUserId)).thenReturn(Optional.empty());
+        var request = new TransferRequest(sourceUserId, targetUserId, new Amount(BigDecimal.TEN));
+        when(walletOwnershipIndex.findCustomerId(sourceWalletId)).thenReturn(OptionalLong.of(sourceUserId));
+        when(walletOwnershipIndex.findWalletId(targetUserId)).thenReturn(OptionalLong.empty());
 
         // When & Then
-//        WalletNotFoundException exception = assertThrows(WalletNotFoundException.class,
-//                () -> transferService.execute(bean));
-//        assertEquals("Target wallet not found!", exception.getMessage());
-
-        verify(walletRepository).findById(sourceWalletId);
-        verify(walletRepository).findByCustomerId(targetUserId);
-        verifyNoMoreInteractions(walletRepository);
-        verifyNoInteractions(withdrawService, depositService, transactionLogService);
+        var exception = assertThrows(WalletNotFoundException.class,
+                () -> transferService.execute(sourceWalletId, request));
+        assertEquals("Target wallet not found!", exception.getMessage());
+
+        verify(walletOwnershipIndex).findCustomerId(sourceWalletId);
+        verify(walletOwnershipIndex).findWalletId(targetUserId);
+        verifyNoInteractions(walletRepository, transactionLogService, outboxService);
     }
 
     @Test
+    @SuppressWarnings("unchecked")
     void execute_shouldTransferAmountAndLogTransaction_whenValidTransfer() {
         // Given
         long sourceUserId = 1L;
         long targetUserId = 2L;
         long sourceWalletId = 10L;
         long targetWalletId = 20L;
-
-        Wallet sourceWallet = Wallet.builder()
-                .id(sourceWalletId)
-                .customer(new Customer(sourceUserId, "source@test.com"))
-                .build();
-
-        Wallet targetWallet = Wallet.builder()
-                .id(targetWalletId)
-                .customer(new Customer(targetUserId, "target@test.com"))
-                .build();
+        var sourceWallet = Wallet.builder().id(sourceWalletId).build();
+        var targetWallet = Wallet.builder().id(targetWalletId).build();
 
         Amount amount = new Amount(new BigDecimal("100.00"));
-        TransferBean bean = new TransferBean(sourceWalletId, sourceUserId, targetUserId, amount);
+        var request = new TransferRequest(sourceUserId, targetUserId, amount);
 
-        when(walletRepository.findById(sourceWalletId)).thenReturn(Optional.of(sourceWallet));
-        when(walletRepository.findByCustomerId(targetUserId)).thenReturn(Optional.of(targetWallet));
+        when(walletOwnershipIndex.findCustomerId(sourceWalletId)).thenReturn(OptionalLong.of(sourceUserId));
+        when(walletOwnershipIndex.findWalletId(targetUserId)).thenReturn(OptionalLong.of(targetWalletId));
+        when(walletRepository.getReferenceById(sourceWalletId)).thenReturn(sourceWallet);
+        when(walletRepository.getReferenceById(targetWalletId)).thenReturn(targetWallet);
 
         // When
-//        transferService.execute(bean);
+        var correlationId = transferService.execute(sourceWalletId, request);
 
         // Then
-        verify(walletRepository).findById(sourceWalletId);
-        verify(walletRepository).findByCustomerId(targetUserId);
-
-        verify(withdrawService).execute(new WithdrawBean(sourceWalletId, sourceUserId, amount));
-        // verify(depositService).execute(new DepositMessage(targetWalletId, targetUserId, amount));
-
-        ArgumentCaptor<TransactionLogBean> captor = ArgumentCaptor.forClass(TransactionLogBean.class);
-//        verify(transactionLogService).log(captor.capture());
-
-        TransactionLogBean logBean = captor.getValue();
-        assertEquals(sourceWallet, logBean.sourceWallet());
-        assertEquals(targetWallet, logBean.targetWallet());
-        assertEquals(OperationType.TRANSFER, logBean.operationType());
-        assertEquals(amount, logBean.amount());
+        ArgumentCaptor<List<TransactionLogBean>> captor = ArgumentCaptor.forClass(List.class);
+        verify(transactionLogService).logAll(captor.capture(), eq(TransactionStatus.PROCESSING));
+        assertEquals(List.of(
+                TransactionLogBean.buildWithdraw(sourceWallet, amount, correlationId),
+                TransactionLogBean.buildDeposit(targetWallet, amount, correlationId),
+                TransactionLogBean.buildTransfer(sourceWallet, targetWallet, amount, correlationId)),
+                captor.getValue());
+
+        verify(outboxService).enqueue(OperationType.TRANSFER, correlationId);
     }
 }
@@ -10,9 +10,9 @@ import static org.mockito.Mockito.when;
 import java.math.BigDecimal;
 import java.util.Optional;
 
-import com.service.wallet.api.domain.Customer;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -23,6 +23,7 @@ import com.service.wallet.api.type.Amount;
 import com.service.wallet.api.exception.WalletNotFoundException;
 import com.service.wallet.api.exception.WithdrawException;
 import com.service.wallet.api.repository.WalletRepository;
+import com.service.wallet.api.repository.projection.WalletOwner;
 
 @ExtendWith(MockitoExtension.class)
 class WithdrawServiceTest {
@@ -41,12 +42,12 @@ class WithdrawServiceTest {
         // Given
         long walletId = 1L;
         var withdrawBean = new WithdrawBean(walletId, 10L, new Amount(BigDecimal.TEN));
-        when(walletRepository.findById(walletId)).thenReturn(Optional.empty());
+        when(walletRepository.findOwnerById(walletId)).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(WalletNotFoundException.class, () -> withdrawService.execute(withdrawBean));
 
-        verify(walletRepository).findById(walletId);
+        verify(walletRepository).findOwnerById(walletId);
         verifyNoMoreInteractions(walletRepository);
         verifyNoInteractions(transactionLogService);
     }
@@ -57,16 +58,16 @@ class WithdrawServiceTest {
         long walletId = 1L;
         long correctUserId = 100L;
         long incorrectUserId = 999L;
-        var wallet = Wallet.of(new Customer(correctUserId, "email@test.com"), BigDecimal.valueOf(100));
+        var wallet = new WalletOwner(walletId, correctUserId, BigDecimal.valueOf(100));
         var withdrawBean = new WithdrawBean(walletId, incorrectUserId, new Amount(BigDecimal.TEN));
-        when(walletRepository.findById(walletId)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findOwnerById(walletId)).thenReturn(Optional.of(wallet));
 
         // When & Then
         var exception = assertThrows(WithdrawException.class, () -> withdrawService.execute(withdrawBean));
 
         assertEquals("The user can only withdraw from his own wallet!", exception.getMessage());
 
-        verify(walletRepository).findById(walletId);
+        verify(walletRepository).findOwnerById(walletId);
         verifyNoInteractions(transactionLogService);
     }
 
@@ -75,16 +76,16 @@ class WithdrawServiceTest {
         // Given
         long userId = 100L;
         long walletId = 1L;
-        var wallet = Wallet.of(new Customer(userId, "email@test.com"), BigDecimal.ZERO);
+        var wallet = new WalletOwner(walletId, userId, BigDecimal.ZERO);
         var withdrawBean = new WithdrawBean(walletId, userId, new Amount(BigDecimal.TEN));
-        when(walletRepository.findById(walletId)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findOwnerById(walletId)).thenReturn(Optional.of(wallet));
 
         // When & Then
         var exception = assertThrows(WithdrawException.class, () -> withdrawService.execute(withdrawBean));
 
         assertEquals("Wallet without balance!", exception.getMessage());
 
-        verify(walletRepository).findById(walletId);
+        verify(walletRepository).findOwnerById(walletId);
         verifyNoInteractions(transactionLogService);
     }
 
@@ -93,16 +94,16 @@ class WithdrawServiceTest {
         // Given
         long userId = 100L;
         long walletId = 1L;
-        var wallet = Wallet.of(new Customer(userId, "email@test.com"), BigDecimal.TEN);
+        var wallet = new WalletOwner(walletId, userId, BigDecimal.TEN);
         var withdrawBean = new WithdrawBean(walletId, userId, new Amount(BigDecimal.valueOf(20)));
-        when(walletRepository.findById(walletId)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findOwnerById(walletId)).thenReturn(Optional.of(wallet));
 
         // When & Then
         var exception = assertThrows(WithdrawException.class, () -> withdrawService.execute(withdrawBean));
 
         assertEquals("The amount to be withdrawn cannot be greater than the current balance!", exception.getMessage());
 
-        verify(walletRepository).findById(walletId);
+        verify(walletRepository).findOwnerById(walletId);
         verifyNoInteractions(transactionLogService);
     }
 
@@ -113,17 +114,18 @@ class WithdrawServiceTest {
         long walletId = 1L;
         var initialBalance = BigDecimal.valueOf(100);
         var amountToWithdraw = BigDecimal.valueOf(30);
-        var wallet = Wallet.of(new Customer(userId, "email@test.com"), initialBalance);
+        var wallet = new WalletOwner(walletId, userId, initialBalance);
         var withdrawBean = new WithdrawBean(walletId, userId, new Amount(amountToWithdraw));
 
-        when(walletRepository.findById(walletId)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findOwnerById(walletId)).thenReturn(Optional.of(wallet));
 
         // When & Then
         withdrawService.execute(withdrawBean);
 
-        assertEquals(initialBalance.subtract(amountToWithdraw), wallet.getBalance());
-        verify(walletRepository).findById(walletId);
-        verify(walletRepository).save(wallet);
+        var saved = ArgumentCaptor.forClass(Wallet.class);
+        verify(walletRepository).findOwnerById(walletId);
+        verify(walletRepository).save(saved.capture());
+        assertEquals(initialBalance.subtract(amountToWithdraw), saved.getValue().getBalance());
         // verify(transactionLogService)
         //         .log(TransactionLogBean.of(wallet, withdrawBean.amount(), OperationType.WITHDRAW));
     }
@@ -0,0 +1,143 @@
+package com.service.wallet.api.service;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.service.wallet.api.bean.WithdrawBean;
+import com.service.wallet.api.cache.WalletOwnershipIndex;
+import com.service.wallet.api.domain.Customer;
+import com.service.wallet.api.domain.Wallet;
+import com.service.wallet.api.dto.api.request.DepositRequest;
+import com.service.wallet.api.dto.api.request.TransferRequest;
+import com.service.wallet.api.queue.producer.DepositProducer;
+import com.service.wallet.api.queue.producer.TransferProducer;
+import com.service.wallet.api.type.Amount;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Statement budgets of the write operations, on an in-memory H2 database with
+ * the schema generated from the entities.
+ *
+ * <pre>
+ * Deposit:   owner read, sequence, log insert, sequence, outbox insert
+ * Withdraw:  owner read
+ * Transfer:  source owner read, target owner read, sequence, batched log
+ *            insert, sequence, outbox insert
+ *
+ * Once the owners are in the {@link WalletOwnershipIndex} and the sequences
+ * have a block of IDs, deposits and transfers are down to their two inserts.
+ * </pre>
+ *
+ * The sequences are pooled, so the sequence statements only happen on the
+ * first call of each block of IDs; they are part of the budget to keep it
+ * independent of the test order.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({ DepositService.class, WithdrawService.class, TransferService.class, TransactionLogService.class,
+        OutboxService.class, WalletOwnershipIndex.class, WriteServiceStatementCountTest.MeterRegistryConfig.class })
+class WriteServiceStatementCountTest {
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    DepositService depositService;
+
+    @Autowired
+    WithdrawService withdrawService;
+
+    @Autowired
+    TransferService transferService;
+
+    @MockitoBean
+    DepositProducer depositProducer;
+
+    @MockitoBean
+    TransferProducer transferProducer;
+
+    StatementCounter statementCounter;
+    Customer source;
+    Customer target;
+    Wallet sourceWallet;
+
+    @BeforeEach
+    void setUp() {
+        statementCounter = new StatementCounter(entityManager.getEntityManager());
+        source = entityManager.persist(Customer.builder().email("source@test.com").build());
+        target = entityManager.persist(Customer.builder().email("target@test.com").build());
+        sourceWallet = entityManager.persist(Wallet.of(source, new BigDecimal("100.00")));
+        entityManager.persist(Wallet.of(target, BigDecimal.ZERO));
+    }
+
+    @Test
+    void deposit_shouldStayWithinItsStatementBudget() {
+        // Given
+        var request = new DepositRequest(source.getId(), new Amount(BigDecimal.TEN));
+
+        // When & Then
+        statementCounter.assertAtMost(5, () -> depositService.execute(sourceWallet.getId(), request));
+    }
+
+    @Test
+    void withdraw_shouldStayWithinItsStatementBudget() {
+        // Given
+        var bean = new WithdrawBean(sourceWallet.getId(), source.getId(), new Amount(BigDecimal.TEN));
+
+        // When & Then
+        statementCounter.assertAtMost(1, () -> withdrawService.execute(bean));
+    }
+
+    @Test
+    void transfer_shouldStayWithinItsStatementBudget() {
+        // Given
+        var request = new TransferRequest(source.getId(), target.getId(), new Amount(BigDecimal.TEN));
+
+        // When & Then
+        statementCounter.assertAtMost(6, () -> transferService.execute(sourceWallet.getId(), request));
+    }
+
+    @Test
+    void deposit_shouldOnlyInsert_onceTheOwnerIsIndexed() {
+        // Given
+        var request = new DepositRequest(source.getId(), new Amount(BigDecimal.TEN));
+        depositService.execute(sourceWallet.getId(), request);
+
+        // When & Then
+        statementCounter.assertAtMost(2, () -> depositService.execute(sourceWallet.getId(), request));
+    }
+
+    @Test
+    void transfer_shouldOnlyInsert_onceTheOwnersAreIndexed() {
+        // Given
+        var request = new TransferRequest(source.getId(), target.getId(), new Amount(BigDecimal.TEN));
+        transferService.execute(sourceWallet.getId(), request);
+
+        // When & Then
+        statementCounter.assertAtMost(2, () -> transferService.execute(sourceWallet.getId(), request));
+    }
+
+    @TestConfiguration
+    static class MeterRegistryConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.service.wallet.api.type;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class MinorAmountTest {
+
+    @ParameterizedTest
+    @CsvSource({ "0, 0", "0.01, 1", "10, 1000", "1234.56, 123456", "0.005, 1", "0.004, 0", "-42.105, -4211" })
+    void toCents_shouldRoundHalfUpToCents(String value, long cents) {
+        // When & Then
+        assertEquals(cents, MinorAmount.toCents(new BigDecimal(value)));
+    }
+
+    @Test
+    void toCents_shouldThrowArithmeticException_whenValueDoesNotFitInALong() {
+        // Given
+        var value = new BigDecimal("100000000000000000000.00");
+
+        // When & Then
+        assertThrows(ArithmeticException.class, () -> MinorAmount.toCents(value));
+    }
+
+    @Test
+    void toAmount_shouldRestoreTheDecimalAmountWithTwoDecimals() {
+        // Given
+        var amount = new Amount(new BigDecimal("1234.5"));
+
+        // When
+        var restored = MinorAmount.of(amount).toAmount();
+
+        // Then
+        assertEquals(new BigDecimal("1234.50"), restored.value());
+    }
+}
@@ -0,0 +1,34 @@
+package com.service.wallet.api.type;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.service.wallet.api.exception.InvalidCursorException;
+
+class TransactionCursorTest {
+
+    @Test
+    void decode_shouldRestoreTheEncodedPosition() {
+        // Given
+        var cursor = new TransactionCursor(LocalDateTime.of(2025, 3, 1, 10, 15, 30, 123_456_000), 42L);
+
+        // When
+        var decoded = TransactionCursor.decode(cursor.encode());
+
+        // Then
+        assertEquals(cursor, decoded);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", "not base64!", "MjAyNS0wMy0wMVQxMDoxNQ", "MjAyNS0wMy0wMVQxMDoxNXxhYmM" })
+    void decode_shouldThrowInvalidCursorException_whenTheTokenIsMalformed(String token) {
+        // When & Then
+        assertThrows(InvalidCursorException.class, () -> TransactionCursor.decode(token));
+    }
+}
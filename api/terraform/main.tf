@@ -16,10 +16,46 @@ variable "account_id" {
   default     = "932043840972"
 }
 
+variable "max_receive_count" {
+  description = "Receives after which SQS moves a message to its DLQ. The processor parks poison messages earlier (aws.sqs.*.max-attempts); this is the safety net."
+  default     = 10
+}
+
+variable "visibility_timeout_seconds" {
+  description = "Default visibility timeout of the queues. The processor extends it with heartbeats while a batch is in progress."
+  default     = 60
+}
+
+resource "aws_sqs_queue" "deposit_dlq" {
+  name                      = "deposit_dlq"
+  message_retention_seconds = 1209600
+}
+
 resource "aws_sqs_queue" "deposit_queue" {
-  name                        = "deposit_queue"
+  name                       = "deposit_queue"
+  visibility_timeout_seconds = var.visibility_timeout_seconds
+
+  redrive_policy = jsonencode({
+    deadLetterTargetArn = aws_sqs_queue.deposit_dlq.arn
+    maxReceiveCount     = var.max_receive_count
+  })
+}
+
+resource "aws_sqs_queue" "transfer_dlq" {
+  name                      = "transfer_dlq"
+  message_retention_seconds = 1209600
 }
 
 resource "aws_sqs_queue" "transfer_queue" {
-  name                        = "transfer_queue"
+  name                       = "transfer_queue"
+  visibility_timeout_seconds = var.visibility_timeout_seconds
+
+  redrive_policy = jsonencode({
+    deadLetterTargetArn = aws_sqs_queue.transfer_dlq.arn
+    maxReceiveCount     = var.max_receive_count
+  })
+}
+
+resource "aws_s3_bucket" "statements" {
+  bucket = "wallet-statements"
 }
@@ -0,0 +1,76 @@
+package com.service.wallet.benchmarks.api;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.service.wallet.api.dto.api.request.WithdrawRequest;
+import com.service.wallet.api.type.Amount;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+
+/**
+ * Bean validation of {@link Amount}, on its own and cascaded from the request
+ * bodies, as done for every deposit, withdrawal and transfer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AmountValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private Amount validAmount;
+    private Amount invalidAmount;
+    private WithdrawRequest withdrawRequest;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        validAmount = new Amount(new BigDecimal("125.50"));
+        invalidAmount = new Amount(new BigDecimal("-1.00"));
+        withdrawRequest = new WithdrawRequest(1L, validAmount);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Amount>> validAmount() {
+        return validator.validate(validAmount);
+    }
+
+    /**
+     * Rejected amounts build a violation with an interpolated message.
+     */
+    @Benchmark
+    public Set<ConstraintViolation<Amount>> invalidAmount() {
+        return validator.validate(invalidAmount);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<WithdrawRequest>> cascadedFromRequest() {
+        return validator.validate(withdrawRequest);
+    }
+}
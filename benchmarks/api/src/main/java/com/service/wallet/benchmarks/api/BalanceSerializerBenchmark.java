@@ -0,0 +1,72 @@
+package com.service.wallet.benchmarks.api;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import com.service.wallet.api.cache.BigDecimalRedisSerializer;
+import com.service.wallet.api.config.RedisConfig;
+
+/**
+ * Redis value serialization of the caches configured in {@link RedisConfig}:
+ * the binary serializer of the {@code balances} cache against the JSON
+ * serializer every other cache (and {@code balances}, before) uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BalanceSerializerBenchmark {
+
+    @Param({ "0.00", "1234.56", "98765432109876.54" })
+    String balance;
+
+    private final BigDecimalRedisSerializer binarySerializer = (BigDecimalRedisSerializer) new RedisConfig()
+            .balancesValueSerializer().serializer();
+    private final GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer();
+
+    private BigDecimal value;
+    private byte[] binaryBytes;
+    private byte[] jsonBytes;
+
+    @Setup
+    public void setUp() {
+        value = new BigDecimal(balance);
+        binaryBytes = binarySerializer.serialize(value);
+        jsonBytes = jsonSerializer.serialize(value);
+    }
+
+    @Benchmark
+    public byte[] serializeBinary() {
+        return binarySerializer.serialize(value);
+    }
+
+    @Benchmark
+    public byte[] serializeJson() {
+        return jsonSerializer.serialize(value);
+    }
+
+    @Benchmark
+    public BigDecimal deserializeBinary() {
+        return binarySerializer.deserialize(binaryBytes);
+    }
+
+    @Benchmark
+    public Object deserializeJson() {
+        return jsonSerializer.deserialize(jsonBytes);
+    }
+}
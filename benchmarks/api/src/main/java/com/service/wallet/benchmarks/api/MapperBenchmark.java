@@ -0,0 +1,60 @@
+package com.service.wallet.benchmarks.api;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.service.wallet.api.bean.WithdrawBean;
+import com.service.wallet.api.domain.Wallet;
+import com.service.wallet.api.dto.api.request.WithdrawRequest;
+import com.service.wallet.api.dto.api.response.WalletResponse;
+import com.service.wallet.api.mapper.WalletMapper;
+import com.service.wallet.api.mapper.WithdrawMapper;
+import com.service.wallet.api.type.Amount;
+
+/**
+ * The MapStruct generated {@link WithdrawMapper} and {@link WalletMapper}
+ * used on the withdraw and wallet endpoints.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private WithdrawMapper withdrawMapper;
+    private WalletMapper walletMapper;
+    private WithdrawRequest withdrawRequest;
+    private Wallet wallet;
+
+    @Setup
+    public void setUp() {
+        withdrawMapper = Mappers.getMapper(WithdrawMapper.class);
+        walletMapper = Mappers.getMapper(WalletMapper.class);
+        withdrawRequest = new WithdrawRequest(1L, new Amount(new BigDecimal("125.50")));
+        wallet = Wallet.builder().id(1L).balance(new BigDecimal("1000.00")).build();
+    }
+
+    @Benchmark
+    public WithdrawBean toWithdrawBean() {
+        return withdrawMapper.toWithdrawBean(1L, withdrawRequest);
+    }
+
+    @Benchmark
+    public WalletResponse fromWalletToResponse() {
+        return walletMapper.fromWalletToResponse(wallet);
+    }
+}
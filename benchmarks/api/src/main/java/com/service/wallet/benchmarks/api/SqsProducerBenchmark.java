@@ -0,0 +1,73 @@
+package com.service.wallet.benchmarks.api;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.service.wallet.api.dto.messaging.TransactionCorrelationId;
+import com.service.wallet.api.queue.producer.SqsMessageSender;
+import com.service.wallet.api.queue.producer.SqsProducer;
+
+/**
+ * Serialization of the {@link TransactionCorrelationId} published by the
+ * deposit and transfer producers, alone and through {@link SqsProducer#send}
+ * with a sender that completes immediately, so no SQS call is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SqsProducerBenchmark {
+
+    private static final CompletableFuture<String> SENT = CompletableFuture.completedFuture("message-id");
+
+    private ObjectMapper objectMapper;
+    private TransactionCorrelationId content;
+    private SqsProducer<TransactionCorrelationId> producer;
+
+    @Setup
+    public void setUp() {
+        // Same defaults as the ObjectMapper auto-configured by Spring Boot
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        content = new TransactionCorrelationId(UUID.randomUUID());
+        producer = new BenchmarkProducer((queueUrl, messageBody) -> SENT, objectMapper);
+    }
+
+    @Benchmark
+    public String writeValueAsString() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(content);
+    }
+
+    @Benchmark
+    public CompletableFuture<String> send() {
+        return producer.send(content);
+    }
+
+    private static final class BenchmarkProducer extends SqsProducer<TransactionCorrelationId> {
+
+        BenchmarkProducer(SqsMessageSender messageSender, ObjectMapper objectMapper) {
+            super(messageSender, objectMapper);
+        }
+
+        @Override
+        protected String getQueueUrl() {
+            return "http://localhost:4566/000000000000/deposit-queue";
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.service.wallet.benchmarks.api;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.service.wallet.api.bean.TransactionLogBean;
+import com.service.wallet.api.domain.Wallet;
+import com.service.wallet.api.type.Amount;
+
+/**
+ * Construction of the {@link TransactionLogBean}s logged by every deposit,
+ * withdrawal and transfer (a transfer builds three of them).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionLogBeanBenchmark {
+
+    private Wallet sourceWallet;
+    private Wallet targetWallet;
+    private Amount amount;
+    private UUID correlationId;
+
+    @Setup
+    public void setUp() {
+        sourceWallet = Wallet.builder().id(1L).balance(new BigDecimal("1000.00")).build();
+        targetWallet = Wallet.builder().id(2L).balance(new BigDecimal("250.00")).build();
+        amount = new Amount(new BigDecimal("125.50"));
+        correlationId = UUID.randomUUID();
+    }
+
+    @Benchmark
+    public TransactionLogBean buildDeposit() {
+        return TransactionLogBean.buildDeposit(targetWallet, amount, correlationId);
+    }
+
+    @Benchmark
+    public TransactionLogBean buildWithdraw() {
+        return TransactionLogBean.buildWithdraw(sourceWallet, amount, correlationId);
+    }
+
+    @Benchmark
+    public List<TransactionLogBean> buildTransfer() {
+        return List.of(
+                TransactionLogBean.buildWithdraw(sourceWallet, amount, correlationId),
+                TransactionLogBean.buildDeposit(targetWallet, amount, correlationId),
+                TransactionLogBean.buildTransfer(sourceWallet, targetWallet, amount, correlationId));
+    }
+
+    /**
+     * Includes the random correlation ID the services create per request.
+     */
+    @Benchmark
+    public TransactionLogBean buildDepositWithNewCorrelationId() {
+        return TransactionLogBean.buildDeposit(targetWallet, amount, UUID.randomUUID());
+    }
+}
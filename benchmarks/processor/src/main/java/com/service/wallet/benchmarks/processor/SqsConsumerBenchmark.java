@@ -0,0 +1,175 @@
+package com.service.wallet.benchmarks.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.service.wallet.processor.config.sqs.QueueProperty;
+import com.service.wallet.processor.dto.messaging.TransactionCorrelationId;
+import com.service.wallet.processor.exception.QueueException;
+import com.service.wallet.processor.queue.consumer.SqsConsumer;
+
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageResponse;
+
+/**
+ * Deserialization of a received batch into {@link TransactionCorrelationId}s,
+ * message by message as the consumer pipeline does, and through
+ * {@link SqsConsumer#consume} with a client that returns the batch without
+ * calling SQS.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SqsConsumerBenchmark {
+
+    /**
+     * SQS returns at most 10 messages per receive call.
+     */
+    @Param({ "1", "10" })
+    int batchSize;
+
+    private SqsConsumer sqsConsumer;
+    private QueueProperty queueProperty;
+    private List<Message> messages;
+
+    @Setup
+    public void setUp() {
+        messages = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            messages.add(Message.builder()
+                    .messageId(UUID.randomUUID().toString())
+                    .receiptHandle(UUID.randomUUID().toString())
+                    .body("{\"transactionCorrelationId\":\"" + UUID.randomUUID() + "\"}")
+                    .build());
+        }
+
+        var response = ReceiveMessageResponse.builder().messages(messages).build();
+        sqsConsumer = new SqsConsumer(new BatchSqsClient(response), Jackson2ObjectMapperBuilder.json().build());
+        queueProperty = new BenchmarkQueueProperty();
+    }
+
+    @Benchmark
+    public List<TransactionCorrelationId> deserializeBatch() throws QueueException {
+        List<TransactionCorrelationId> payloads = new ArrayList<>(messages.size());
+        for (var message : messages) {
+            payloads.add(sqsConsumer.deserialize(message, TransactionCorrelationId.class));
+        }
+
+        return payloads;
+    }
+
+    @Benchmark
+    public List<TransactionCorrelationId> consume() throws QueueException {
+        return sqsConsumer.consume(queueProperty, TransactionCorrelationId.class);
+    }
+
+    private record BatchSqsClient(ReceiveMessageResponse response) implements SqsClient {
+
+        @Override
+        public ReceiveMessageResponse receiveMessage(ReceiveMessageRequest receiveMessageRequest) {
+            return response;
+        }
+
+        @Override
+        public String serviceName() {
+            return SERVICE_NAME;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static final class BenchmarkQueueProperty implements QueueProperty {
+
+        @Override
+        public String getUrl() {
+            return "http://localhost:4566/000000000000/deposit-queue";
+        }
+
+        @Override
+        public Integer getMaxNumberOfMessages() {
+            return 10;
+        }
+
+        @Override
+        public Integer getWaitTimeSeconds() {
+            return 20;
+        }
+
+        @Override
+        public Integer getVisibilityTimeout() {
+            return 30;
+        }
+
+        @Override
+        public Integer getReceivers() {
+            return 1;
+        }
+
+        @Override
+        public Integer getWorkers() {
+            return 1;
+        }
+
+        @Override
+        public Integer getPrefetch() {
+            return 1;
+        }
+
+        @Override
+        public Integer getMinReceivers() {
+            return 1;
+        }
+
+        @Override
+        public Integer getMinWorkers() {
+            return 1;
+        }
+
+        @Override
+        public Integer getTargetBacklogPerReceiver() {
+            return 100;
+        }
+
+        @Override
+        public String getDeadLetterQueueUrl() {
+            return "http://localhost:4566/000000000000/deposit-dlq";
+        }
+
+        @Override
+        public Integer getMaxAttempts() {
+            return 5;
+        }
+
+        @Override
+        public Integer getRetryBackoff() {
+            return 5;
+        }
+
+        @Override
+        public Integer getMaxRetryBackoff() {
+            return 900;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.service.wallet.common.cache;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Layout of the {@code balances} Redis cache, shared by the API, which reads
+ * it and fills missing entries, and the processor, which writes the settled
+ * balances.
+ *
+ * <pre>
+ * Key:    KEY_PREFIX + wallet id, e.g. balances:v1::42
+ * TTL:    ENTRY_TTL
+ * Value:  [format][scale, zig-zag varint][unscaled value, big-endian two's complement]
+ *
+ * A balance such as 1234.56 takes 5 bytes, against roughly 30 bytes of JSON
+ * with its class metadata, and is decoded without any parsing.
+ * </pre>
+ *
+ * The key prefix carries the format version. The API only fills absent
+ * entries (SET NX), so an entry it cannot decode would never be replaced and
+ * would read as a miss until it expires; a new layout must therefore bump
+ * {@code FORMAT}, which moves the cache to a new keyspace and leaves the old
+ * entries to expire unread. The {@code balances::} keyspace holds the JSON
+ * entries written before this format.
+ */
+public final class WalletBalanceCacheFormat {
+
+    static final byte FORMAT = 1;
+
+    public static final String CACHE_NAME = "balances";
+    public static final String KEY_PREFIX = CACHE_NAME + ":v" + FORMAT + "::";
+    public static final Duration ENTRY_TTL = Duration.ofHours(2);
+
+    private WalletBalanceCacheFormat() {
+    }
+
+    public static byte[] key(long walletId) {
+        return (KEY_PREFIX + walletId).getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static byte[] encode(BigDecimal value) {
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        int scale = (value.scale() << 1) ^ (value.scale() >> 31);
+
+        byte[] bytes = new byte[1 + varIntSize(scale) + unscaled.length];
+        bytes[0] = FORMAT;
+        int position = 1;
+        while ((scale & ~0x7F) != 0) {
+            bytes[position++] = (byte) ((scale & 0x7F) | 0x80);
+            scale >>>= 7;
+        }
+        bytes[position++] = (byte) scale;
+        System.arraycopy(unscaled, 0, bytes, position, unscaled.length);
+
+        return bytes;
+    }
+
+    /**
+     * @return the balance, or {@code null} when the bytes are not in this format
+     */
+    public static BigDecimal decode(byte[] bytes) {
+        if (bytes == null || bytes.length < 3 || bytes[0] != FORMAT) {
+            return null;
+        }
+
+        int scale = 0;
+        int shift = 0;
+        int position = 1;
+        byte current;
+        do {
+            if (position >= bytes.length || shift > 28) {
+                return null;
+            }
+
+            current = bytes[position++];
+            scale |= (current & 0x7F) << shift;
+            shift += 7;
+        } while ((current & 0x80) != 0);
+
+        if (position >= bytes.length) {
+            return null;
+        }
+
+        var unscaled = new BigInteger(Arrays.copyOfRange(bytes, position, bytes.length));
+        return new BigDecimal(unscaled, (scale >>> 1) ^ -(scale & 1));
+    }
+
+    private static int varIntSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+
+        return size;
+    }
+}
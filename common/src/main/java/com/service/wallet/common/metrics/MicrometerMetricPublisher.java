@@ -0,0 +1,98 @@
+package com.service.wallet.common.metrics;
+
+import java.time.Duration;
+import java.util.List;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import software.amazon.awssdk.core.metrics.CoreMetric;
+import software.amazon.awssdk.http.HttpMetric;
+import software.amazon.awssdk.metrics.MetricCollection;
+import software.amazon.awssdk.metrics.MetricPublisher;
+import software.amazon.awssdk.metrics.SdkMetric;
+
+/**
+ * Bridges the metrics collected by the AWS SDK for every API call into
+ * Micrometer.
+ *
+ * <pre>
+ * Meters, tagged with the service and operation (e.g. Sqs / SendMessageBatch, S3 / PutObject):
+ *   - aws.sdk.call                 duration of the whole call, retries included (outcome)
+ *   - aws.sdk.call.retries         retries performed by the SDK
+ *   - aws.sdk.call.attempt         duration of each HTTP attempt (status)
+ *   - aws.sdk.http.acquire         time waiting for a connection of the HTTP client pool
+ * </pre>
+ */
+public class MicrometerMetricPublisher implements MetricPublisher {
+
+    private static final String API_CALL_ATTEMPT = "ApiCallAttempt";
+    private static final String HTTP_CLIENT = "HttpClient";
+
+    private final MeterRegistry meterRegistry;
+
+    public MicrometerMetricPublisher(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void publish(MetricCollection metricCollection) {
+        Tags tags = Tags.of(
+                "service", first(metricCollection, CoreMetric.SERVICE_ID, "unknown"),
+                "operation", first(metricCollection, CoreMetric.OPERATION_NAME, "unknown"));
+
+        Duration callDuration = first(metricCollection, CoreMetric.API_CALL_DURATION, null);
+        if (callDuration != null) {
+            boolean successful = first(metricCollection, CoreMetric.API_CALL_SUCCESSFUL, false);
+            timer("aws.sdk.call", "Duration of AWS SDK calls, retries included",
+                    tags.and("outcome", successful ? "success" : "failure")).record(callDuration);
+        }
+
+        Integer retries = first(metricCollection, CoreMetric.RETRY_COUNT, 0);
+        if (retries > 0) {
+            Counter.builder("aws.sdk.call.retries")
+                    .description("Retries performed by the AWS SDK")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .increment(retries);
+        }
+
+        metricCollection.childrenWithName(API_CALL_ATTEMPT).forEach(attempt -> publishAttempt(attempt, tags));
+    }
+
+    @Override
+    public void close() {
+        // Meters are owned by the registry
+    }
+
+    private void publishAttempt(MetricCollection attempt, Tags tags) {
+        Duration attemptDuration = first(attempt, CoreMetric.SERVICE_CALL_DURATION, null);
+        if (attemptDuration != null) {
+            Integer status = first(attempt, HttpMetric.HTTP_STATUS_CODE, null);
+            timer("aws.sdk.call.attempt", "Duration of each HTTP attempt of AWS SDK calls",
+                    tags.and("status", status == null ? "none" : status.toString())).record(attemptDuration);
+        }
+
+        attempt.childrenWithName(HTTP_CLIENT).forEach(httpClient -> {
+            Duration acquireDuration = first(httpClient, HttpMetric.CONCURRENCY_ACQUIRE_DURATION, null);
+            if (acquireDuration != null) {
+                timer("aws.sdk.http.acquire", "Time waiting for a connection of the AWS SDK HTTP client",
+                        tags).record(acquireDuration);
+            }
+        });
+    }
+
+    private Timer timer(String name, String description, Tags tags) {
+        return Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    private static <T> T first(MetricCollection metricCollection, SdkMetric<T> metric, T defaultValue) {
+        List<T> values = metricCollection.metricValues(metric);
+        return values.isEmpty() ? defaultValue : values.get(0);
+    }
+}
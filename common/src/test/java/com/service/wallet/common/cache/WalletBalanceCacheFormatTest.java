@@ -0,0 +1,55 @@
+package com.service.wallet.common.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class WalletBalanceCacheFormatTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = { "0", "0.00", "1234.56", "-42.10", "98765432109876543210.123456789", "1E+300",
+            "1E-300" })
+    void decode_shouldRestoreValueAndScale_whenEncodedByThisFormat(String value) {
+        // Given
+        var balance = new BigDecimal(value);
+
+        // When
+        var restored = WalletBalanceCacheFormat.decode(WalletBalanceCacheFormat.encode(balance));
+
+        // Then
+        assertEquals(balance, restored);
+        assertEquals(balance.scale(), restored.scale());
+    }
+
+    @Test
+    void encode_shouldUseTheDocumentedLayout() {
+        // When & Then
+        assertArrayEquals(new byte[] { 1, 4, 0x01, (byte) 0xE2, 0x40 },
+                WalletBalanceCacheFormat.encode(new BigDecimal("1234.56")));
+        assertArrayEquals(new byte[] { 1, 4, (byte) 0xF6 }, WalletBalanceCacheFormat.encode(new BigDecimal("-0.10")));
+        assertArrayEquals(new byte[] { 1, 0, 0 }, WalletBalanceCacheFormat.encode(BigDecimal.ZERO));
+    }
+
+    @Test
+    void decode_shouldReturnNull_whenValueIsInAnotherFormat() {
+        // Given
+        var json = "[\"java.math.BigDecimal\",10.00]".getBytes(StandardCharsets.UTF_8);
+
+        // When & Then
+        assertNull(WalletBalanceCacheFormat.decode(json));
+        assertNull(WalletBalanceCacheFormat.decode(new byte[] { 1, (byte) 0x80 }));
+    }
+
+    @Test
+    void key_shouldBeTheVersionedPrefixFollowedByTheWalletId() {
+        // When & Then
+        assertEquals("balances:v1::42", new String(WalletBalanceCacheFormat.key(42), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,76 @@
+package com.service.wallet.common.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import software.amazon.awssdk.core.metrics.CoreMetric;
+import software.amazon.awssdk.http.HttpMetric;
+import software.amazon.awssdk.metrics.MetricCollector;
+
+class MicrometerMetricPublisherTest {
+
+    SimpleMeterRegistry registry;
+    MicrometerMetricPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        publisher = new MicrometerMetricPublisher(registry);
+    }
+
+    @Test
+    void publish_shouldRecordCallAttemptsAndConnectionWait_whenCallSucceeded() {
+        // Given
+        var apiCall = apiCall("SendMessageBatch", true, Duration.ofMillis(40), 1);
+        var attempt = apiCall.createChild("ApiCallAttempt");
+        attempt.reportMetric(CoreMetric.SERVICE_CALL_DURATION, Duration.ofMillis(30));
+        attempt.reportMetric(HttpMetric.HTTP_STATUS_CODE, 200);
+        attempt.createChild("HttpClient").reportMetric(HttpMetric.CONCURRENCY_ACQUIRE_DURATION, Duration.ofMillis(5));
+
+        // When
+        publisher.publish(apiCall.collect());
+
+        // Then
+        var call = registry.get("aws.sdk.call")
+                .tags("service", "Sqs", "operation", "SendMessageBatch", "outcome", "success")
+                .timer();
+        assertEquals(1, call.count());
+        assertEquals(40, call.totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(1, registry.get("aws.sdk.call.retries").counter().count());
+        assertEquals(30, registry.get("aws.sdk.call.attempt").tag("status", "200").timer()
+                .totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(5, registry.get("aws.sdk.http.acquire").timer().totalTime(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void publish_shouldTagFailureWithoutRetries_whenCallFailedOnFirstAttempt() {
+        // Given
+        var apiCall = apiCall("ReceiveMessage", false, Duration.ofMillis(10), 0);
+        apiCall.createChild("ApiCallAttempt").reportMetric(CoreMetric.SERVICE_CALL_DURATION, Duration.ofMillis(10));
+
+        // When
+        publisher.publish(apiCall.collect());
+
+        // Then
+        assertEquals(1, registry.get("aws.sdk.call").tag("outcome", "failure").timer().count());
+        assertEquals(1, registry.get("aws.sdk.call.attempt").tag("status", "none").timer().count());
+        assertNull(registry.find("aws.sdk.call.retries").counter());
+    }
+
+    private static MetricCollector apiCall(String operation, boolean successful, Duration duration, int retries) {
+        var apiCall = MetricCollector.create("ApiCall");
+        apiCall.reportMetric(CoreMetric.SERVICE_ID, "Sqs");
+        apiCall.reportMetric(CoreMetric.OPERATION_NAME, operation);
+        apiCall.reportMetric(CoreMetric.API_CALL_SUCCESSFUL, successful);
+        apiCall.reportMetric(CoreMetric.API_CALL_DURATION, duration);
+        apiCall.reportMetric(CoreMetric.RETRY_COUNT, retries);
+        return apiCall;
+    }
+}
@@ -0,0 +1,95 @@
+package com.service.wallet.common.test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.asm.ClassReader;
+import org.springframework.asm.ClassVisitor;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.SpringAsmInfo;
+
+/**
+ * Finds the {@code synchronized} methods and blocks of a module's compiled
+ * classes, which pin the carrier thread of a virtual thread that blocks
+ * inside them on Java 21. Shared by the {@code VirtualThreadPinningTest} of
+ * the api and the processor through this module's test jar.
+ */
+public final class SynchronizedScanner {
+
+    private SynchronizedScanner() {
+    }
+
+    /**
+     * @param anchor any class of the module to scan
+     * @return the {@code Class#method} of every method that is
+     *         {@code synchronized} or enters a monitor, in the classes
+     *         directory {@code anchor} was loaded from
+     */
+    public static List<String> scanModuleOf(Class<?> anchor) {
+        List<String> violations = new ArrayList<>();
+
+        try (Stream<Path> classes = Files.walk(classesRoot(anchor))) {
+            for (Path classFile : classes.filter(path -> path.toString().endsWith(".class")).toList()) {
+                try (InputStream input = Files.newInputStream(classFile)) {
+                    new ClassReader(input).accept(new SynchronizedFinder(violations), ClassReader.SKIP_DEBUG);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return violations;
+    }
+
+    private static Path classesRoot(Class<?> anchor) {
+        try {
+            return Path.of(anchor.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Cannot locate the classes of " + anchor.getName(), e);
+        }
+    }
+
+    private static final class SynchronizedFinder extends ClassVisitor {
+
+        private final List<String> violations;
+        private String className;
+
+        SynchronizedFinder(List<String> violations) {
+            super(SpringAsmInfo.ASM_VERSION);
+            this.violations = violations;
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName,
+                String[] interfaces) {
+            className = name.replace('/', '.');
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature,
+                String[] exceptions) {
+            String method = className + "#" + name;
+            if ((access & Opcodes.ACC_SYNCHRONIZED) != 0) {
+                violations.add(method);
+            }
+
+            return new MethodVisitor(SpringAsmInfo.ASM_VERSION) {
+
+                @Override
+                public void visitInsn(int opcode) {
+                    if (opcode == Opcodes.MONITORENTER) {
+                        violations.add(method);
+                    }
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.service.wallet.processor.cache;
+
+import com.service.wallet.common.cache.WalletBalanceCacheFormat;
+import com.service.wallet.processor.dto.settlement.SettlementResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes the settled balances to the API's {@code balances} Redis cache.
+ * <p>
+ * The processor is the only writer of settled balances: the settlement calls
+ * this while it still holds the locks of the affected wallets, so the writes
+ * of a wallet happen in the order its balance changed. The API only fills an
+ * absent entry on a cache miss and never overwrites one.
+ * </p>
+ * <p>
+ * The key, entry TTL and value layout come from {@link WalletBalanceCacheFormat},
+ * which the API's cache uses as well.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WalletBalanceCacheWriter {
+
+    private static final Expiration EXPIRATION = Expiration.from(WalletBalanceCacheFormat.ENTRY_TTL);
+
+    private final StringRedisTemplate redisTemplate;
+
+    /**
+     * Overwrites the cached balance of every wallet of a settled batch, in one
+     * pipelined round trip. A failure is only logged: the settlement is already
+     * committed and the cached balances expire on their own.
+     */
+    public void write(SettlementResult result) {
+        if (result.balances().isEmpty()) {
+            return;
+        }
+
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                result.balances().forEach((walletId, balance) -> connection.stringCommands().set(
+                        WalletBalanceCacheFormat.key(walletId), WalletBalanceCacheFormat.encode(balance), EXPIRATION,
+                        SetOption.upsert()));
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed to cache the settled balance of wallets {}", result.affectedWalletIds(), e);
+        }
+    }
+}
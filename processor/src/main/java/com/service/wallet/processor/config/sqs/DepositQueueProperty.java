@@ -9,4 +9,16 @@ public class DepositQueueProperty implements QueueProperty {
 
     String url;
     Integer maxNumberOfMessages;
+    Integer waitTimeSeconds;
+    Integer visibilityTimeout;
+    Integer receivers;
+    Integer workers;
+    Integer prefetch;
+    Integer minReceivers;
+    Integer minWorkers;
+    Integer targetBacklogPerReceiver;
+    String deadLetterQueueUrl;
+    Integer maxAttempts;
+    Integer retryBackoff;
+    Integer maxRetryBackoff;
 }
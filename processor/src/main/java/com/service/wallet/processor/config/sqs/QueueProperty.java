@@ -1,7 +1,42 @@
 package com.service.wallet.processor.config.sqs;
 
+/**
+ * Per-queue consumer settings.
+ *
+ * <pre>
+ *   - url                   the SQS queue URL
+ *   - maxNumberOfMessages   messages per ReceiveMessage call (1..10)
+ *   - waitTimeSeconds       long-polling wait of each receive call (0..20)
+ *   - visibilityTimeout     seconds a received message stays hidden from other receivers
+ *   - receivers             maximum number of concurrent long-polling receivers
+ *   - workers               maximum number of virtual-thread workers processing received batches
+ *   - minReceivers          receivers kept polling when the queue is empty (0 leaves
+ *                           the queue to the autoscaler alone)
+ *   - minWorkers            workers kept when the queue is empty
+ *   - targetBacklogPerReceiver  visible messages each active receiver is expected to drain;
+ *                           the autoscaler runs ceil(backlog / target) receivers
+ *   - prefetch              received batches buffered between receivers and workers
+ *   - deadLetterQueueUrl    queue where poison and unreadable messages are parked
+ *   - maxAttempts           receives after which a failing message is parked on the DLQ
+ *   - retryBackoff          seconds a failed message stays hidden after its first attempt,
+ *                           doubled on every further attempt
+ *   - maxRetryBackoff       upper bound of the retry backoff in seconds
+ * </pre>
+ */
 public interface QueueProperty {
 
     String getUrl();
     Integer getMaxNumberOfMessages();
+    Integer getWaitTimeSeconds();
+    Integer getVisibilityTimeout();
+    Integer getReceivers();
+    Integer getWorkers();
+    Integer getPrefetch();
+    Integer getMinReceivers();
+    Integer getMinWorkers();
+    Integer getTargetBacklogPerReceiver();
+    String getDeadLetterQueueUrl();
+    Integer getMaxAttempts();
+    Integer getRetryBackoff();
+    Integer getMaxRetryBackoff();
 }
@@ -1,5 +1,7 @@
 package com.service.wallet.processor.config.sqs;
 
+import com.service.wallet.common.metrics.MicrometerMetricPublisher;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -25,11 +27,17 @@ public class SqsConfiguration {
     private static final String ENDPOINT_URL = "http://localhost:4566";
 
     @Bean
-    public SqsClient sqsClient() {
+    public MicrometerMetricPublisher sdkMetricPublisher(MeterRegistry meterRegistry) {
+        return new MicrometerMetricPublisher(meterRegistry);
+    }
+
+    @Bean
+    public SqsClient sqsClient(MicrometerMetricPublisher sdkMetricPublisher) {
         return SqsClient.builder()
                 .region(Region.of(region))
                 .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)))
                 .endpointOverride(URI.create(ENDPOINT_URL))
+                .overrideConfiguration(configuration -> configuration.addMetricPublisher(sdkMetricPublisher))
                 .build();
     }
 }
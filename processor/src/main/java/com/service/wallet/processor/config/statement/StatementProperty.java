@@ -0,0 +1,23 @@
+package com.service.wallet.processor.config.statement;
+
+import lombok.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Value
+@ConfigurationProperties(prefix = "wallet.statements")
+public class StatementProperty {
+
+    Boolean enabled;
+    Boolean resumeOnStartup;
+    Integer chunkSize;
+    Integer parallelism;
+    Integer fetchSize;
+    Duration claimTimeout;
+    String keyPrefix;
+    String store;
+    String localDirectory;
+    String endpoint;
+    String bucket;
+}
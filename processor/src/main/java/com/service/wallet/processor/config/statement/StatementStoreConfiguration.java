@@ -0,0 +1,62 @@
+package com.service.wallet.processor.config.statement;
+
+import com.service.wallet.common.metrics.MicrometerMetricPublisher;
+import com.service.wallet.processor.statement.LocalStatementStore;
+import com.service.wallet.processor.statement.S3StatementStore;
+import com.service.wallet.processor.statement.StatementStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+
+import java.net.URI;
+import java.nio.file.Path;
+
+/**
+ * Selects where the statement files go through {@code wallet.statements.store}:
+ * {@code local} (a directory, the default) or {@code s3}.
+ */
+@Configuration
+public class StatementStoreConfiguration {
+
+    private static final String STORE_PROPERTY = "wallet.statements.store";
+
+    @Value("${aws.region}")
+    private String region;
+
+    @Value("${aws.access-key}")
+    private String accessKey;
+
+    @Value("${aws.secret-key}")
+    private String secretKey;
+
+    @Bean
+    @ConditionalOnProperty(name = STORE_PROPERTY, havingValue = "s3")
+    public S3Client s3Client(MicrometerMetricPublisher sdkMetricPublisher, StatementProperty statementProperty) {
+        return S3Client.builder()
+                .region(Region.of(region))
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)))
+                .endpointOverride(URI.create(statementProperty.getEndpoint()))
+                // LocalStack and MinIO do not resolve virtual-hosted bucket names
+                .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build())
+                .overrideConfiguration(configuration -> configuration.addMetricPublisher(sdkMetricPublisher))
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = STORE_PROPERTY, havingValue = "s3")
+    public StatementStore s3StatementStore(S3Client s3Client, StatementProperty statementProperty) {
+        return new S3StatementStore(s3Client, statementProperty.getBucket());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = STORE_PROPERTY, havingValue = "local", matchIfMissing = true)
+    public StatementStore localStatementStore(StatementProperty statementProperty) {
+        return new LocalStatementStore(Path.of(statementProperty.getLocalDirectory()));
+    }
+}
@@ -35,7 +35,7 @@ import java.util.UUID;
 public class TransactionLog {
 
     @Id
-    @SequenceGenerator(name = "transaction_log_id_seq", sequenceName = "transaction_log_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "transaction_log_id_seq", sequenceName = "transaction_log_id_seq", allocationSize = 50)
     @GeneratedValue(generator = "transaction_log_id_seq", strategy = GenerationType.SEQUENCE)
     @Column(unique = true, nullable = false, updatable = false)
     @Setter(AccessLevel.NONE)
@@ -59,6 +59,9 @@ public class TransactionLog {
     @Column(nullable = false)
     private BigDecimal amount;
 
+    @Column(name = "balance_after")
+    private BigDecimal balanceAfter;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "current_status", nullable = false)
     private TransactionStatus currentStatus;
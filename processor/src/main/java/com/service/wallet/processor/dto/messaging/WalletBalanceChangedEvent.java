@@ -0,0 +1,14 @@
+package com.service.wallet.processor.dto.messaging;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Published once per settled batch with the new balance of every wallet the
+ * batch changed, keyed by wallet ID.
+ */
+public record WalletBalanceChangedEvent(@NotNull Map<Long, BigDecimal> balances) {
+
+}
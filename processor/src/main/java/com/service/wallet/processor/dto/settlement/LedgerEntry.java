@@ -0,0 +1,18 @@
+package com.service.wallet.processor.dto.settlement;
+
+import com.service.wallet.processor.enums.OperationType;
+
+import java.util.UUID;
+
+/**
+ * A PROCESSING transaction log entry loaded for settlement, its amount in cents.
+ */
+public record LedgerEntry(
+        long id,
+        UUID correlationId,
+        Long sourceWalletId,
+        Long targetWalletId,
+        OperationType operation,
+        long amountCents) {
+
+}
@@ -0,0 +1,28 @@
+package com.service.wallet.processor.dto.settlement;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Outcome of settling a batch of correlation IDs.
+ *
+ * @param settled  correlation IDs whose entries were applied and flagged as SUCCESS
+ * @param failed   correlation IDs flagged as ERROR, with the reason
+ * @param balances new balance of every wallet whose balance changed
+ */
+public record SettlementResult(List<UUID> settled, Map<UUID, String> failed, Map<Long, BigDecimal> balances) {
+
+    public static SettlementResult empty() {
+        return new SettlementResult(List.of(), Map.of(), Map.of());
+    }
+
+    /**
+     * Wallets whose balance changed.
+     */
+    public Set<Long> affectedWalletIds() {
+        return balances.keySet();
+    }
+}
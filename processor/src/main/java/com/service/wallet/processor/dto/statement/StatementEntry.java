@@ -0,0 +1,21 @@
+package com.service.wallet.processor.dto.statement;
+
+import com.service.wallet.processor.enums.OperationType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A settled movement of a wallet, as written to its monthly statement.
+ */
+public record StatementEntry(
+        long walletId,
+        long id,
+        UUID correlationId,
+        OperationType operation,
+        BigDecimal amount,
+        BigDecimal balanceAfter,
+        LocalDateTime createdAt) {
+
+}
@@ -0,0 +1,55 @@
+package com.service.wallet.processor.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.service.wallet.processor.dto.messaging.WalletBalanceChangedEvent;
+import com.service.wallet.processor.dto.settlement.SettlementResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes a {@link WalletBalanceChangedEvent} on a Redis pub/sub channel
+ * after a batch is settled and its balances cached, so every API instance
+ * drops its near cache copy of those balances.
+ * <p>
+ * The event is published after the Redis entries are written, so an API
+ * instance reloading a balance once its copy is dropped reads the settled one.
+ * Dropping a copy is idempotent, so the order in which the instances receive
+ * the events does not matter.
+ * </p>
+ */
+@Slf4j
+@Component
+public class WalletBalanceEventPublisher {
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+
+    public WalletBalanceEventPublisher(StringRedisTemplate redisTemplate, ObjectMapper objectMapper,
+            @Value("${wallet.events.balance-changed.channel:wallet:balance-changed}") String channel) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+    }
+
+    /**
+     * Publishes the new balances of a settled batch. A failure is only logged:
+     * the settlement is already committed and the cached balances expire on
+     * their own.
+     */
+    public void publish(SettlementResult result) {
+        if (result.balances().isEmpty()) {
+            return;
+        }
+
+        try {
+            redisTemplate.convertAndSend(channel,
+                    objectMapper.writeValueAsString(new WalletBalanceChangedEvent(result.balances())));
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Failed to publish the balance change of wallets {}", result.affectedWalletIds(), e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.service.wallet.processor.queue.consumer;
+
+import com.service.wallet.processor.config.sqs.DepositQueueProperty;
+import com.service.wallet.processor.dto.messaging.TransactionCorrelationId;
+import com.service.wallet.processor.service.SettlementCoordinator;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Settles the deposits published by the API on the deposit queue.
+ */
+@Component
+@RequiredArgsConstructor
+public class DepositConsumer implements QueueMessageHandler<TransactionCorrelationId> {
+
+    @Getter
+    private final DepositQueueProperty queueProperty;
+    private final SettlementCoordinator settlementCoordinator;
+
+    @Override
+    public Class<TransactionCorrelationId> getPayloadType() {
+        return TransactionCorrelationId.class;
+    }
+
+    @Override
+    public void handle(List<TransactionCorrelationId> payloads) throws Exception {
+        settlementCoordinator.settle(payloads.stream()
+                .map(TransactionCorrelationId::transactionCorrelationId)
+                .distinct()
+                .toList());
+    }
+}
@@ -0,0 +1,113 @@
+package com.service.wallet.processor.queue.consumer;
+
+import com.service.wallet.processor.config.sqs.QueueProperty;
+import com.service.wallet.processor.exception.QueueException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sizes the receivers and workers of every {@link QueuePipeline} from the
+ * backlog of its queue.
+ *
+ * <pre>
+ * Every interval the approximate number of visible messages of each queue is
+ * read and the pipeline is resized to:
+ *
+ *   receivers = ceil(backlog / targetBacklogPerReceiver), within [minReceivers, receivers]
+ *   workers   = receivers scaled by the workers / receivers maximums, within [minWorkers, workers]
+ *
+ * Scaling up is immediate, so the drain speed follows a growing backlog within
+ * one interval. Scaling down removes one receiver per interval, so a backlog
+ * that briefly empties between two bursts does not make the pipeline flap.
+ * An empty queue settles at the minimums, a single GetQueueAttributes call per
+ * interval when minReceivers is 0.
+ *
+ * If the backlog cannot be read, the pipeline keeps its current size.
+ *
+ * Metrics, tagged with the handler name (queue):
+ *   - wallet.consumer.queue.backlog   last backlog read from the queue
+ * </pre>
+ */
+@Slf4j
+class PollerAutoscaler implements AutoCloseable {
+
+    private final SqsConsumer sqsConsumer;
+    private final List<QueuePipeline<?>> pipelines;
+    private final List<AtomicInteger> backlogs;
+    private final Duration interval;
+    private volatile Thread thread;
+
+    PollerAutoscaler(SqsConsumer sqsConsumer, List<QueuePipeline<?>> pipelines, Duration interval,
+            MeterRegistry meterRegistry) {
+        this.sqsConsumer = sqsConsumer;
+        this.pipelines = List.copyOf(pipelines);
+        this.interval = interval;
+        this.backlogs = this.pipelines.stream()
+                .map(pipeline -> {
+                    var backlog = new AtomicInteger();
+                    Gauge.builder("wallet.consumer.queue.backlog", backlog, AtomicInteger::get)
+                            .description("Approximate number of messages waiting in the queue")
+                            .tag("queue", pipeline.getName())
+                            .register(meterRegistry);
+                    return backlog;
+                })
+                .toList();
+    }
+
+    void start() {
+        thread = Thread.ofVirtual().name("poller-autoscaler").start(this::loop);
+    }
+
+    @Override
+    public void close() {
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void loop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            for (int i = 0; i < pipelines.size(); i++) {
+                scale(pipelines.get(i), backlogs.get(i));
+            }
+
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void scale(QueuePipeline<?> pipeline, AtomicInteger backlog) {
+        QueueProperty queueProperty = pipeline.getQueueProperty();
+        try {
+            backlog.set(sqsConsumer.backlog(queueProperty));
+        } catch (QueueException e) {
+            log.warn("Failed to read the backlog of {}, keeping the current consumer size", queueProperty.getUrl(), e);
+            return;
+        }
+
+        int receivers = receiversFor(queueProperty, backlog.get(), pipeline.getActiveReceivers());
+        pipeline.resize(receivers, workersFor(queueProperty, receivers));
+    }
+
+    static int receiversFor(QueueProperty queueProperty, int backlog, int currentReceivers) {
+        int target = (int) Math.min(Integer.MAX_VALUE,
+                (backlog + (long) queueProperty.getTargetBacklogPerReceiver() - 1)
+                        / queueProperty.getTargetBacklogPerReceiver());
+        target = Math.clamp(target, queueProperty.getMinReceivers(), queueProperty.getReceivers());
+
+        return target >= currentReceivers ? target : currentReceivers - 1;
+    }
+
+    static int workersFor(QueueProperty queueProperty, int receivers) {
+        int target = (int) Math.ceil((double) receivers * queueProperty.getWorkers() / queueProperty.getReceivers());
+        return Math.clamp(target, queueProperty.getMinWorkers(), queueProperty.getWorkers());
+    }
+}
@@ -0,0 +1,26 @@
+package com.service.wallet.processor.queue.consumer;
+
+import com.service.wallet.processor.config.sqs.QueueProperty;
+
+import java.util.List;
+
+/**
+ * Processes the messages of one queue, a whole received batch at a time.
+ * <p>
+ * Every handler bean is picked up by {@link SqsListenerContainer}. The messages
+ * of a batch are deleted from the queue only when {@link #handle(List)}
+ * returns normally; if it throws, they are retried with a backoff and parked on
+ * the dead-letter queue after too many attempts (see {@link QueuePipeline}).
+ * Handlers must therefore be idempotent.
+ * </p>
+ *
+ * @param <T> the message payload type
+ */
+public interface QueueMessageHandler<T> {
+
+    QueueProperty getQueueProperty();
+
+    Class<T> getPayloadType();
+
+    void handle(List<T> payloads) throws Exception;
+}
@@ -0,0 +1,420 @@
+package com.service.wallet.processor.queue.consumer;
+
+import com.service.wallet.processor.config.sqs.QueueProperty;
+import com.service.wallet.processor.exception.QueueException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.services.sqs.model.Message;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Receive/process/acknowledge pipeline of a single queue.
+ *
+ * <pre>
+ * Receivers long-poll the queue and put every non-empty batch into a bounded
+ * prefetch buffer. Workers take batches from the buffer, deserialize them, hand
+ * the payloads to the {@link QueueMessageHandler} and delete the batch through
+ * DeleteMessageBatch. When the buffer is full the receivers block, so no more
+ * messages are pulled than the workers can keep up with. From the receive to
+ * the end of its processing, a {@link VisibilityHeartbeat} keeps the batch
+ * hidden from other consumers.
+ *
+ * When the handler fails on a batch of several messages, every message is
+ * handled again on its own, so one poison message does not fail (and burn the
+ * attempts of) the rest of the batch. A failed message is retried with an
+ * exponential backoff: its visibility timeout is set to retryBackoff *
+ * 2^(attempt - 1) seconds, capped at maxRetryBackoff. Once it has been received
+ * maxAttempts times it is parked on the dead-letter queue instead. Unreadable
+ * messages are parked right away, since no retry can fix them.
+ *
+ * Receivers and workers all run on virtual threads. The maximum number of each
+ * is started, but only the first {@link #resize active} ones run; the others
+ * stay parked until the {@link PollerAutoscaler} needs them, so an idle queue
+ * only costs its minimum receivers.
+ *
+ * Metrics, tagged with the handler name (queue):
+ *   - wallet.consumer.batch.size           messages per received batch
+ *   - wallet.consumer.batch.processing     time to deserialize, handle and delete a batch (outcome)
+ *   - wallet.consumer.messages.unreadable  messages skipped because they could not be deserialized
+ *   - wallet.consumer.messages.retried     failed messages scheduled for a retry
+ *   - wallet.consumer.messages.parked      messages moved to the dead-letter queue (reason)
+ *   - wallet.consumer.receivers.active     receivers currently polling
+ *   - wallet.consumer.workers.active       workers currently processing batches
+ * </pre>
+ */
+@Slf4j
+class QueuePipeline<T> {
+
+    private static final long RECEIVE_ERROR_BACKOFF_MS = 1_000;
+    private static final long WORKER_POLL_TIMEOUT_MS = 500;
+    private static final long SHUTDOWN_TIMEOUT_MS = 30_000;
+    // SQS rejects visibility timeouts over 12 hours
+    private static final int MAX_VISIBILITY_TIMEOUT_SECONDS = 43_200;
+
+    private final SqsConsumer sqsConsumer;
+    private final QueueMessageHandler<T> handler;
+    private final QueueProperty queueProperty;
+    private final String name;
+    private final VisibilityHeartbeat visibilityHeartbeat;
+    private final BlockingQueue<ReceivedBatch> prefetchBuffer;
+    private final List<Thread> receivers = new ArrayList<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary batchSize;
+    private final ReentrantLock resizeLock = new ReentrantLock();
+    private final Condition resized = resizeLock.newCondition();
+    private volatile int activeReceivers;
+    private volatile int activeWorkers;
+    private volatile boolean running;
+
+    QueuePipeline(SqsConsumer sqsConsumer, QueueMessageHandler<T> handler, VisibilityHeartbeat visibilityHeartbeat,
+            MeterRegistry meterRegistry) {
+        this.sqsConsumer = sqsConsumer;
+        this.handler = handler;
+        this.visibilityHeartbeat = visibilityHeartbeat;
+        this.queueProperty = handler.getQueueProperty();
+        this.name = handler.getClass().getSimpleName();
+        this.prefetchBuffer = new ArrayBlockingQueue<>(Math.max(1, queueProperty.getPrefetch()));
+        this.meterRegistry = meterRegistry;
+        this.batchSize = DistributionSummary.builder("wallet.consumer.batch.size")
+                .description("Messages per batch received from the queue")
+                .tag("queue", name)
+                .register(meterRegistry);
+        Gauge.builder("wallet.consumer.receivers.active", this, QueuePipeline::getActiveReceivers)
+                .description("Receivers currently polling the queue")
+                .tag("queue", name)
+                .register(meterRegistry);
+        Gauge.builder("wallet.consumer.workers.active", this, QueuePipeline::getActiveWorkers)
+                .description("Workers currently processing batches of the queue")
+                .tag("queue", name)
+                .register(meterRegistry);
+        this.activeReceivers = queueProperty.getReceivers();
+        this.activeWorkers = queueProperty.getWorkers();
+    }
+
+    void start() {
+        running = true;
+        for (int i = 0; i < queueProperty.getReceivers(); i++) {
+            int index = i;
+            receivers.add(Thread.ofVirtual().name(name + "-receiver-" + i).start(() -> receiveLoop(index)));
+        }
+
+        for (int i = 0; i < queueProperty.getWorkers(); i++) {
+            int index = i;
+            workers.add(Thread.ofVirtual().name(name + "-worker-" + i).start(() -> workLoop(index)));
+        }
+
+        log.info("Started {} receivers and {} workers for {}", receivers.size(), workers.size(), queueProperty.getUrl());
+    }
+
+    void stop() {
+        running = false;
+        // Receivers may be parked on a 20s long poll, workers are left to finish their current batch
+        receivers.forEach(Thread::interrupt);
+        signalResized();
+
+        long deadline = System.currentTimeMillis() + SHUTDOWN_TIMEOUT_MS;
+        for (var thread : concat(receivers, workers)) {
+            try {
+                thread.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+
+        // Whatever is still buffered becomes visible again after the visibility timeout
+        prefetchBuffer.forEach(batch -> batch.lease().release());
+        log.info("Stopped consumer of {} leaving {} prefetched batches unprocessed", queueProperty.getUrl(),
+                prefetchBuffer.size());
+    }
+
+    /**
+     * Sets how many receivers and workers run, within the queue's maximums.
+     * Keeps at least one worker while any receiver polls.
+     */
+    void resize(int receivers, int workers) {
+        int newReceivers = Math.clamp(receivers, 0, queueProperty.getReceivers());
+        int newWorkers = Math.clamp(workers, newReceivers > 0 ? 1 : 0, queueProperty.getWorkers());
+        if (newReceivers == activeReceivers && newWorkers == activeWorkers) {
+            return;
+        }
+
+        log.info("Resizing consumer of {} from {} to {} receivers and from {} to {} workers", queueProperty.getUrl(),
+                activeReceivers, newReceivers, activeWorkers, newWorkers);
+        activeReceivers = newReceivers;
+        activeWorkers = newWorkers;
+        signalResized();
+    }
+
+    int getActiveReceivers() {
+        return activeReceivers;
+    }
+
+    int getActiveWorkers() {
+        return activeWorkers;
+    }
+
+    QueueProperty getQueueProperty() {
+        return queueProperty;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    private void receiveLoop(int index) {
+        while (running) {
+            try {
+                if (!awaitActive(index, true)) {
+                    return;
+                }
+
+                List<Message> messages = sqsConsumer.receive(queueProperty);
+                if (!messages.isEmpty()) {
+                    var lease = visibilityHeartbeat.track(queueProperty, messages);
+                    try {
+                        prefetchBuffer.put(new ReceivedBatch(messages, lease));
+                    } catch (InterruptedException e) {
+                        lease.release();
+                        throw e;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (QueueException e) {
+                if (!running) {
+                    return;
+                }
+
+                log.error("Failed to receive messages from {}", queueProperty.getUrl(), e);
+                if (!sleep(RECEIVE_ERROR_BACKOFF_MS)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void workLoop(int index) {
+        while (running) {
+            try {
+                if (!awaitActive(index, false)) {
+                    return;
+                }
+
+                ReceivedBatch batch = prefetchBuffer.poll(WORKER_POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (batch != null) {
+                    batchSize.record(batch.messages().size());
+                    long start = System.nanoTime();
+                    boolean processed;
+                    try {
+                        processed = process(batch);
+                    } finally {
+                        batch.lease().release();
+                    }
+                    batchProcessing(processed).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return whether every message of the batch was handled, {@code false} if
+     *         some will be retried or were parked
+     */
+    private boolean process(ReceivedBatch batch) {
+        List<Message> messages = batch.messages();
+        List<Message> accepted = new ArrayList<>(messages.size());
+        List<T> payloads = new ArrayList<>(messages.size());
+        List<Message> unreadable = new ArrayList<>();
+        for (var message : messages) {
+            try {
+                payloads.add(sqsConsumer.deserialize(message, handler.getPayloadType()));
+                accepted.add(message);
+            } catch (QueueException e) {
+                log.error("Parking unreadable message {} from {}: {}", message.messageId(), queueProperty.getUrl(),
+                        e.getMessage());
+                meterRegistry.counter("wallet.consumer.messages.unreadable", "queue", name).increment();
+                unreadable.add(message);
+            }
+        }
+
+        if (!unreadable.isEmpty()) {
+            batch.lease().forget(unreadable);
+            park(unreadable, "unreadable", "Unreadable message");
+        }
+
+        if (payloads.isEmpty()) {
+            return true;
+        }
+
+        Exception failure = handle(payloads, accepted, batch.lease());
+        if (failure == null) {
+            return true;
+        }
+
+        log.error("Failed to process a batch of {} messages from {}", payloads.size(), queueProperty.getUrl(),
+                failure);
+        Map<Message, Exception> failures = new LinkedHashMap<>();
+        if (payloads.size() == 1) {
+            failures.put(accepted.get(0), failure);
+        } else {
+            // Isolates the failing messages so the others are settled and deleted now
+            for (int i = 0; i < payloads.size(); i++) {
+                Exception messageFailure = handle(List.of(payloads.get(i)), List.of(accepted.get(i)), batch.lease());
+                if (messageFailure != null) {
+                    failures.put(accepted.get(i), messageFailure);
+                }
+            }
+        }
+
+        // Stops the heartbeat first, waiting for an extension in flight that would override the retry backoff
+        batch.lease().release();
+        failures.forEach(this::retryOrPark);
+        return failures.isEmpty();
+    }
+
+    /**
+     * Hands the payloads to the handler and deletes their messages.
+     *
+     * @return the failure of the handler, {@code null} if it succeeded
+     */
+    private Exception handle(List<T> payloads, List<Message> messages, VisibilityHeartbeat.Lease lease) {
+        try {
+            handler.handle(payloads);
+        } catch (Exception e) {
+            return e;
+        }
+
+        // Deleted messages must not be extended anymore
+        lease.forget(messages);
+        try {
+            sqsConsumer.delete(queueProperty, messages);
+        } catch (QueueException e) {
+            log.error("Failed to delete {} processed messages from {}", messages.size(), queueProperty.getUrl(), e);
+        }
+
+        return null;
+    }
+
+    private void retryOrPark(Message message, Exception failure) {
+        int attempts = SqsConsumer.receiveCount(message);
+        if (attempts >= queueProperty.getMaxAttempts() && queueProperty.getDeadLetterQueueUrl() != null) {
+            log.error("Parking message {} from {} after {} attempts", message.messageId(), queueProperty.getUrl(),
+                    attempts);
+            park(List.of(message), "poison", "Failed " + attempts + " times: " + failure.getMessage());
+            return;
+        }
+
+        int backoff = retryBackoff(queueProperty, attempts);
+        try {
+            sqsConsumer.changeVisibility(queueProperty, List.of(message), backoff);
+            meterRegistry.counter("wallet.consumer.messages.retried", "queue", name).increment();
+            log.warn("Retrying message {} from {} in {}s (attempt {} of {})", message.messageId(),
+                    queueProperty.getUrl(), backoff, attempts, queueProperty.getMaxAttempts());
+        } catch (QueueException e) {
+            // The message still comes back once its current visibility timeout expires
+            log.error("Failed to back off message {} from {}", message.messageId(), queueProperty.getUrl(), e);
+        }
+    }
+
+    private void park(List<Message> messages, String reason, String description) {
+        if (queueProperty.getDeadLetterQueueUrl() == null) {
+            log.error("No dead-letter queue configured for {}, {} {} messages left to the queue redrive policy",
+                    queueProperty.getUrl(), messages.size(), reason);
+            return;
+        }
+
+        try {
+            sqsConsumer.deadLetter(queueProperty, messages, description);
+            meterRegistry.counter("wallet.consumer.messages.parked", "queue", name, "reason", reason)
+                    .increment(messages.size());
+        } catch (QueueException e) {
+            log.error("Failed to park {} {} messages from {}", messages.size(), reason, queueProperty.getUrl(), e);
+        }
+    }
+
+    /**
+     * Seconds a message stays hidden after its given failed attempt.
+     */
+    static int retryBackoff(QueueProperty queueProperty, int attempts) {
+        long backoff = (long) queueProperty.getRetryBackoff() << Math.min(Math.max(attempts - 1, 0), 20);
+        return (int) Math.min(backoff, Math.min(queueProperty.getMaxRetryBackoff(), MAX_VISIBILITY_TIMEOUT_SECONDS));
+    }
+
+    /**
+     * Parks the receiver or worker with the given index while it is not among
+     * the active ones.
+     *
+     * @return {@code false} if the pipeline stopped meanwhile
+     */
+    private boolean awaitActive(int index, boolean receiver) throws InterruptedException {
+        if (index < (receiver ? activeReceivers : activeWorkers)) {
+            return true;
+        }
+
+        resizeLock.lockInterruptibly();
+        try {
+            while (running && index >= (receiver ? activeReceivers : activeWorkers)) {
+                resized.await();
+            }
+        } finally {
+            resizeLock.unlock();
+        }
+
+        return running;
+    }
+
+    private void signalResized() {
+        resizeLock.lock();
+        try {
+            resized.signalAll();
+        } finally {
+            resizeLock.unlock();
+        }
+    }
+
+    private Timer batchProcessing(boolean processed) {
+        return Timer.builder("wallet.consumer.batch.processing")
+                .description("Time to deserialize, handle and delete a batch received from the queue")
+                .tags("queue", name, "outcome", processed ? "success" : "failure")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    private static boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static List<Thread> concat(List<Thread> first, List<Thread> second) {
+        var all = new ArrayList<Thread>(first.size() + second.size());
+        all.addAll(first);
+        all.addAll(second);
+        return all;
+    }
+
+    private record ReceivedBatch(List<Message> messages, VisibilityHeartbeat.Lease lease) {
+    }
+}
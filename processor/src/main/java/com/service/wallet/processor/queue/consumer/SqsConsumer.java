@@ -9,28 +9,71 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
+import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.ChangeMessageVisibilityBatchRequest;
+import software.amazon.awssdk.services.sqs.model.ChangeMessageVisibilityBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.GetQueueAttributesRequest;
 import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
+import software.amazon.awssdk.services.sqs.model.MessageSystemAttributeName;
+import software.amazon.awssdk.services.sqs.model.QueueAttributeName;
 import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
+/**
+ * Low-level SQS operations used by the consumer pipeline.
+ *
+ * <pre>
+ *   - receive      long-polls a queue according to its {@link QueueProperty}
+ *   - deserialize  converts a message body into the target type
+ *   - delete       acknowledges processed messages through DeleteMessageBatch
+ *   - changeVisibility  hides messages for a while through ChangeMessageVisibilityBatch,
+ *                       to back off a retry or to extend the visibility of a slow batch
+ *   - deadLetter   parks messages on the dead-letter queue and removes them from the queue
+ *   - backlog      approximate number of messages waiting to be received
+ * </pre>
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class SqsConsumer {
 
+    private static final int SQS_MAX_BATCH_ENTRIES = 10;
+
+    static final String DEAD_LETTER_REASON_ATTRIBUTE = "DeadLetterReason";
+
     private final SqsClient sqsClient;
     private final ObjectMapper objectMapper;
 
     public <T> List<T> consume(@Valid @NotNull QueueProperty queueProperty, Class<T> targetType) throws QueueException {
+        List<T> objectsByTargetType = new ArrayList<>();
+        for (var message : receive(queueProperty)) {
+            objectsByTargetType.add(deserialize(message, targetType));
+        }
+
+        return objectsByTargetType;
+    }
+
+    public List<Message> receive(@Valid @NotNull QueueProperty queueProperty) throws QueueException {
         try {
             var receiveMessageRequest = ReceiveMessageRequest.builder()
                     .queueUrl(queueProperty.getUrl())
                     .maxNumberOfMessages(queueProperty.getMaxNumberOfMessages())
-                    .visibilityTimeout(100) // TODO parametrizar
+                    .waitTimeSeconds(queueProperty.getWaitTimeSeconds())
+                    .visibilityTimeout(queueProperty.getVisibilityTimeout())
+                    .attributeNamesWithStrings(MessageSystemAttributeName.APPROXIMATE_RECEIVE_COUNT.toString())
                     .build();
 
             List<Message> messages = sqsClient.receiveMessage(receiveMessageRequest).messages();
@@ -38,14 +81,134 @@ public class SqsConsumer {
                 return Collections.emptyList();
             }
 
-            List<T> objectsByTargetType = new ArrayList<>();
-            for (var message : messages) {
-                objectsByTargetType.add(objectMapper.readValue(message.body(), targetType));
-            }
+            return messages;
+        } catch (SdkException e) {
+            throw new QueueException(e.getMessage(), e);
+        }
+    }
+
+    public <T> T deserialize(@NotNull Message message, Class<T> targetType) throws QueueException {
+        try {
+            return objectMapper.readValue(message.body(), targetType);
+        } catch (IOException e) {
+            throw new QueueException(e.getMessage(), e);
+        }
+    }
+
+    public void delete(@Valid @NotNull QueueProperty queueProperty, List<Message> messages) throws QueueException {
+        try {
+            forEachChunk(messages, chunk -> {
+                var entries = new ArrayList<DeleteMessageBatchRequestEntry>(chunk.size());
+                for (int i = 0; i < chunk.size(); i++) {
+                    entries.add(DeleteMessageBatchRequestEntry.builder()
+                            .id(Integer.toString(i))
+                            .receiptHandle(chunk.get(i).receiptHandle())
+                            .build());
+                }
+
+                return sqsClient.deleteMessageBatch(DeleteMessageBatchRequest.builder()
+                        .queueUrl(queueProperty.getUrl())
+                        .entries(entries)
+                        .build())
+                        .failed();
+            }, "delete", queueProperty.getUrl());
+        } catch (SdkException e) {
+            throw new QueueException(e.getMessage(), e);
+        }
+    }
 
-            return objectsByTargetType;
-        } catch (Exception e) {
+    public void changeVisibility(@Valid @NotNull QueueProperty queueProperty, List<Message> messages,
+            int visibilityTimeout) throws QueueException {
+        try {
+            forEachChunk(messages, chunk -> {
+                var entries = new ArrayList<ChangeMessageVisibilityBatchRequestEntry>(chunk.size());
+                for (int i = 0; i < chunk.size(); i++) {
+                    entries.add(ChangeMessageVisibilityBatchRequestEntry.builder()
+                            .id(Integer.toString(i))
+                            .receiptHandle(chunk.get(i).receiptHandle())
+                            .visibilityTimeout(visibilityTimeout)
+                            .build());
+                }
+
+                return sqsClient.changeMessageVisibilityBatch(ChangeMessageVisibilityBatchRequest.builder()
+                        .queueUrl(queueProperty.getUrl())
+                        .entries(entries)
+                        .build())
+                        .failed();
+            }, "change the visibility of", queueProperty.getUrl());
+        } catch (SdkException e) {
             throw new QueueException(e.getMessage(), e);
         }
     }
+
+    /**
+     * Sends copies of the messages to the dead-letter queue of the queue, with
+     * the reason as a message attribute, and deletes the ones that were sent.
+     */
+    public void deadLetter(@Valid @NotNull QueueProperty queueProperty, List<Message> messages, String reason)
+            throws QueueException {
+        List<Message> parked = new ArrayList<>(messages.size());
+        try {
+            forEachChunk(messages, chunk -> {
+                var entries = new ArrayList<SendMessageBatchRequestEntry>(chunk.size());
+                for (int i = 0; i < chunk.size(); i++) {
+                    entries.add(SendMessageBatchRequestEntry.builder()
+                            .id(Integer.toString(i))
+                            .messageBody(chunk.get(i).body())
+                            .messageAttributes(Map.of(DEAD_LETTER_REASON_ATTRIBUTE, MessageAttributeValue.builder()
+                                    .dataType("String")
+                                    .stringValue(reason)
+                                    .build()))
+                            .build());
+                }
+
+                var response = sqsClient.sendMessageBatch(SendMessageBatchRequest.builder()
+                        .queueUrl(queueProperty.getDeadLetterQueueUrl())
+                        .entries(entries)
+                        .build());
+                response.successful().forEach(sent -> parked.add(chunk.get(Integer.parseInt(sent.id()))));
+                return response.failed();
+            }, "dead-letter", queueProperty.getUrl());
+        } catch (SdkException e) {
+            throw new QueueException(e.getMessage(), e);
+        }
+
+        delete(queueProperty, parked);
+    }
+
+    public int backlog(@Valid @NotNull QueueProperty queueProperty) throws QueueException {
+        try {
+            String backlog = sqsClient.getQueueAttributes(GetQueueAttributesRequest.builder()
+                    .queueUrl(queueProperty.getUrl())
+                    .attributeNames(QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES)
+                    .build())
+                    .attributes()
+                    .get(QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES);
+
+            return backlog == null ? 0 : Integer.parseInt(backlog);
+        } catch (SdkException e) {
+            throw new QueueException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * How many times SQS delivered the message, this delivery included.
+     */
+    public static int receiveCount(Message message) {
+        String receiveCount = message.attributes().get(MessageSystemAttributeName.APPROXIMATE_RECEIVE_COUNT);
+        return receiveCount == null ? 1 : Integer.parseInt(receiveCount);
+    }
+
+    /**
+     * Runs a batch request per chunk of at most 10 messages, logging the
+     * entries SQS failed on.
+     */
+    private static void forEachChunk(List<Message> messages, Function<List<Message>, List<BatchResultErrorEntry>> request,
+            String action, String queueUrl) {
+        for (int from = 0; from < messages.size(); from += SQS_MAX_BATCH_ENTRIES) {
+            var chunk = messages.subList(from, Math.min(from + SQS_MAX_BATCH_ENTRIES, messages.size()));
+            request.apply(chunk).forEach(failed -> log.warn("Failed to {} message {} from {}: {} - {}", action,
+                    chunk.get(Integer.parseInt(failed.id())).messageId(), queueUrl, failed.code(), failed.message()));
+        }
+    }
 }
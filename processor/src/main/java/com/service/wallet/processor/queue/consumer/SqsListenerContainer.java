@@ -0,0 +1,76 @@
+package com.service.wallet.processor.queue.consumer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts one {@link QueuePipeline} per {@link QueueMessageHandler} bean once the
+ * application context is ready, and stops them on shutdown. Unless
+ * {@code wallet.consumer.autoscaling.enabled} is off, a {@link PollerAutoscaler}
+ * sizes the pipelines from the backlog of their queues.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(value = "wallet.consumer.enabled", havingValue = "true", matchIfMissing = true)
+public class SqsListenerContainer implements SmartLifecycle {
+
+    private final SqsConsumer sqsConsumer;
+    private final ObjectProvider<QueueMessageHandler<?>> handlers;
+    private final MeterRegistry meterRegistry;
+    private final List<QueuePipeline<?>> pipelines = new ArrayList<>();
+    private VisibilityHeartbeat visibilityHeartbeat;
+    private PollerAutoscaler pollerAutoscaler;
+    private volatile boolean running;
+
+    @Value("${wallet.consumer.autoscaling.enabled:true}")
+    private boolean autoscaling;
+
+    @Value("${wallet.consumer.autoscaling.interval:10s}")
+    private Duration autoscalingInterval;
+
+    @Override
+    public void start() {
+        visibilityHeartbeat = new VisibilityHeartbeat(sqsConsumer);
+        handlers.orderedStream().forEach(handler -> {
+            var pipeline = new QueuePipeline<>(sqsConsumer, handler, visibilityHeartbeat, meterRegistry);
+            pipeline.start();
+            pipelines.add(pipeline);
+        });
+
+        if (autoscaling) {
+            pollerAutoscaler = new PollerAutoscaler(sqsConsumer, pipelines, autoscalingInterval, meterRegistry);
+            pollerAutoscaler.start();
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        if (pollerAutoscaler != null) {
+            pollerAutoscaler.close();
+            pollerAutoscaler = null;
+        }
+        pipelines.forEach(QueuePipeline::stop);
+        pipelines.clear();
+        if (visibilityHeartbeat != null) {
+            visibilityHeartbeat.close();
+        }
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,131 @@
+package com.service.wallet.processor.queue.consumer;
+
+import com.service.wallet.processor.config.sqs.QueueProperty;
+import com.service.wallet.processor.exception.QueueException;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.services.sqs.model.Message;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps received messages hidden from other consumers while they wait in the
+ * prefetch buffer or are being processed.
+ * <p>
+ * Every half visibility timeout the visibility of each tracked batch is reset
+ * to a full visibility timeout through ChangeMessageVisibilityBatch, so a slow
+ * batch is never delivered to a second consumer while the first one is still
+ * working on it. Tracking stops when the batch's {@link Lease} is released;
+ * the visibility timeout then only matters if this consumer dies.
+ * </p>
+ * <p>
+ * An extension runs while holding its lease's lock, and {@link Lease#release()}
+ * and {@link Lease#forget(Collection)} take the same lock. So once they return,
+ * no extension of the released or forgotten messages is in flight or will run.
+ * A retry backoff or a delete that follows them is therefore never overridden.
+ * </p>
+ */
+@Slf4j
+class VisibilityHeartbeat implements AutoCloseable {
+
+    private final SqsConsumer sqsConsumer;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofVirtual().name("visibility-heartbeat").factory());
+
+    VisibilityHeartbeat(SqsConsumer sqsConsumer) {
+        this.sqsConsumer = sqsConsumer;
+    }
+
+    /**
+     * Starts extending the visibility of the given messages until the returned
+     * lease is released.
+     */
+    Lease track(QueueProperty queueProperty, List<Message> messages) {
+        int visibilityTimeout = queueProperty.getVisibilityTimeout();
+        long period = Math.max(1, visibilityTimeout / 2);
+        var lease = new Lease(queueProperty, messages, visibilityTimeout);
+        // Each extension runs on its own virtual thread so a slow SQS call does not delay the other batches
+        lease.heartbeat = scheduler.scheduleAtFixedRate(() -> Thread.startVirtualThread(lease::extend),
+                period, period, TimeUnit.SECONDS);
+
+        return lease;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Handle of a tracked batch.
+     */
+    final class Lease {
+
+        private final QueueProperty queueProperty;
+        private final int visibilityTimeout;
+        private final ReentrantLock lock = new ReentrantLock();
+        // Guarded by lock
+        private final List<Message> tracked;
+        private boolean released;
+        private volatile ScheduledFuture<?> heartbeat;
+
+        private Lease(QueueProperty queueProperty, List<Message> messages, int visibilityTimeout) {
+            this.queueProperty = queueProperty;
+            this.visibilityTimeout = visibilityTimeout;
+            this.tracked = new ArrayList<>(messages);
+        }
+
+        /**
+         * Stops extending the given messages, e.g. right before they are
+         * deleted. Waits for an extension in flight.
+         */
+        void forget(Collection<Message> messages) {
+            lock.lock();
+            try {
+                tracked.removeAll(messages);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Stops the heartbeat of the batch. Waits for an extension in flight,
+         * so the visibility of the messages is not changed by this lease once
+         * this returns.
+         */
+        void release() {
+            heartbeat.cancel(false);
+            lock.lock();
+            try {
+                released = true;
+                tracked.clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void extend() {
+            lock.lock();
+            try {
+                if (released || tracked.isEmpty()) {
+                    return;
+                }
+
+                sqsConsumer.changeVisibility(queueProperty, List.copyOf(tracked), visibilityTimeout);
+                log.debug("Extended the visibility of {} messages from {} by {}s", tracked.size(),
+                        queueProperty.getUrl(), visibilityTimeout);
+            } catch (QueueException e) {
+                log.warn("Failed to extend the visibility of {} messages from {}", tracked.size(),
+                        queueProperty.getUrl(), e);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
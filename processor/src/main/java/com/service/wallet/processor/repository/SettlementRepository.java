@@ -0,0 +1,210 @@
+package com.service.wallet.processor.repository;
+
+import com.service.wallet.processor.dto.settlement.LedgerEntry;
+import com.service.wallet.processor.enums.OperationType;
+import com.service.wallet.processor.enums.TransactionStatus;
+import com.service.wallet.processor.type.MinorAmount;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Set-based JDBC access used by the settlement engine.
+ * <p>
+ * Every method touches a whole batch in a single statement (or a single JDBC
+ * batch), passing the keys as one {@code = ANY(?)} array parameter instead of
+ * one round trip per correlation ID.
+ * </p>
+ * <p>
+ * Amounts and balances are exchanged in cents. Writes always update both the
+ * NUMERIC and the BIGINT cents columns; reads use the cents columns only when
+ * {@code wallet.money.minor-units.enabled} is set, converting the NUMERIC ones
+ * otherwise.
+ * </p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class SettlementRepository {
+
+    private static final String SELECT_PROCESSING_ENTRIES = """
+            SELECT id, correlation_id, source_wallet_id, target_wallet_id, operation, amount, amount_cents
+              FROM wallet.transaction_log
+             WHERE correlation_id = ANY(?)
+               AND current_status = 'PROCESSING'
+             ORDER BY id
+               FOR UPDATE
+            """;
+
+    private static final String SELECT_PROCESSING_WALLET_IDS = """
+            SELECT DISTINCT wallet_id
+              FROM wallet.transaction_log,
+                   unnest(ARRAY[source_wallet_id, target_wallet_id]) AS wallet_id
+             WHERE correlation_id = ANY(?)
+               AND current_status = 'PROCESSING'
+               AND wallet_id IS NOT NULL
+            """;
+
+    private static final String SELECT_WALLET_BALANCES = """
+            SELECT id, balance, balance_cents
+              FROM wallet.wallet
+             WHERE id = ANY(?)
+             ORDER BY id
+               FOR UPDATE
+            """;
+
+    private static final String UPDATE_WALLET_BALANCE = """
+            UPDATE wallet.wallet
+               SET balance = balance + ?, balance_cents = balance_cents + ?, updated_at = LOCALTIMESTAMP
+             WHERE id = ?
+            """;
+
+    // settled_seq follows the order of the arrays, which is the order the running
+    // balances were computed in; the balance lookups read the highest one
+    private static final String UPDATE_BALANCE_AFTER = """
+            UPDATE wallet.transaction_log t
+               SET balance_after = v.balance_after_cents * 0.01, balance_after_cents = v.balance_after_cents,
+                   settled_seq = v.settled_seq
+              FROM (
+                    SELECT u.id, u.balance_after_cents, nextval('wallet.transaction_log_settled_seq') AS settled_seq
+                      FROM unnest(?::bigint[], ?::bigint[]) WITH ORDINALITY AS u(id, balance_after_cents, ord)
+                     ORDER BY u.ord
+                   ) v
+             WHERE t.id = v.id
+            """;
+
+    private static final String UPDATE_STATUS = """
+            UPDATE wallet.transaction_log
+               SET current_status = ?, error_message = ?
+             WHERE correlation_id = ANY(?)
+               AND current_status = 'PROCESSING'
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${wallet.money.minor-units.enabled:false}")
+    private boolean minorUnits;
+
+    /**
+     * Loads and locks every PROCESSING entry of the given correlation IDs.
+     * Entries already settled by a previous delivery are skipped.
+     */
+    public List<LedgerEntry> lockProcessingEntries(Collection<UUID> correlationIds) {
+        return jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(SELECT_PROCESSING_ENTRIES);
+            statement.setArray(1, connection.createArrayOf("uuid", correlationIds.toArray()));
+            return statement;
+        }, (rs, rowNum) -> new LedgerEntry(
+                rs.getLong("id"),
+                rs.getObject("correlation_id", UUID.class),
+                rs.getObject("source_wallet_id", Long.class),
+                rs.getObject("target_wallet_id", Long.class),
+                OperationType.valueOf(rs.getString("operation")),
+                cents(rs, "amount", "amount_cents")));
+    }
+
+    /**
+     * Returns, without locking anything, the wallets touched by the PROCESSING
+     * entries of the given correlation IDs.
+     */
+    public Set<Long> findProcessingWalletIds(Collection<UUID> correlationIds) {
+        return new HashSet<>(jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(SELECT_PROCESSING_WALLET_IDS);
+            statement.setArray(1, connection.createArrayOf("uuid", correlationIds.toArray()));
+            return statement;
+        }, (rs, rowNum) -> rs.getLong("wallet_id")));
+    }
+
+    /**
+     * Locks the given wallets in ascending ID order and returns their balances.
+     */
+    public Map<Long, Long> lockBalances(Collection<Long> walletIds) {
+        Map<Long, Long> balances = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(SELECT_WALLET_BALANCES);
+            statement.setArray(1, connection.createArrayOf("bigint", walletIds.toArray()));
+            return statement;
+        }, rs -> {
+            balances.put(rs.getLong("id"), cents(rs, "balance", "balance_cents"));
+        });
+
+        return balances;
+    }
+
+    /**
+     * Adds each delta to its wallet balance, one UPDATE per wallet sent as a
+     * single JDBC batch.
+     */
+    public void applyBalanceDeltas(Map<Long, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> arguments = new ArrayList<>(deltas.size());
+        deltas.forEach((walletId, delta) -> arguments.add(
+                new Object[] { MinorAmount.toDecimal(delta), delta, walletId }));
+        jdbcTemplate.batchUpdate(UPDATE_WALLET_BALANCE, arguments);
+    }
+
+    /**
+     * Records the running balance of each settled entry in one statement, and
+     * stamps the entries with increasing settlement sequence numbers in the
+     * iteration order of the map.
+     */
+    public void updateBalanceAfter(Map<Long, Long> balanceAfterByEntryId) {
+        if (balanceAfterByEntryId.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.update(connection -> {
+            var statement = connection.prepareStatement(UPDATE_BALANCE_AFTER);
+            statement.setArray(1, connection.createArrayOf("bigint", balanceAfterByEntryId.keySet().toArray()));
+            statement.setArray(2, connection.createArrayOf("bigint", balanceAfterByEntryId.values().toArray()));
+            return statement;
+        });
+    }
+
+    /**
+     * Flips every PROCESSING entry of the given correlation IDs to the given
+     * status in one statement.
+     */
+    public int updateStatus(Collection<UUID> correlationIds, TransactionStatus status, String errorMessage) {
+        if (correlationIds.isEmpty()) {
+            return 0;
+        }
+
+        return jdbcTemplate.update(connection -> {
+            var statement = connection.prepareStatement(UPDATE_STATUS);
+            statement.setString(1, status.name());
+            statement.setString(2, errorMessage);
+            statement.setArray(3, connection.createArrayOf("uuid", correlationIds.toArray()));
+            return statement;
+        });
+    }
+
+    /**
+     * Reads a money column in cents, from its BIGINT copy when
+     * minor units are enabled and that copy was written.
+     */
+    private long cents(ResultSet rs, String column, String centsColumn) throws SQLException {
+        if (minorUnits) {
+            long cents = rs.getLong(centsColumn);
+            if (!rs.wasNull()) {
+                return cents;
+            }
+        }
+
+        return MinorAmount.toCents(rs.getBigDecimal(column));
+    }
+}
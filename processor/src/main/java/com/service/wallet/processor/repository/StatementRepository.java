@@ -0,0 +1,215 @@
+package com.service.wallet.processor.repository;
+
+import com.service.wallet.processor.dto.statement.StatementEntry;
+import com.service.wallet.processor.enums.OperationType;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * JDBC access used by the statement job: the settled movements of a range of
+ * wallets and the progress checkpoints of the job.
+ * <p>
+ * A wallet's movements are its settled WITHDRAW legs (source wallet) and
+ * DEPOSIT legs (target wallet); a transfer shows up through its two legs, so
+ * its audit-only TRANSFER entry is left out.
+ * </p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class StatementRepository {
+
+    private static final String SELECT_WALLET_ID_RANGE = """
+            SELECT min(id) AS min_id, max(id) AS max_id
+              FROM wallet.wallet
+            """;
+
+    // Both branches use the (wallet, created_at, id) indexes of the history endpoint
+    private static final String SELECT_SETTLED_ENTRIES = """
+            SELECT wallet_id, id, correlation_id, operation, amount, balance_after, created_at
+              FROM (SELECT source_wallet_id AS wallet_id, id, correlation_id, operation, amount, balance_after,
+                           created_at
+                      FROM wallet.transaction_log
+                     WHERE source_wallet_id BETWEEN ? AND ?
+                       AND operation = 'WITHDRAW'
+                       AND current_status = 'SUCCESS'
+                       AND created_at >= ? AND created_at < ?
+                    UNION ALL
+                    SELECT target_wallet_id AS wallet_id, id, correlation_id, operation, amount, balance_after,
+                           created_at
+                      FROM wallet.transaction_log
+                     WHERE target_wallet_id BETWEEN ? AND ?
+                       AND operation = 'DEPOSIT'
+                       AND current_status = 'SUCCESS'
+                       AND created_at >= ? AND created_at < ?) entries
+             ORDER BY wallet_id, created_at, id
+            """;
+
+    // Served by the partial index on the PROCESSING entries
+    private static final String EXISTS_PROCESSING_BEFORE = """
+            SELECT EXISTS (SELECT 1
+                             FROM wallet.transaction_log
+                            WHERE current_status = 'PROCESSING'
+                              AND created_at < ?)
+            """;
+
+    private static final String SELECT_COMPLETED_CHUNKS = """
+            SELECT from_wallet_id
+              FROM wallet.statement_chunk
+             WHERE period = ?
+               AND status = 'DONE'
+            """;
+
+    // A RUNNING chunk is only taken over once its claim timed out, a DONE one never
+    private static final String CLAIM_CHUNK = """
+            INSERT INTO wallet.statement_chunk AS chunk
+                   (period, from_wallet_id, to_wallet_id, status, claimed_at, claim_token)
+            VALUES (?, ?, ?, 'RUNNING', LOCALTIMESTAMP, ?)
+            ON CONFLICT (period, from_wallet_id) DO UPDATE
+               SET to_wallet_id = EXCLUDED.to_wallet_id, claimed_at = LOCALTIMESTAMP,
+                   claim_token = EXCLUDED.claim_token
+             WHERE chunk.status = 'RUNNING'
+               AND chunk.claimed_at < LOCALTIMESTAMP - ? * INTERVAL '1 second'
+            """;
+
+    // Only the holder of the current claim checkpoints or releases the chunk
+    private static final String COMPLETE_CHUNK = """
+            UPDATE wallet.statement_chunk
+               SET status = 'DONE', statements = ?, completed_at = LOCALTIMESTAMP
+             WHERE period = ?
+               AND from_wallet_id = ?
+               AND status = 'RUNNING'
+               AND claim_token = ?
+            """;
+
+    private static final String RELEASE_CHUNK = """
+            DELETE FROM wallet.statement_chunk
+             WHERE period = ?
+               AND from_wallet_id = ?
+               AND status = 'RUNNING'
+               AND claim_token = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Returns the lowest and highest wallet IDs, or empty when there are no
+     * wallets.
+     */
+    public Optional<WalletIdRange> findWalletIdRange() {
+        return jdbcTemplate.query(SELECT_WALLET_ID_RANGE, rs -> {
+            rs.next();
+            Long minId = rs.getObject("min_id", Long.class);
+            Long maxId = rs.getObject("max_id", Long.class);
+            return minId == null ? Optional.empty() : Optional.of(new WalletIdRange(minId, maxId));
+        });
+    }
+
+    /**
+     * Streams the settled movements of the period of the wallets in the given
+     * range, grouped by wallet and in chronological order within a wallet.
+     * <p>
+     * The rows are read through a forward-only cursor, {@code fetchSize} rows
+     * per round trip, so the memory used does not depend on the number of
+     * movements. The Postgres driver only uses a cursor inside a transaction.
+     * </p>
+     */
+    @Transactional
+    public void streamSettledEntries(long fromWalletId, long toWalletId, YearMonth period, int fetchSize,
+            Consumer<StatementEntry> consumer) {
+        var from = Timestamp.valueOf(period.atDay(1).atStartOfDay());
+        var to = Timestamp.valueOf(period.plusMonths(1).atDay(1).atStartOfDay());
+
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(SELECT_SETTLED_ENTRIES, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            int index = 1;
+            for (int branch = 0; branch < 2; branch++) {
+                statement.setLong(index++, fromWalletId);
+                statement.setLong(index++, toWalletId);
+                statement.setTimestamp(index++, from);
+                statement.setTimestamp(index++, to);
+            }
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(new StatementEntry(
+                rs.getLong("wallet_id"),
+                rs.getLong("id"),
+                rs.getObject("correlation_id", UUID.class),
+                OperationType.valueOf(rs.getString("operation")),
+                rs.getBigDecimal("amount"),
+                rs.getBigDecimal("balance_after"),
+                rs.getTimestamp("created_at").toLocalDateTime())));
+    }
+
+    /**
+     * Tells whether entries created before the given time still wait to be
+     * settled, i.e. whether their period may still change.
+     */
+    public boolean existsProcessingBefore(LocalDateTime createdAt) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(EXISTS_PROCESSING_BEFORE, Boolean.class,
+                Timestamp.valueOf(createdAt)));
+    }
+
+    /**
+     * Returns the first wallet ID of every chunk of the period already done.
+     */
+    public Set<Long> findCompletedChunks(YearMonth period) {
+        return new HashSet<>(jdbcTemplate.queryForList(SELECT_COMPLETED_CHUNKS, Long.class, toDate(period)));
+    }
+
+    /**
+     * Claims a chunk for this instance.
+     *
+     * @return the token of the claim, or empty when the chunk is done, or
+     *         claimed by another instance within the claim timeout
+     */
+    public Optional<UUID> claimChunk(YearMonth period, long fromWalletId, long toWalletId, Duration claimTimeout) {
+        UUID claimToken = UUID.randomUUID();
+        int claimed = jdbcTemplate.update(CLAIM_CHUNK, toDate(period), fromWalletId, toWalletId, claimToken,
+                claimTimeout.toSeconds());
+        return claimed == 1 ? Optional.of(claimToken) : Optional.empty();
+    }
+
+    /**
+     * Checkpoints a chunk: a rerun of the period skips it.
+     *
+     * @return false when the claim timed out and another instance took the
+     *         chunk over
+     */
+    public boolean completeChunk(YearMonth period, long fromWalletId, UUID claimToken, int statements) {
+        return jdbcTemplate.update(COMPLETE_CHUNK, statements, toDate(period), fromWalletId, claimToken) == 1;
+    }
+
+    /**
+     * Drops the claim of a failed chunk so the next run of the period retries it.
+     */
+    public void releaseChunk(YearMonth period, long fromWalletId, UUID claimToken) {
+        jdbcTemplate.update(RELEASE_CHUNK, toDate(period), fromWalletId, claimToken);
+    }
+
+    private static Date toDate(YearMonth period) {
+        return Date.valueOf(period.atDay(1));
+    }
+
+    /**
+     * Lowest and highest wallet IDs.
+     */
+    public record WalletIdRange(long minId, long maxId) {
+
+    }
+}
@@ -0,0 +1,63 @@
+package com.service.wallet.processor.service;
+
+import com.service.wallet.processor.cache.WalletBalanceCacheWriter;
+import com.service.wallet.processor.dto.settlement.SettlementResult;
+import com.service.wallet.processor.event.WalletBalanceEventPublisher;
+import com.service.wallet.processor.repository.SettlementRepository;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Entry point of the settlement for the queue consumers.
+ * <p>
+ * Resolves the wallets touched by a batch with a single lock-free read and
+ * runs the {@link SettlementService} transaction while holding the
+ * {@link WalletLockManager} stripes of those wallets. Batches over the same
+ * wallets are therefore settled one at a time inside the processor, instead of
+ * queueing up on Postgres row locks, while unrelated batches settle in
+ * parallel.
+ * </p>
+ * <p>
+ * Once the transaction commits, and before the stripes are released, the new
+ * balances are written to the API's balance cache, in the order they changed,
+ * and then published so the API instances drop their near cache copies.
+ * </p>
+ *
+ * @author Leonardo Freua
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SettlementCoordinator {
+
+    private final SettlementRepository settlementRepository;
+    private final SettlementService settlementService;
+    private final WalletLockManager walletLockManager;
+    private final WalletBalanceCacheWriter walletBalanceCacheWriter;
+    private final WalletBalanceEventPublisher walletBalanceEventPublisher;
+
+    public SettlementResult settle(@NotNull List<UUID> correlationIds) throws Exception {
+        if (correlationIds.isEmpty()) {
+            return SettlementResult.empty();
+        }
+
+        Set<Long> walletIds = settlementRepository.findProcessingWalletIds(correlationIds);
+        if (walletIds.isEmpty()) {
+            log.info("No PROCESSING entries found for {} correlation IDs", correlationIds.size());
+            return SettlementResult.empty();
+        }
+
+        return walletLockManager.withWalletLocks(walletIds, () -> {
+            SettlementResult result = settlementService.settle(correlationIds);
+            walletBalanceCacheWriter.write(result);
+            walletBalanceEventPublisher.publish(result);
+            return result;
+        });
+    }
+}
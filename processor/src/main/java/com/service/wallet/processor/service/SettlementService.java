@@ -0,0 +1,184 @@
+package com.service.wallet.processor.service;
+
+import com.service.wallet.processor.dto.settlement.LedgerEntry;
+import com.service.wallet.processor.dto.settlement.SettlementResult;
+import com.service.wallet.processor.enums.OperationType;
+import com.service.wallet.processor.enums.TransactionStatus;
+import com.service.wallet.processor.repository.SettlementRepository;
+import com.service.wallet.processor.type.MinorAmount;
+import jakarta.transaction.Transactional;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Service responsible for settling PROCESSING transactions, a whole poll batch
+ * at a time.
+ *
+ * <pre>
+ * For a batch of correlation IDs the settlement:
+ *
+ *   - Loads and locks every PROCESSING log entry of the batch in one query
+ *   - Locks the balances of every affected wallet in one query (ascending ID order)
+ *   - Applies the entries of each correlation ID in memory, rejecting the ones
+ *     that would leave a wallet with a negative balance
+ *   - Writes the net delta of each wallet with one batched UPDATE per wallet
+ *   - Records the running balance (balance_after) of every applied leg in one
+ *     statement, together with its settlement sequence number (settled_seq)
+ *   - Flags the applied correlation IDs as SUCCESS and the rejected ones as ERROR,
+ *     one statement per status
+ *
+ * Balances move through the legs of a transaction: a DEPOSIT credits its target
+ * wallet and a WITHDRAW debits its source wallet. The TRANSFER entry only records
+ * the transfer for audit purposes, since its withdraw and deposit legs already
+ * carry the amount.
+ *
+ * Entries do not necessarily settle in the order they were created, so the
+ * running balance of a wallet is the one of its entry with the highest
+ * settled_seq, not of its latest created one.
+ *
+ * Entries already settled by a previous delivery of the same message are not
+ * loaded again, so redeliveries are harmless.
+ *
+ * All the arithmetic is done on long cents; balances only become decimals again
+ * in the returned result.
+ * </pre>
+ *
+ * @author Leonardo Freua
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SettlementService {
+
+    static final String INSUFFICIENT_BALANCE = "Insufficient balance to settle the transaction!";
+    static final String WALLET_NOT_FOUND = "Wallet not found to settle the transaction!";
+
+    private final SettlementRepository settlementRepository;
+
+    /**
+     * Settles every PROCESSING entry of the given correlation IDs in a single
+     * database transaction.
+     *
+     * @param correlationIds the correlation IDs received in one poll batch
+     * @return which correlation IDs were settled or rejected, and the new balance
+     *         of the wallets whose balance changed
+     */
+    @Transactional
+    public SettlementResult settle(@NotNull List<UUID> correlationIds) {
+        if (correlationIds.isEmpty()) {
+            return SettlementResult.empty();
+        }
+
+        List<LedgerEntry> entries = settlementRepository.lockProcessingEntries(correlationIds);
+        if (entries.isEmpty()) {
+            log.info("No PROCESSING entries found for {} correlation IDs", correlationIds.size());
+            return SettlementResult.empty();
+        }
+
+        Map<UUID, List<LedgerEntry>> entriesByCorrelationId = entries.stream()
+                .collect(Collectors.groupingBy(LedgerEntry::correlationId, LinkedHashMap::new, Collectors.toList()));
+
+        Set<Long> walletIds = deltasOf(entries).keySet().stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(TreeSet::new));
+        Map<Long, Long> balances = walletIds.isEmpty()
+                ? new HashMap<>()
+                : new HashMap<>(settlementRepository.lockBalances(walletIds));
+
+        Map<Long, Long> netDeltas = new HashMap<>();
+        Map<Long, Long> balanceAfterByEntryId = new LinkedHashMap<>();
+        List<UUID> settled = new ArrayList<>();
+        Map<UUID, String> failed = new LinkedHashMap<>();
+
+        entriesByCorrelationId.forEach((correlationId, correlationEntries) -> {
+            Map<Long, Long> deltas = deltasOf(correlationEntries);
+            String rejection = validate(deltas, balances);
+            if (rejection != null) {
+                failed.put(correlationId, rejection);
+                return;
+            }
+
+            for (var entry : correlationEntries) {
+                Long walletId = walletOf(entry);
+                if (walletId != null) {
+                    long delta = deltaOf(entry);
+                    balanceAfterByEntryId.put(entry.id(), balances.merge(walletId, delta, Math::addExact));
+                    netDeltas.merge(walletId, delta, Math::addExact);
+                }
+            }
+            settled.add(correlationId);
+        });
+
+        settlementRepository.applyBalanceDeltas(netDeltas);
+        settlementRepository.updateBalanceAfter(balanceAfterByEntryId);
+        settlementRepository.updateStatus(settled, TransactionStatus.SUCCESS, null);
+        failed.entrySet().stream()
+                .collect(Collectors.groupingBy(Map.Entry::getValue,
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toList())))
+                .forEach((reason, ids) -> settlementRepository.updateStatus(ids, TransactionStatus.ERROR, reason));
+
+        log.info("Settled {} and rejected {} of {} correlation IDs touching {} wallets", settled.size(),
+                failed.size(), correlationIds.size(), netDeltas.size());
+
+        Map<Long, BigDecimal> newBalances = new HashMap<>();
+        netDeltas.keySet().forEach(walletId -> newBalances.put(walletId, MinorAmount.toDecimal(balances.get(walletId))));
+
+        return new SettlementResult(settled, failed, newBalances);
+    }
+
+    private static Map<Long, Long> deltasOf(List<LedgerEntry> entries) {
+        Map<Long, Long> deltas = new HashMap<>();
+        for (var entry : entries) {
+            if (entry.operation() != OperationType.TRANSFER) {
+                deltas.merge(walletOf(entry), deltaOf(entry), Math::addExact);
+            }
+        }
+
+        return deltas;
+    }
+
+    /**
+     * Wallet whose balance the entry moves, {@code null} for the TRANSFER audit
+     * record since the amount moves through its WITHDRAW and DEPOSIT legs.
+     */
+    private static Long walletOf(LedgerEntry entry) {
+        return switch (entry.operation()) {
+            case DEPOSIT -> entry.targetWalletId();
+            case WITHDRAW -> entry.sourceWalletId();
+            case TRANSFER -> null;
+        };
+    }
+
+    private static long deltaOf(LedgerEntry entry) {
+        return entry.operation() == OperationType.WITHDRAW ? -entry.amountCents() : entry.amountCents();
+    }
+
+    private static String validate(Map<Long, Long> deltas, Map<Long, Long> balances) {
+        for (var delta : deltas.entrySet()) {
+            Long balance = balances.get(delta.getKey());
+            if (balance == null) {
+                return WALLET_NOT_FOUND;
+            }
+
+            if (Math.addExact(balance, delta.getValue()) < 0) {
+                return INSUFFICIENT_BALANCE;
+            }
+        }
+
+        return null;
+    }
+}
@@ -0,0 +1,40 @@
+package com.service.wallet.processor.statement;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * {@link StatementStore} backed by a local directory, the keys being relative
+ * paths. Used in development and tests instead of S3.
+ * <p>
+ * The file is copied next to its final path and then renamed over it, so a
+ * reader never sees a partially written statement.
+ * </p>
+ */
+@Slf4j
+public class LocalStatementStore implements StatementStore {
+
+    private final Path directory;
+
+    public LocalStatementStore(Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public void put(String key, Path file) throws IOException {
+        Path target = directory.resolve(key).normalize();
+        if (!target.startsWith(directory.normalize())) {
+            throw new IOException("Statement key " + key + " escapes " + directory);
+        }
+
+        Files.createDirectories(target.getParent());
+        Path part = target.resolveSibling(target.getFileName() + ".part");
+        Files.copy(file, part, StandardCopyOption.REPLACE_EXISTING);
+        Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.debug("Stored statement {}", target);
+    }
+}
@@ -0,0 +1,38 @@
+package com.service.wallet.processor.statement;
+
+import lombok.RequiredArgsConstructor;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * {@link StatementStore} backed by an S3 bucket (or any S3 compatible store,
+ * such as LocalStack or MinIO). A PutObject replaces the object atomically.
+ */
+@RequiredArgsConstructor
+public class S3StatementStore implements StatementStore {
+
+    private static final String CONTENT_TYPE = "text/csv";
+    private static final String CONTENT_ENCODING = "gzip";
+
+    private final S3Client s3Client;
+    private final String bucket;
+
+    @Override
+    public void put(String key, Path file) throws IOException {
+        try {
+            s3Client.putObject(PutObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .contentType(CONTENT_TYPE)
+                    .contentEncoding(CONTENT_ENCODING)
+                    .build(), RequestBody.fromFile(file));
+        } catch (SdkException e) {
+            throw new IOException("Failed to upload the statement " + key + " to " + bucket, e);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.service.wallet.processor.statement;
+
+import com.service.wallet.processor.dto.statement.StatementEntry;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the statements of a chunk from its movements, grouped by wallet, one
+ * gzipped CSV file per wallet.
+ * <p>
+ * Only the statement of the current wallet is open, in a temporary file; it is
+ * uploaded to the {@link StatementStore} as soon as the movements of the next
+ * wallet start, or on {@link #finish()}. Closing the writer without finishing
+ * discards the statement in progress.
+ * </p>
+ */
+class StatementFileWriter implements Consumer<StatementEntry>, AutoCloseable {
+
+    static final String HEADER = "created_at,correlation_id,operation,amount,balance_after";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final StatementStore statementStore;
+    private final String keyPrefix;
+    private final YearMonth period;
+
+    private long walletId;
+    private Path file;
+    private Writer writer;
+    private int statements;
+
+    StatementFileWriter(StatementStore statementStore, String keyPrefix, YearMonth period) {
+        this.statementStore = statementStore;
+        this.keyPrefix = keyPrefix;
+        this.period = period;
+    }
+
+    /**
+     * Key of the statement of a wallet: {@code {prefix}/{yyyy-MM}/{walletId}.csv.gz}.
+     */
+    static String key(String keyPrefix, YearMonth period, long walletId) {
+        return keyPrefix + "/" + period + "/" + walletId + ".csv.gz";
+    }
+
+    @Override
+    public void accept(StatementEntry entry) {
+        try {
+            if (writer == null || entry.walletId() != walletId) {
+                finish();
+                open(entry.walletId());
+            }
+
+            writer.write(entry.createdAt() + "," + entry.correlationId() + "," + entry.operation() + ","
+                    + entry.amount().toPlainString() + ","
+                    + (entry.balanceAfter() == null ? "" : entry.balanceAfter().toPlainString()) + "\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Uploads the statement in progress, if any.
+     */
+    void finish() throws IOException {
+        if (writer == null) {
+            return;
+        }
+
+        writer.close();
+        writer = null;
+        statementStore.put(key(keyPrefix, period, walletId), file);
+        Files.delete(file);
+        file = null;
+        statements++;
+    }
+
+    /**
+     * Number of statements uploaded so far.
+     */
+    int getStatements() {
+        return statements;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+        if (file != null) {
+            Files.deleteIfExists(file);
+            file = null;
+        }
+    }
+
+    private void open(long walletId) throws IOException {
+        this.walletId = walletId;
+        this.file = Files.createTempFile("statement-" + walletId + "-", ".csv.gz");
+        this.writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(file), BUFFER_SIZE), StandardCharsets.UTF_8), BUFFER_SIZE);
+        writer.write(HEADER + "\n");
+    }
+}
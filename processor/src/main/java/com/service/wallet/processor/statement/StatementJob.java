@@ -0,0 +1,215 @@
+package com.service.wallet.processor.statement;
+
+import com.service.wallet.processor.config.statement.StatementProperty;
+import com.service.wallet.processor.repository.StatementRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Generates the monthly statement of every wallet with settled movements in
+ * the month, one gzipped CSV file per wallet in the {@link StatementStore}.
+ * <pre>
+ * The wallets are split in chunks of chunk-size consecutive IDs, aligned on
+ * multiples of chunk-size so the chunks of a period never move. Each chunk:
+ *
+ *   - Is claimed in wallet.statement_chunk, so several processor instances
+ *     share the work and a chunk is never generated twice at the same time
+ *   - Streams its movements from a database cursor, one wallet file open at a
+ *     time, so memory stays flat whatever the size of the month
+ *   - Is checkpointed as DONE once its files are stored, or released on failure
+ *
+ *   - Is only checkpointed or released under the claim that generated it, so
+ *     an instance whose claim timed out cannot mark the work of the instance
+ *     that took the chunk over
+ *
+ * Up to parallelism chunks run at once, each on its own virtual thread. A run
+ * that stopped halfway (a restart, a failed chunk) is resumed by running the
+ * period again: the DONE chunks are skipped, the others regenerated, and their
+ * files overwritten.
+ *
+ * A DONE chunk is never regenerated, so a period only runs once it is fully
+ * settled: while entries created before its end are still PROCESSING, the run
+ * is deferred and retried every settle-retry.
+ *
+ * The job runs on the cron of wallet.statements.cron for the previous month,
+ * and once on startup to resume an interrupted run.
+ *
+ * Metrics: wallet.statements.generated, wallet.statements.chunks (result tag)
+ * and wallet.statements.chunk.duration.
+ * </pre>
+ *
+ * @author Leonardo Freua
+ */
+@Slf4j
+@Service
+public class StatementJob {
+
+    private final StatementRepository statementRepository;
+    private final StatementStore statementStore;
+    private final StatementProperty statementProperty;
+    private final Counter generatedStatements;
+    private final Counter completedChunks;
+    private final Counter failedChunks;
+    private final Timer chunkDuration;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicReference<YearMonth> deferredPeriod = new AtomicReference<>();
+
+    public StatementJob(StatementRepository statementRepository, StatementStore statementStore,
+            StatementProperty statementProperty, MeterRegistry meterRegistry) {
+        this.statementRepository = statementRepository;
+        this.statementStore = statementStore;
+        this.statementProperty = statementProperty;
+        this.generatedStatements = meterRegistry.counter("wallet.statements.generated");
+        this.completedChunks = meterRegistry.counter("wallet.statements.chunks", "result", "done");
+        this.failedChunks = meterRegistry.counter("wallet.statements.chunks", "result", "failed");
+        this.chunkDuration = meterRegistry.timer("wallet.statements.chunk.duration");
+    }
+
+    @Scheduled(cron = "${wallet.statements.cron:0 0 2 1 * *}")
+    public void generateLastMonth() {
+        if (Boolean.TRUE.equals(statementProperty.getEnabled())) {
+            generate(YearMonth.now().minusMonths(1));
+        }
+    }
+
+    /**
+     * Runs again the period deferred because it was not fully settled yet.
+     */
+    @Scheduled(fixedDelayString = "${wallet.statements.settle-retry:10m}")
+    public void generateDeferred() {
+        YearMonth period = deferredPeriod.get();
+        if (period != null) {
+            generate(period);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeOnStartup() {
+        if (Boolean.TRUE.equals(statementProperty.getResumeOnStartup())) {
+            Thread.ofVirtual().name("statement-job").start(this::generateLastMonth);
+        }
+    }
+
+    /**
+     * Generates the statements of the period not generated yet. Returns right
+     * away when a run is already in progress in this instance, and defers the
+     * run while the period is not fully settled.
+     *
+     * @return the number of statements generated by this run
+     */
+    public int generate(YearMonth period) {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Statements are already being generated, skipping {}", period);
+            return 0;
+        }
+
+        try {
+            if (statementRepository.existsProcessingBefore(period.plusMonths(1).atDay(1).atStartOfDay())) {
+                deferredPeriod.set(period);
+                log.info("Entries of {} or earlier are still being settled, deferring its statements", period);
+                return 0;
+            }
+
+            deferredPeriod.compareAndSet(period, null);
+            return generateChunks(period);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int generateChunks(YearMonth period) {
+        var range = statementRepository.findWalletIdRange();
+        if (range.isEmpty()) {
+            return 0;
+        }
+
+        long chunkSize = statementProperty.getChunkSize();
+        Set<Long> completed = statementRepository.findCompletedChunks(period);
+        var permits = new Semaphore(statementProperty.getParallelism());
+        var statements = new AtomicInteger();
+        long started = System.nanoTime();
+        int chunks = 0;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long first = range.get().minId() - Math.floorMod(range.get().minId(), chunkSize);
+            for (long from = first; from <= range.get().maxId(); from += chunkSize) {
+                if (completed.contains(from)) {
+                    continue;
+                }
+
+                permits.acquire();
+                long fromWalletId = from;
+                long toWalletId = from + chunkSize - 1;
+                chunks++;
+                executor.submit(() -> {
+                    try {
+                        statements.addAndGet(generateChunk(period, fromWalletId, toWalletId));
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while generating the statements of {}, the next run resumes it", period);
+        }
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+        log.info("Generated {} statements of {} from {} chunks ({} already done) in {} ({} statements/minute)",
+                statements.get(), period, chunks, completed.size(), elapsed,
+                Math.round(statements.get() * 60_000.0 / Math.max(1, elapsed.toMillis())));
+        return statements.get();
+    }
+
+    private int generateChunk(YearMonth period, long fromWalletId, long toWalletId) {
+        var claim = statementRepository.claimChunk(period, fromWalletId, toWalletId,
+                statementProperty.getClaimTimeout());
+        if (claim.isEmpty()) {
+            log.debug("Statement chunk {}-{} of {} is claimed by another instance", fromWalletId, toWalletId, period);
+            return 0;
+        }
+
+        UUID claimToken = claim.get();
+
+        Timer.Sample sample = Timer.start();
+        try (var writer = new StatementFileWriter(statementStore, statementProperty.getKeyPrefix(), period)) {
+            statementRepository.streamSettledEntries(fromWalletId, toWalletId, period,
+                    statementProperty.getFetchSize(), writer);
+            writer.finish();
+            if (!statementRepository.completeChunk(period, fromWalletId, claimToken, writer.getStatements())) {
+                log.warn("The claim of statement chunk {}-{} of {} timed out and was taken over, leaving it to the "
+                        + "other instance", fromWalletId, toWalletId, period);
+                return 0;
+            }
+
+            generatedStatements.increment(writer.getStatements());
+            completedChunks.increment();
+            return writer.getStatements();
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to generate the statement chunk {}-{} of {}", fromWalletId, toWalletId, period, e);
+            failedChunks.increment();
+            statementRepository.releaseChunk(period, fromWalletId, claimToken);
+            return 0;
+        } finally {
+            sample.stop(chunkDuration);
+        }
+    }
+}
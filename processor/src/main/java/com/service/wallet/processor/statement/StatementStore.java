@@ -0,0 +1,19 @@
+package com.service.wallet.processor.statement;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Object store the statement files are uploaded to.
+ * <p>
+ * Implementations must replace an existing object atomically: a chunk retried
+ * after a failure uploads its statements again under the same keys.
+ * </p>
+ */
+public interface StatementStore {
+
+    /**
+     * Uploads the given file under the given key.
+     */
+    void put(String key, Path file) throws IOException;
+}
@@ -0,0 +1,33 @@
+package com.service.wallet.processor.type;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Conversions between decimal amounts and the primitive number of cents
+ * (minor units) stored in the {@code *_cents} BIGINT columns, on which the
+ * settlement does its arithmetic.
+ * <p>
+ * Amounts are rounded half up to cents, the same way Postgres rounds them into
+ * the {@code NUMERIC(19,2)} columns.
+ * </p>
+ */
+public final class MinorAmount {
+
+    public static final int SCALE = 2;
+
+    private MinorAmount() {
+    }
+
+    /**
+     * @throws ArithmeticException if the value does not fit in a {@code long}
+     *                             number of cents
+     */
+    public static long toCents(BigDecimal value) {
+        return value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toDecimal(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+}
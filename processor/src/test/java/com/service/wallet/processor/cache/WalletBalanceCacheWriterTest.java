@@ -0,0 +1,30 @@
+package com.service.wallet.processor.cache;
+
+import com.service.wallet.processor.dto.settlement.SettlementResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class WalletBalanceCacheWriterTest {
+
+    @Mock
+    StringRedisTemplate redisTemplate;
+
+    @InjectMocks
+    WalletBalanceCacheWriter writer;
+
+    @Test
+    void write_shouldDoNothing_whenNoBalanceChanged() {
+        // When
+        writer.write(SettlementResult.empty());
+
+        // Then
+        verifyNoInteractions(redisTemplate);
+    }
+}
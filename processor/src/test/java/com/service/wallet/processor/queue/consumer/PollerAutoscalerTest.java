@@ -0,0 +1,35 @@
+package com.service.wallet.processor.queue.consumer;
+
+import com.service.wallet.processor.config.sqs.DepositQueueProperty;
+import com.service.wallet.processor.config.sqs.QueueProperty;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PollerAutoscalerTest {
+
+    private static final QueueProperty QUEUE = new DepositQueueProperty("http://localhost/deposit_queue", 10, 20, 60, 4,
+            16, 4, 1, 2, 100, "http://localhost/deposit_dlq", 5, 5, 900);
+
+    @Test
+    void receiversFor_shouldScaleUpToTheBacklogAtOnce() {
+        // When & Then
+        assertEquals(3, PollerAutoscaler.receiversFor(QUEUE, 250, 1));
+        assertEquals(4, PollerAutoscaler.receiversFor(QUEUE, 100_000, 1));
+    }
+
+    @Test
+    void receiversFor_shouldScaleDownOneReceiverPerInterval() {
+        // When & Then
+        assertEquals(3, PollerAutoscaler.receiversFor(QUEUE, 0, 4));
+        assertEquals(1, PollerAutoscaler.receiversFor(QUEUE, 0, 1));
+    }
+
+    @Test
+    void workersFor_shouldFollowTheReceiversWithinTheBounds() {
+        // When & Then
+        assertEquals(2, PollerAutoscaler.workersFor(QUEUE, 0));
+        assertEquals(4, PollerAutoscaler.workersFor(QUEUE, 1));
+        assertEquals(16, PollerAutoscaler.workersFor(QUEUE, 4));
+    }
+}
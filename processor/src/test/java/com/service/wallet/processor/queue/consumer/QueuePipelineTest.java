@@ -0,0 +1,223 @@
+package com.service.wallet.processor.queue.consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.service.wallet.processor.config.sqs.DepositQueueProperty;
+import com.service.wallet.processor.config.sqs.QueueProperty;
+import com.service.wallet.processor.dto.messaging.TransactionCorrelationId;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.ChangeMessageVisibilityBatchRequest;
+import software.amazon.awssdk.services.sqs.model.ChangeMessageVisibilityBatchResponse;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.DeleteMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.Message;
+import software.amazon.awssdk.services.sqs.model.MessageSystemAttributeName;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageRequest;
+import software.amazon.awssdk.services.sqs.model.ReceiveMessageResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class QueuePipelineTest {
+
+    private static final QueueProperty QUEUE = new DepositQueueProperty("http://localhost/deposit_queue", 10, 0, 60, 1,
+            1, 1, 1, 1, 100, "http://localhost/deposit_dlq", 3, 5, 900);
+
+    @Mock
+    SqsClient sqsClient;
+
+    SqsConsumer sqsConsumer;
+    VisibilityHeartbeat visibilityHeartbeat;
+    RecordingHandler handler;
+    QueuePipeline<TransactionCorrelationId> pipeline;
+
+    @BeforeEach
+    void setUp() {
+        sqsConsumer = new SqsConsumer(sqsClient, new ObjectMapper());
+        visibilityHeartbeat = new VisibilityHeartbeat(sqsConsumer);
+        handler = new RecordingHandler();
+
+        when(sqsClient.deleteMessageBatch(any(DeleteMessageBatchRequest.class)))
+                .thenReturn(DeleteMessageBatchResponse.builder().build());
+        when(sqsClient.changeMessageVisibilityBatch(any(ChangeMessageVisibilityBatchRequest.class)))
+                .thenReturn(ChangeMessageVisibilityBatchResponse.builder().build());
+        when(sqsClient.sendMessageBatch(any(SendMessageBatchRequest.class))).thenAnswer(invocation -> {
+            SendMessageBatchRequest request = invocation.getArgument(0);
+            return SendMessageBatchResponse.builder()
+                    .successful(request.entries().stream()
+                            .map(entry -> SendMessageBatchResultEntry.builder().id(entry.id()).build())
+                            .toList())
+                    .build();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pipeline != null) {
+            pipeline.stop();
+        }
+        visibilityHeartbeat.close();
+    }
+
+    @Test
+    void process_shouldDeleteTheGoodMessagesAndBackOffThePoisonOne_whenTheBatchFails() {
+        // Given
+        var good = message(UUID.randomUUID(), 1);
+        var poisonId = UUID.randomUUID();
+        var poison = message(poisonId, 2);
+        handler.poison = Set.of(poisonId);
+        receiveOnce(good, poison);
+
+        // When
+        start();
+
+        // Then
+        var visibility = ArgumentCaptor.forClass(ChangeMessageVisibilityBatchRequest.class);
+        verify(sqsClient, timeout(5_000)).changeMessageVisibilityBatch(visibility.capture());
+        assertEquals(poison.receiptHandle(), visibility.getValue().entries().get(0).receiptHandle());
+        assertEquals(10, visibility.getValue().entries().get(0).visibilityTimeout());
+
+        var delete = ArgumentCaptor.forClass(DeleteMessageBatchRequest.class);
+        verify(sqsClient).deleteMessageBatch(delete.capture());
+        assertEquals(List.of(good.receiptHandle()), delete.getValue().entries().stream()
+                .map(entry -> entry.receiptHandle())
+                .toList());
+        verify(sqsClient, never()).sendMessageBatch(any(SendMessageBatchRequest.class));
+    }
+
+    @Test
+    void process_shouldParkTheMessageOnTheDeadLetterQueue_whenItFailedMaxAttemptsTimes() {
+        // Given
+        var poisonId = UUID.randomUUID();
+        var poison = message(poisonId, 3);
+        handler.poison = Set.of(poisonId);
+        receiveOnce(poison);
+
+        // When
+        start();
+
+        // Then
+        var send = ArgumentCaptor.forClass(SendMessageBatchRequest.class);
+        verify(sqsClient, timeout(5_000)).sendMessageBatch(send.capture());
+        assertEquals(QUEUE.getDeadLetterQueueUrl(), send.getValue().queueUrl());
+        assertEquals(poison.body(), send.getValue().entries().get(0).messageBody());
+
+        verify(sqsClient, timeout(5_000)).deleteMessageBatch(any(DeleteMessageBatchRequest.class));
+        verify(sqsClient, never()).changeMessageVisibilityBatch(any(ChangeMessageVisibilityBatchRequest.class));
+    }
+
+    @Test
+    void process_shouldParkUnreadableMessagesRightAway() {
+        // Given
+        var unreadable = Message.builder()
+                .messageId(UUID.randomUUID().toString())
+                .receiptHandle(UUID.randomUUID().toString())
+                .body("not json")
+                .build();
+        receiveOnce(unreadable);
+
+        // When
+        start();
+
+        // Then
+        verify(sqsClient, timeout(5_000)).sendMessageBatch(any(SendMessageBatchRequest.class));
+        verify(sqsClient, timeout(5_000)).deleteMessageBatch(any(DeleteMessageBatchRequest.class));
+        assertEquals(List.of(), handler.handled);
+    }
+
+    @Test
+    void resize_shouldKeepTheSizeWithinTheMaximumsAndOneWorkerPerPollingReceiver() {
+        // Given
+        pipeline = new QueuePipeline<>(sqsConsumer, handler, visibilityHeartbeat, new SimpleMeterRegistry());
+
+        // When
+        pipeline.resize(10, 0);
+
+        // Then
+        assertEquals(1, pipeline.getActiveReceivers());
+        assertEquals(1, pipeline.getActiveWorkers());
+    }
+
+    @Test
+    void retryBackoff_shouldDoubleOnEveryAttemptUpToTheMaximum() {
+        // When & Then
+        assertEquals(5, QueuePipeline.retryBackoff(QUEUE, 1));
+        assertEquals(10, QueuePipeline.retryBackoff(QUEUE, 2));
+        assertEquals(40, QueuePipeline.retryBackoff(QUEUE, 4));
+        assertEquals(900, QueuePipeline.retryBackoff(QUEUE, 12));
+        assertEquals(900, QueuePipeline.retryBackoff(QUEUE, 1_000));
+    }
+
+    private void start() {
+        pipeline = new QueuePipeline<>(sqsConsumer, handler, visibilityHeartbeat, new SimpleMeterRegistry());
+        pipeline.start();
+    }
+
+    private void receiveOnce(Message... messages) {
+        when(sqsClient.receiveMessage(any(ReceiveMessageRequest.class)))
+                .thenReturn(ReceiveMessageResponse.builder().messages(messages).build())
+                .thenAnswer(invocation -> {
+                    Thread.sleep(50);
+                    return ReceiveMessageResponse.builder().build();
+                });
+    }
+
+    private static Message message(UUID correlationId, int receiveCount) {
+        return Message.builder()
+                .messageId(UUID.randomUUID().toString())
+                .receiptHandle(UUID.randomUUID().toString())
+                .body("{\"transactionCorrelationId\":\"" + correlationId + "\"}")
+                .attributes(Map.of(MessageSystemAttributeName.APPROXIMATE_RECEIVE_COUNT,
+                        Integer.toString(receiveCount)))
+                .build();
+    }
+
+    private static final class RecordingHandler implements QueueMessageHandler<TransactionCorrelationId> {
+
+        private final List<TransactionCorrelationId> handled = new CopyOnWriteArrayList<>();
+        private volatile Set<UUID> poison = Set.of();
+
+        @Override
+        public QueueProperty getQueueProperty() {
+            return QUEUE;
+        }
+
+        @Override
+        public Class<TransactionCorrelationId> getPayloadType() {
+            return TransactionCorrelationId.class;
+        }
+
+        @Override
+        public void handle(List<TransactionCorrelationId> payloads) {
+            if (payloads.stream().anyMatch(payload -> poison.contains(payload.transactionCorrelationId()))) {
+                throw new IllegalStateException("Poison message");
+            }
+
+            handled.addAll(payloads);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.service.wallet.processor.queue.consumer;
+
+import com.service.wallet.processor.config.sqs.DepositQueueProperty;
+import com.service.wallet.processor.config.sqs.QueueProperty;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.sqs.model.Message;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class VisibilityHeartbeatTest {
+
+    // A 2s visibility timeout extends every second
+    private static final QueueProperty QUEUE = new DepositQueueProperty("http://localhost/deposit_queue", 10, 0, 2, 1,
+            1, 1, 1, 1, 100, "http://localhost/deposit_dlq", 3, 5, 900);
+
+    @Mock
+    SqsConsumer sqsConsumer;
+
+    VisibilityHeartbeat visibilityHeartbeat;
+
+    @BeforeEach
+    void setUp() {
+        visibilityHeartbeat = new VisibilityHeartbeat(sqsConsumer);
+    }
+
+    @AfterEach
+    void tearDown() {
+        visibilityHeartbeat.close();
+    }
+
+    @Test
+    void release_shouldWaitForTheExtensionInFlightAndStopTheNextOnes() throws Exception {
+        // Given
+        var messages = List.of(message(), message());
+        var extending = new CountDownLatch(1);
+        var slowSqs = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            extending.countDown();
+            slowSqs.await();
+            return null;
+        }).when(sqsConsumer).changeVisibility(any(), any(), anyInt());
+        var lease = visibilityHeartbeat.track(QUEUE, messages);
+        assertTrue(extending.await(5, TimeUnit.SECONDS));
+
+        // When
+        var released = new CountDownLatch(1);
+        Thread.startVirtualThread(() -> {
+            lease.release();
+            released.countDown();
+        });
+
+        // Then
+        assertFalse(released.await(300, TimeUnit.MILLISECONDS));
+        slowSqs.countDown();
+        assertTrue(released.await(5, TimeUnit.SECONDS));
+
+        Thread.sleep(1_500);
+        verify(sqsConsumer, times(1)).changeVisibility(any(), any(), anyInt());
+    }
+
+    @Test
+    void forget_shouldStopExtendingTheForgottenMessages() throws Exception {
+        // Given
+        var deleted = message();
+        var pending = message();
+        var lease = visibilityHeartbeat.track(QUEUE, List.of(deleted, pending));
+
+        // When
+        lease.forget(List.of(deleted));
+
+        // Then
+        verify(sqsConsumer, timeout(5_000)).changeVisibility(eq(QUEUE), eq(List.of(pending)), eq(2));
+        lease.release();
+    }
+
+    private static Message message() {
+        return Message.builder()
+                .messageId(UUID.randomUUID().toString())
+                .receiptHandle(UUID.randomUUID().toString())
+                .build();
+    }
+}
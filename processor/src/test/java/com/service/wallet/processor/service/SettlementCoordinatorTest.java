@@ -0,0 +1,80 @@
+package com.service.wallet.processor.service;
+
+import com.service.wallet.processor.cache.WalletBalanceCacheWriter;
+import com.service.wallet.processor.dto.settlement.SettlementResult;
+import com.service.wallet.processor.event.WalletBalanceEventPublisher;
+import com.service.wallet.processor.repository.SettlementRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SettlementCoordinatorTest {
+
+    @Mock
+    SettlementRepository settlementRepository;
+
+    @Mock
+    SettlementService settlementService;
+
+    @Mock
+    WalletBalanceCacheWriter walletBalanceCacheWriter;
+
+    @Mock
+    WalletBalanceEventPublisher walletBalanceEventPublisher;
+
+    SettlementCoordinator settlementCoordinator;
+
+    @BeforeEach
+    void setUp() {
+        settlementCoordinator = new SettlementCoordinator(settlementRepository, settlementService,
+                new WalletLockManager(16, new SimpleMeterRegistry()), walletBalanceCacheWriter, walletBalanceEventPublisher);
+    }
+
+    @Test
+    void settle_shouldCacheThenPublishNewBalances_afterTheBatchIsSettled() throws Exception {
+        // Given
+        var correlationIds = List.of(UUID.randomUUID());
+        var result = new SettlementResult(correlationIds, Map.of(), Map.of(1L, new BigDecimal("70.00")));
+
+        when(settlementRepository.findProcessingWalletIds(correlationIds)).thenReturn(Set.of(1L));
+        when(settlementService.settle(correlationIds)).thenReturn(result);
+
+        // When
+        var settled = settlementCoordinator.settle(correlationIds);
+
+        // Then
+        assertSame(result, settled);
+        var inOrder = inOrder(settlementService, walletBalanceCacheWriter, walletBalanceEventPublisher);
+        inOrder.verify(settlementService).settle(correlationIds);
+        inOrder.verify(walletBalanceCacheWriter).write(result);
+        inOrder.verify(walletBalanceEventPublisher).publish(result);
+    }
+
+    @Test
+    void settle_shouldNotPublish_whenNoProcessingEntriesAreFound() throws Exception {
+        // Given
+        var correlationIds = List.of(UUID.randomUUID());
+        when(settlementRepository.findProcessingWalletIds(correlationIds)).thenReturn(Set.of());
+
+        // When
+        settlementCoordinator.settle(correlationIds);
+
+        // Then
+        verifyNoInteractions(settlementService, walletBalanceCacheWriter, walletBalanceEventPublisher);
+    }
+}
@@ -0,0 +1,133 @@
+package com.service.wallet.processor.service;
+
+import com.service.wallet.processor.dto.settlement.LedgerEntry;
+import com.service.wallet.processor.enums.OperationType;
+import com.service.wallet.processor.enums.TransactionStatus;
+import com.service.wallet.processor.repository.SettlementRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SettlementServiceTest {
+
+    @Mock
+    SettlementRepository settlementRepository;
+
+    @InjectMocks
+    SettlementService settlementService;
+
+    @Test
+    void settle_shouldDoNothing_whenNoProcessingEntriesAreFound() {
+        // Given
+        var correlationId = UUID.randomUUID();
+        when(settlementRepository.lockProcessingEntries(List.of(correlationId))).thenReturn(List.of());
+
+        // When
+        var result = settlementService.settle(List.of(correlationId));
+
+        // Then
+        assertTrue(result.settled().isEmpty());
+        verify(settlementRepository).lockProcessingEntries(List.of(correlationId));
+        verifyNoMoreInteractions(settlementRepository);
+    }
+
+    @Test
+    void settle_shouldApplyDepositsAndTransferLegs_whenBalancesAreSufficient() {
+        // Given
+        var deposit = UUID.randomUUID();
+        var transfer = UUID.randomUUID();
+        var entries = List.of(
+                new LedgerEntry(1L, deposit, null, 1L, OperationType.DEPOSIT, 10000L),
+                new LedgerEntry(2L, transfer, 1L, null, OperationType.WITHDRAW, 3000L),
+                new LedgerEntry(3L, transfer, null, 2L, OperationType.DEPOSIT, 3000L),
+                new LedgerEntry(4L, transfer, 1L, 2L, OperationType.TRANSFER, 3000L));
+
+        when(settlementRepository.lockProcessingEntries(List.of(deposit, transfer))).thenReturn(entries);
+        when(settlementRepository.lockBalances(Set.of(1L, 2L)))
+                .thenReturn(Map.of(1L, 0L, 2L, 0L));
+
+        // When
+        var result = settlementService.settle(List.of(deposit, transfer));
+
+        // Then
+        assertEquals(List.of(deposit, transfer), result.settled());
+        assertTrue(result.failed().isEmpty());
+        assertEquals(Set.of(1L, 2L), result.affectedWalletIds());
+        assertEquals(Map.of(1L, new BigDecimal("70.00"), 2L, new BigDecimal("30.00")), result.balances());
+
+        verify(settlementRepository).applyBalanceDeltas(Map.of(1L, 7000L, 2L, 3000L));
+        verify(settlementRepository).updateBalanceAfter(Map.of(1L, 10000L, 2L, 7000L, 3L, 3000L));
+        verify(settlementRepository).updateStatus(List.of(deposit, transfer), TransactionStatus.SUCCESS, null);
+        verify(settlementRepository, never()).updateStatus(anyCollection(), eq(TransactionStatus.ERROR), eq(
+                SettlementService.INSUFFICIENT_BALANCE));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void settle_shouldRecordRunningBalancesInSettlementOrder_whenWalletHasSeveralEntries() {
+        // Given
+        var first = UUID.randomUUID();
+        var second = UUID.randomUUID();
+        var entries = List.of(
+                new LedgerEntry(9L, first, null, 1L, OperationType.DEPOSIT, 1000L),
+                new LedgerEntry(5L, second, 1L, null, OperationType.WITHDRAW, 400L));
+
+        when(settlementRepository.lockProcessingEntries(List.of(first, second))).thenReturn(entries);
+        when(settlementRepository.lockBalances(Set.of(1L))).thenReturn(Map.of(1L, 0L));
+
+        // When
+        settlementService.settle(List.of(first, second));
+
+        // Then
+        ArgumentCaptor<Map<Long, Long>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(settlementRepository).updateBalanceAfter(captor.capture());
+        assertEquals(List.of(9L, 5L), List.copyOf(captor.getValue().keySet()));
+        assertEquals(List.of(1000L, 600L), List.copyOf(captor.getValue().values()));
+    }
+
+    @Test
+    void settle_shouldRejectTransfer_whenSourceBalanceIsInsufficient() {
+        // Given
+        var transfer = UUID.randomUUID();
+        var entries = List.of(
+                new LedgerEntry(1L, transfer, 1L, null, OperationType.WITHDRAW, 5000L),
+                new LedgerEntry(2L, transfer, null, 2L, OperationType.DEPOSIT, 5000L),
+                new LedgerEntry(3L, transfer, 1L, 2L, OperationType.TRANSFER, 5000L));
+
+        when(settlementRepository.lockProcessingEntries(List.of(transfer))).thenReturn(entries);
+        when(settlementRepository.lockBalances(Set.of(1L, 2L)))
+                .thenReturn(Map.of(1L, 1000L, 2L, 0L));
+
+        // When
+        var result = settlementService.settle(List.of(transfer));
+
+        // Then
+        assertTrue(result.settled().isEmpty());
+        assertEquals(SettlementService.INSUFFICIENT_BALANCE, result.failed().get(transfer));
+
+        ArgumentCaptor<Map<Long, Long>> deltas = ArgumentCaptor.forClass(Map.class);
+        verify(settlementRepository).applyBalanceDeltas(deltas.capture());
+        assertTrue(deltas.getValue().isEmpty());
+        verify(settlementRepository).updateStatus(List.of(transfer), TransactionStatus.ERROR,
+                SettlementService.INSUFFICIENT_BALANCE);
+    }
+}
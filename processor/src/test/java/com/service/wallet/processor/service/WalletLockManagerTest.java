@@ -0,0 +1,77 @@
+package com.service.wallet.processor.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WalletLockManagerTest {
+
+    @Test
+    void withWalletLocks_shouldSerializeSettlements_whenWalletsOverlap() throws Exception {
+        // Given
+        var registry = new SimpleMeterRegistry();
+        var lockManager = new WalletLockManager(64, registry);
+        var concurrent = new AtomicInteger();
+        var maxConcurrent = new AtomicInteger();
+
+        // When
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 50; i++) {
+                // Alternate the order of the wallets, the stripes must still be taken in the same order
+                var walletIds = i % 2 == 0 ? List.of(1L, 2L) : List.of(2L, 1L);
+                executor.submit(() -> lockManager.withWalletLocks(walletIds, () -> {
+                    maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                    Thread.sleep(1);
+                    return concurrent.decrementAndGet();
+                }));
+            }
+        }
+
+        // Then
+        assertEquals(1, maxConcurrent.get());
+        assertEquals(50, registry.get("wallet.settlement.lock.wait").timer().count());
+        assertEquals(0.0, registry.get("wallet.settlement.lock.held").gauge().value());
+    }
+
+    @Test
+    void withWalletLocks_shouldRunInParallel_whenWalletsAreUnrelated() throws Exception {
+        // Given
+        var lockManager = new WalletLockManager(1024, new SimpleMeterRegistry());
+        long first = 1L;
+        long second = 2L;
+        while (lockManager.stripeOf(second) == lockManager.stripeOf(first)) {
+            second++;
+        }
+        var bothInside = new CountDownLatch(2);
+        List<Long> secondWallet = List.of(second);
+
+        // When & Then
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var firstTask = executor.submit(() -> lockManager.withWalletLocks(List.of(first), () -> {
+                bothInside.countDown();
+                return bothInside.await(1, TimeUnit.SECONDS);
+            }));
+            var secondTask = executor.submit(() -> lockManager.withWalletLocks(secondWallet, () -> {
+                bothInside.countDown();
+                return bothInside.await(1, TimeUnit.SECONDS);
+            }));
+
+            assertTrue(firstTask.get());
+            assertTrue(secondTask.get());
+        }
+    }
+
+    @Test
+    void constructor_shouldThrowIllegalArgumentException_whenStripeCountIsNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> new WalletLockManager(0, new SimpleMeterRegistry()));
+    }
+}
@@ -0,0 +1,49 @@
+package com.service.wallet.processor.statement;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LocalStatementStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @TempDir
+    Path source;
+
+    @Test
+    void put_shouldReplaceTheExistingStatementWithoutLeavingPartFiles() throws IOException {
+        // Given
+        var store = new LocalStatementStore(directory);
+        store.put("statements/2025-01/1.csv.gz", write("first"));
+
+        // When
+        store.put("statements/2025-01/1.csv.gz", write("second"));
+
+        // Then
+        assertEquals("second", Files.readString(directory.resolve("statements/2025-01/1.csv.gz")));
+        assertFalse(Files.exists(directory.resolve("statements/2025-01/1.csv.gz.part")));
+    }
+
+    @Test
+    void put_shouldRejectKeysOutsideTheDirectory() throws IOException {
+        // Given
+        var store = new LocalStatementStore(directory);
+        var file = write("statement");
+
+        // When & Then
+        assertThrows(IOException.class, () -> store.put("../1.csv.gz", file));
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.writeString(Files.createTempFile(source, "statement", ".csv.gz"), content);
+    }
+}
@@ -0,0 +1,230 @@
+package com.service.wallet.processor.statement;
+
+import com.service.wallet.processor.config.statement.StatementProperty;
+import com.service.wallet.processor.dto.statement.StatementEntry;
+import com.service.wallet.processor.enums.OperationType;
+import com.service.wallet.processor.repository.StatementRepository;
+import com.service.wallet.processor.repository.StatementRepository.WalletIdRange;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StatementJobTest {
+
+    private static final YearMonth PERIOD = YearMonth.of(2025, 1);
+    private static final Duration CLAIM_TIMEOUT = Duration.ofMinutes(30);
+    private static final UUID CLAIM = UUID.randomUUID();
+
+    @Mock
+    StatementRepository statementRepository;
+
+    @TempDir
+    Path directory;
+
+    StatementJob statementJob;
+
+    @BeforeEach
+    void setUp() {
+        var statementProperty = new StatementProperty(true, false, 10, 2, 100, CLAIM_TIMEOUT, "statements", "local",
+                directory.toString(), null, null);
+        statementJob = new StatementJob(statementRepository, new LocalStatementStore(directory), statementProperty,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void generate_shouldWriteOneGzippedStatementPerWalletAndCheckpointTheChunk() throws IOException {
+        // Given
+        var deposit = entry(1, OperationType.DEPOSIT, "100.00", "100.00");
+        var withdraw = entry(1, OperationType.WITHDRAW, "30.00", "70.00");
+        var other = entry(2, OperationType.DEPOSIT, "5.00", "5.00");
+
+        when(statementRepository.findWalletIdRange()).thenReturn(Optional.of(new WalletIdRange(1, 5)));
+        when(statementRepository.findCompletedChunks(PERIOD)).thenReturn(Set.of());
+        when(statementRepository.claimChunk(PERIOD, 0, 9, CLAIM_TIMEOUT)).thenReturn(Optional.of(CLAIM));
+        stream(0, 9, List.of(deposit, withdraw, other));
+        when(statementRepository.completeChunk(PERIOD, 0, CLAIM, 2)).thenReturn(true);
+
+        // When
+        int statements = statementJob.generate(PERIOD);
+
+        // Then
+        assertEquals(2, statements);
+        assertEquals(List.of(StatementFileWriter.HEADER,
+                        line(deposit, "100.00", "100.00"),
+                        line(withdraw, "30.00", "70.00")),
+                read(directory.resolve("statements/2025-01/1.csv.gz")));
+        assertEquals(List.of(StatementFileWriter.HEADER, line(other, "5.00", "5.00")),
+                read(directory.resolve("statements/2025-01/2.csv.gz")));
+        verify(statementRepository).completeChunk(PERIOD, 0, CLAIM, 2);
+    }
+
+    @Test
+    void generate_shouldSkipTheChunksAlreadyDoneOrClaimedElsewhere() {
+        // Given
+        when(statementRepository.findWalletIdRange()).thenReturn(Optional.of(new WalletIdRange(3, 35)));
+        when(statementRepository.findCompletedChunks(PERIOD)).thenReturn(Set.of(0L, 20L));
+        when(statementRepository.claimChunk(PERIOD, 10, 19, CLAIM_TIMEOUT)).thenReturn(Optional.empty());
+        when(statementRepository.claimChunk(PERIOD, 30, 39, CLAIM_TIMEOUT)).thenReturn(Optional.of(CLAIM));
+        stream(30, 39, List.of(entry(31, OperationType.DEPOSIT, "1.00", "1.00")));
+        when(statementRepository.completeChunk(PERIOD, 30, CLAIM, 1)).thenReturn(true);
+
+        // When
+        int statements = statementJob.generate(PERIOD);
+
+        // Then
+        assertEquals(1, statements);
+        verify(statementRepository, never()).claimChunk(eq(PERIOD), eq(0L), anyLong(), any());
+        verify(statementRepository, never()).claimChunk(eq(PERIOD), eq(20L), anyLong(), any());
+        verify(statementRepository, never()).streamSettledEntries(eq(10L), anyLong(), any(), anyInt(), any());
+        verify(statementRepository).completeChunk(PERIOD, 30, CLAIM, 1);
+    }
+
+    @Test
+    void generate_shouldReleaseTheChunkAndDiscardThePartialStatement_whenStreamingFails() {
+        // Given
+        when(statementRepository.findWalletIdRange()).thenReturn(Optional.of(new WalletIdRange(1, 5)));
+        when(statementRepository.findCompletedChunks(PERIOD)).thenReturn(Set.of());
+        when(statementRepository.claimChunk(PERIOD, 0, 9, CLAIM_TIMEOUT)).thenReturn(Optional.of(CLAIM));
+        doAnswer(invocation -> {
+            Consumer<StatementEntry> consumer = invocation.getArgument(4);
+            consumer.accept(entry(1, OperationType.DEPOSIT, "1.00", "1.00"));
+            throw new IllegalStateException("Connection lost");
+        }).when(statementRepository).streamSettledEntries(eq(0L), eq(9L), eq(PERIOD), anyInt(), any());
+
+        // When
+        int statements = statementJob.generate(PERIOD);
+
+        // Then
+        assertEquals(0, statements);
+        assertFalse(Files.exists(directory.resolve("statements/2025-01/1.csv.gz")));
+        verify(statementRepository).releaseChunk(PERIOD, 0, CLAIM);
+        verify(statementRepository, never()).completeChunk(eq(PERIOD), anyLong(), any(), anyInt());
+    }
+
+    @Test
+    void generate_shouldReleaseTheChunk_whenTheCheckpointFails() {
+        // Given
+        when(statementRepository.findWalletIdRange()).thenReturn(Optional.of(new WalletIdRange(1, 5)));
+        when(statementRepository.findCompletedChunks(PERIOD)).thenReturn(Set.of());
+        when(statementRepository.claimChunk(PERIOD, 0, 9, CLAIM_TIMEOUT)).thenReturn(Optional.of(CLAIM));
+        stream(0, 9, List.of());
+        doThrow(new IllegalStateException("Connection lost")).when(statementRepository)
+                .completeChunk(PERIOD, 0, CLAIM, 0);
+
+        // When
+        int statements = statementJob.generate(PERIOD);
+
+        // Then
+        assertEquals(0, statements);
+        verify(statementRepository).releaseChunk(PERIOD, 0, CLAIM);
+    }
+
+    @Test
+    void generate_shouldNotCountTheChunk_whenItsClaimWasTakenOver() {
+        // Given
+        when(statementRepository.findWalletIdRange()).thenReturn(Optional.of(new WalletIdRange(1, 5)));
+        when(statementRepository.findCompletedChunks(PERIOD)).thenReturn(Set.of());
+        when(statementRepository.claimChunk(PERIOD, 0, 9, CLAIM_TIMEOUT)).thenReturn(Optional.of(CLAIM));
+        stream(0, 9, List.of(entry(1, OperationType.DEPOSIT, "1.00", "1.00")));
+        when(statementRepository.completeChunk(PERIOD, 0, CLAIM, 1)).thenReturn(false);
+
+        // When
+        int statements = statementJob.generate(PERIOD);
+
+        // Then
+        assertEquals(0, statements);
+        verify(statementRepository, never()).releaseChunk(any(), anyLong(), any());
+    }
+
+    @Test
+    void generate_shouldDeferThePeriod_untilItIsFullySettled() {
+        // Given
+        when(statementRepository.existsProcessingBefore(LocalDateTime.of(2025, 2, 1, 0, 0))).thenReturn(true, false);
+        when(statementRepository.findWalletIdRange()).thenReturn(Optional.empty());
+
+        // When
+        int statements = statementJob.generate(PERIOD);
+
+        // Then
+        assertEquals(0, statements);
+        verify(statementRepository, never()).findWalletIdRange();
+
+        // When
+        statementJob.generateDeferred();
+        statementJob.generateDeferred();
+
+        // Then
+        verify(statementRepository).findWalletIdRange();
+    }
+
+    @Test
+    void generate_shouldDoNothing_whenThereAreNoWallets() {
+        // Given
+        when(statementRepository.findWalletIdRange()).thenReturn(Optional.empty());
+
+        // When
+        int statements = statementJob.generate(PERIOD);
+
+        // Then
+        assertEquals(0, statements);
+        verify(statementRepository, never()).findCompletedChunks(any());
+    }
+
+    private void stream(long fromWalletId, long toWalletId, List<StatementEntry> entries) {
+        doAnswer(invocation -> {
+            Consumer<StatementEntry> consumer = invocation.getArgument(4);
+            entries.forEach(consumer);
+            return null;
+        }).when(statementRepository).streamSettledEntries(eq(fromWalletId), eq(toWalletId), eq(PERIOD), eq(100),
+                any());
+    }
+
+    private static StatementEntry entry(long walletId, OperationType operation, String amount, String balanceAfter) {
+        return new StatementEntry(walletId, walletId * 100 + operation.ordinal(), UUID.randomUUID(), operation,
+                new BigDecimal(amount), new BigDecimal(balanceAfter), LocalDateTime.of(2025, 1, 15, 10, 30));
+    }
+
+    private static String line(StatementEntry entry, String amount, String balanceAfter) {
+        return entry.createdAt() + "," + entry.correlationId() + "," + entry.operation() + "," + amount + ","
+                + balanceAfter;
+    }
+
+    private static List<String> read(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+        }
+    }
+}